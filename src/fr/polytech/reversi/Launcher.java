@@ -1,11 +1,19 @@
 package fr.polytech.reversi;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import fr.polytech.reversi.model.boardgame.BoardGame;
 import fr.polytech.reversi.model.boardgame.Cell;
 import fr.polytech.reversi.model.players.ComputerPlayer;
+import fr.polytech.reversi.model.players.Difficulty;
 import fr.polytech.reversi.model.players.HumanPlayer;
+import fr.polytech.reversi.model.players.book.BookSelection;
+import fr.polytech.reversi.model.players.book.OpeningBook;
+import fr.polytech.reversi.model.players.evaluation.PatternEvaluator;
+import fr.polytech.reversi.view.JavaFXReversiView;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -21,24 +29,90 @@ import javafx.stage.Stage;
 public class Launcher extends Application
 {
 	/**
-	 * The difficulty (EASY 1, NORMAL 3, HARD 5).
+	 * The difficulty (EASY, NORMAL, HARD).
 	 */
-	public static final int DIFFICULTY = 3;
+	public static final Difficulty DIFFICULTY = Difficulty.NORMAL;
+
+	/**
+	 * The transposition table size of the computer player (in MB).
+	 */
+	public static final int TRANSPOSITION_TABLE_SIZE = 16;
+
+	/**
+	 * The number of search threads of the computer player.
+	 */
+	public static final int SEARCH_THREADS = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * True if the computer player ponders on the human player's time.
+	 */
+	public static final boolean PONDERING = true;
+
+	/**
+	 * The opening book of the computer player (not used if the file does not exist).
+	 */
+	public static final Path OPENING_BOOK = Paths.get("book.bin");
+
+	/**
+	 * The selection of the book moves (BEST, WEIGHTED_RANDOM).
+	 */
+	public static final BookSelection BOOK_SELECTION = BookSelection.WEIGHTED_RANDOM;
+
+	/**
+	 * The pattern weights of the computer player evaluation (the positional evaluation is used if the file does not exist).
+	 */
+	public static final Path PATTERN_WEIGHTS = Paths.get("patterns.bin");
+
+	/**
+	 * True if all the legal moves of the human player are shown, with the number of pawns each one would flip.
+	 */
+	public static final boolean SHOW_LEGAL_MOVES = false;
+
+	/**
+	 * The board game.
+	 */
+	private BoardGame boardGame;
+
+	/**
+	 * The computer player.
+	 */
+	private ComputerPlayer computerPlayer;
 
 	@Override
 	public void start(Stage primaryStage) throws IOException
 	{
 		final FXMLLoader loader = new FXMLLoader(this.getClass().getResource("/fr/polytech/reversi/view/resources/views/Reversi.fxml"));
 		final Parent root = loader.load();
+		final JavaFXReversiView view = loader.getController();
+		view.setLegalMovesShown(SHOW_LEGAL_MOVES);
 		// final BoardGame boardGame = new BoardGame(8, 8, new HumanPlayer(Cell.BLACK_PAWN), new HumanPlayer(Cell.WHITE_PAWN), loader.getController());
-		final BoardGame boardGame = new BoardGame(8, 8, new HumanPlayer(Cell.BLACK_PAWN), new ComputerPlayer(Cell.WHITE_PAWN, DIFFICULTY), loader.getController());
-		boardGame.init();
+		this.computerPlayer = new ComputerPlayer(Cell.WHITE_PAWN, DIFFICULTY, TRANSPOSITION_TABLE_SIZE, SEARCH_THREADS);
+		this.computerPlayer.setPondering(PONDERING);
+		if (Files.exists(OPENING_BOOK))
+		{
+			this.computerPlayer.setOpeningBook(new OpeningBook(OPENING_BOOK), BOOK_SELECTION);
+		}
+
+		if (Files.exists(PATTERN_WEIGHTS))
+		{
+			this.computerPlayer.setEvaluator(new PatternEvaluator(PATTERN_WEIGHTS));
+		}
+
+		this.boardGame = new BoardGame(8, 8, new HumanPlayer(Cell.BLACK_PAWN), this.computerPlayer, view);
+		this.boardGame.init();
 
 		primaryStage.setScene(new Scene(root));
 		primaryStage.setResizable(false);
 		primaryStage.show();
 	}
 
+	@Override
+	public void stop()
+	{
+		this.boardGame.cancelNextChoice();
+		this.computerPlayer.shutdown();
+	}
+
 	/**
 	 * The entry of the application.
 	 * 
@@ -0,0 +1,335 @@
+package fr.polytech.reversi.model.boardgame;
+
+/**
+ * This class gathers the bitboard operations used by the board game.
+ *
+ * A bitboard is a 64 bits long where the bit at index (x * 8 + y) is set when the cell (x, y) holds a pawn.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class BitBoard
+{
+	/**
+	 * The board game size.
+	 */
+	public static final int SIZE = 8;
+
+	/**
+	 * The number of cells.
+	 */
+	public static final int NB_CELLS = SIZE * SIZE;
+
+	/**
+	 * The mask of the inner columns, preventing horizontal and diagonal lines from wrapping around the board game.
+	 */
+	private static final long INNER_COLUMNS = 0x7E7E7E7E7E7E7E7EL;
+
+	/**
+	 * The shift values of the directions (horizontal, vertical and both diagonals).
+	 */
+	private static final int[] SHIFTS = { 1, 8, 7, 9 };
+
+	/**
+	 * The masks applied to the opponent pawns for each direction.
+	 */
+	private static final long[] MASKS = { INNER_COLUMNS, 0xFFFFFFFFFFFFFFFFL, INNER_COLUMNS, INNER_COLUMNS };
+
+	/**
+	 * The black pawns of the start position.
+	 */
+	public static final long START_BLACK_PAWNS = (1L << getSquare(3, 4)) | (1L << getSquare(4, 3));
+
+	/**
+	 * The white pawns of the start position.
+	 */
+	public static final long START_WHITE_PAWNS = (1L << getSquare(3, 3)) | (1L << getSquare(4, 4));
+
+	/**
+	 * The number of symmetries of the board game (rotations and reflections).
+	 */
+	public static final int NB_SYMMETRIES = 8;
+
+	/**
+	 * The first column letter of the move notation.
+	 */
+	private static final char FIRST_COLUMN = 'a';
+
+	/**
+	 * The first row digit of the move notation.
+	 */
+	private static final char FIRST_ROW = '1';
+
+	/**
+	 * Private constructor.
+	 */
+	private BitBoard()
+	{
+	}
+
+	/**
+	 * Get the square of a cell.
+	 * 
+	 * @param x
+	 *            The x coordinate.
+	 * @param y
+	 *            The y coordinate.
+	 * @return The square.
+	 */
+	public static int getSquare(int x, int y)
+	{
+		return x * SIZE + y;
+	}
+
+	/**
+	 * Get the x coordinate of a square.
+	 * 
+	 * @param square
+	 *            The square.
+	 * @return The x coordinate.
+	 */
+	public static int getX(int square)
+	{
+		return square >>> 3;
+	}
+
+	/**
+	 * Get the y coordinate of a square.
+	 * 
+	 * @param square
+	 *            The square.
+	 * @return The y coordinate.
+	 */
+	public static int getY(int square)
+	{
+		return square & 7;
+	}
+
+	/**
+	 * Get the square of a move in the usual notation (a column letter then a row digit, as "f5"): the column gives the y coordinate and the row the x coordinate.
+	 * 
+	 * @param column
+	 *            The column letter (between 'a' and 'h', or 'A' and 'H').
+	 * @param row
+	 *            The row digit (between '1' and '8').
+	 * @return The square, or -1 if the notation is invalid.
+	 */
+	public static int getSquare(char column, char row)
+	{
+		final int y = Character.toLowerCase(column) - FIRST_COLUMN;
+		final int x = row - FIRST_ROW;
+
+		return ((x >= 0) && (x < SIZE) && (y >= 0) && (y < SIZE) ? getSquare(x, y) : -1);
+	}
+
+	/**
+	 * Get the notation of a square (a column letter then a row digit, as "f5").
+	 * 
+	 * @param square
+	 *            The square.
+	 * @return The notation.
+	 */
+	public static String getNotation(int square)
+	{
+		return new String(new char[] { (char) (FIRST_COLUMN + getY(square)), (char) (FIRST_ROW + getX(square)) });
+	}
+
+	/**
+	 * Parse moves in the usual notation ("f5d6c3...").
+	 * 
+	 * @param text
+	 *            The moves.
+	 * @return The moves squares, or null if a move is invalid.
+	 */
+	public static int[] parseMoves(String text)
+	{
+		if ((text.length() & 1) != 0)
+		{
+			return null;
+		}
+
+		final int[] squares = new int[text.length() / 2];
+		for (int index = 0; index < squares.length; index++)
+		{
+			squares[index] = getSquare(text.charAt(2 * index), text.charAt(2 * index + 1));
+			if (squares[index] < 0)
+			{
+				return null;
+			}
+		}
+
+		return squares;
+	}
+
+	/**
+	 * Flip a bitboard vertically (x becomes 7 - x).
+	 * 
+	 * @param bitboard
+	 *            The bitboard.
+	 * @return The flipped bitboard.
+	 */
+	public static long flipVertical(long bitboard)
+	{
+		return Long.reverseBytes(bitboard);
+	}
+
+	/**
+	 * Mirror a bitboard horizontally (y becomes 7 - y).
+	 * 
+	 * @param bitboard
+	 *            The bitboard.
+	 * @return The mirrored bitboard.
+	 */
+	public static long mirrorHorizontal(long bitboard)
+	{
+		return Long.reverseBytes(Long.reverse(bitboard));
+	}
+
+	/**
+	 * Flip a bitboard about its main diagonal (x and y are swapped).
+	 * 
+	 * @param bitboard
+	 *            The bitboard.
+	 * @return The flipped bitboard.
+	 */
+	public static long flipDiagonal(long bitboard)
+	{
+		long flipped = bitboard;
+		long swapped;
+
+		swapped = 0x0F0F0F0F00000000L & (flipped ^ (flipped << 28));
+		flipped ^= swapped ^ (swapped >>> 28);
+		swapped = 0x3333000033330000L & (flipped ^ (flipped << 14));
+		flipped ^= swapped ^ (swapped >>> 14);
+		swapped = 0x5500550055005500L & (flipped ^ (flipped << 7));
+		flipped ^= swapped ^ (swapped >>> 7);
+
+		return flipped;
+	}
+
+	/**
+	 * Apply a symmetry to a bitboard.
+	 * 
+	 * @param bitboard
+	 *            The bitboard.
+	 * @param symmetry
+	 *            The symmetry (between 0 and {@link #NB_SYMMETRIES} - 1): bit 0 flips vertically, bit 1 mirrors horizontally and bit 2 flips about the main diagonal, in this order.
+	 * @return The transformed bitboard.
+	 */
+	public static long getSymmetry(long bitboard, int symmetry)
+	{
+		long transformed = bitboard;
+		if ((symmetry & 1) != 0)
+		{
+			transformed = flipVertical(transformed);
+		}
+
+		if ((symmetry & 2) != 0)
+		{
+			transformed = mirrorHorizontal(transformed);
+		}
+
+		if ((symmetry & 4) != 0)
+		{
+			transformed = flipDiagonal(transformed);
+		}
+
+		return transformed;
+	}
+
+	/**
+	 * Get the legal moves of a player.
+	 * 
+	 * @param playerPawns
+	 *            The player pawns.
+	 * @param opponentPawns
+	 *            The opponent pawns.
+	 * @return The bitboard of the legal moves.
+	 */
+	public static long getLegalMoves(long playerPawns, long opponentPawns)
+	{
+		long legalMoves = 0L;
+		long candidates;
+		long maskedOpponentPawns;
+		int shift;
+
+		for (int direction = 0; direction < SHIFTS.length; direction++)
+		{
+			shift = SHIFTS[direction];
+			maskedOpponentPawns = opponentPawns & MASKS[direction];
+
+			candidates = maskedOpponentPawns & (playerPawns << shift);
+			candidates |= maskedOpponentPawns & (candidates << shift);
+			candidates |= maskedOpponentPawns & (candidates << shift);
+			candidates |= maskedOpponentPawns & (candidates << shift);
+			candidates |= maskedOpponentPawns & (candidates << shift);
+			candidates |= maskedOpponentPawns & (candidates << shift);
+			legalMoves |= candidates << shift;
+
+			candidates = maskedOpponentPawns & (playerPawns >>> shift);
+			candidates |= maskedOpponentPawns & (candidates >>> shift);
+			candidates |= maskedOpponentPawns & (candidates >>> shift);
+			candidates |= maskedOpponentPawns & (candidates >>> shift);
+			candidates |= maskedOpponentPawns & (candidates >>> shift);
+			candidates |= maskedOpponentPawns & (candidates >>> shift);
+			legalMoves |= candidates >>> shift;
+		}
+
+		return legalMoves & ~(playerPawns | opponentPawns);
+	}
+
+	/**
+	 * Get the pawns flipped by a move.
+	 * 
+	 * @param square
+	 *            The square of the move.
+	 * @param playerPawns
+	 *            The player pawns.
+	 * @param opponentPawns
+	 *            The opponent pawns.
+	 * @return The bitboard of the flipped pawns (empty if the move is not legal).
+	 */
+	public static long getFlips(int square, long playerPawns, long opponentPawns)
+	{
+		final long move = 1L << square;
+		long flips = 0L;
+		long line;
+		long cursor;
+		long maskedOpponentPawns;
+		int shift;
+
+		for (int direction = 0; direction < SHIFTS.length; direction++)
+		{
+			shift = SHIFTS[direction];
+			maskedOpponentPawns = opponentPawns & MASKS[direction];
+
+			line = 0L;
+			cursor = move << shift;
+			while ((cursor & maskedOpponentPawns) != 0)
+			{
+				line |= cursor;
+				cursor <<= shift;
+			}
+
+			if ((cursor & playerPawns) != 0)
+			{
+				flips |= line;
+			}
+
+			line = 0L;
+			cursor = move >>> shift;
+			while ((cursor & maskedOpponentPawns) != 0)
+			{
+				line |= cursor;
+				cursor >>>= shift;
+			}
+
+			if ((cursor & playerPawns) != 0)
+			{
+				flips |= line;
+			}
+		}
+
+		return flips;
+	}
+}
\ No newline at end of file
@@ -1,13 +1,18 @@
 package fr.polytech.reversi.model.boardgame;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import fr.polytech.reversi.model.boardgame.events.FlightRecorder;
+import fr.polytech.reversi.model.boardgame.events.MoveEvent;
 import fr.polytech.reversi.model.boardgame.exceptions.AlreadyMarkedCellBoardGameException;
 import fr.polytech.reversi.model.boardgame.exceptions.BoardGameException;
 import fr.polytech.reversi.model.boardgame.exceptions.InvalidMoveBoardGameException;
+import fr.polytech.reversi.model.boardgame.records.GameRecord;
+import fr.polytech.reversi.model.boardgame.records.GameRecordWriter;
 import fr.polytech.reversi.model.players.IPlayer;
 import fr.polytech.reversi.model.players.PlayerType;
 import fr.polytech.reversi.view.IView;
@@ -26,30 +31,102 @@ public class BoardGame
 	public static final int DEFAULT_MOVE_VALUE = 0;
 
 	/**
-	 * The x direction value to add.
+	 * The evaluation board.
 	 */
-	private static final int[] DX = { -1, 0, 1, -1, 1, -1, 0, 1 };
+	private static final int[][] EVALUATION_BOARD = new int[][] { { 50, -20, 5, 5, 5, 5, -20, 50 }, { -20, -20, 5, 5, 5, 5, -20, -20 }, { 5, 5, 5, 5, 5, 5, 5, 5 }, { 5, 5, 5, 5, 5, 5, 5, 5 }, { 5, 5, 5, 5, 5, 5, 5, 5 }, { 5, 5, 5, 5, 5, 5, 5, 5 }, { -20, -20, 5, 5, 5, 5, -20, -20 }, { 50, -20, 5, 5, 5, 5, -20, 50 } };
 
 	/**
-	 * The y direction value to add.
+	 * The points of the evaluation board, by square.
 	 */
-	private static final int[] DY = { -1, -1, -1, 0, 0, 1, 1, 1 };
+	private static final int[] SQUARE_POINTS = new int[BitBoard.NB_CELLS];
 
 	/**
-	 * The evaluation board.
+	 * The sum of the points of the evaluation board.
 	 */
-	private static final int[][] EVALUATION_BOARD = new int[][] { { 50, -20, 5, 5, 5, 5, -20, 50 }, { -20, -20, 5, 5, 5, 5, -20, -20 }, { 5, 5, 5, 5, 5, 5, 5, 5 }, { 5, 5, 5, 5, 5, 5, 5, 5 }, { 5, 5, 5, 5, 5, 5, 5, 5 }, { 5, 5, 5, 5, 5, 5, 5, 5 }, { -20, -20, 5, 5, 5, 5, -20, -20 }, { 50, -20, 5, 5, 5, 5, -20, 50 } };
+	private static final int TOTAL_POINTS;
+
+	static
+	{
+		int totalPoints = 0;
+		for (int square = 0; square < BitBoard.NB_CELLS; square++)
+		{
+			SQUARE_POINTS[square] = EVALUATION_BOARD[BitBoard.getX(square)][BitBoard.getY(square)];
+			totalPoints += SQUARE_POINTS[square];
+		}
+
+		TOTAL_POINTS = totalPoints;
+	}
+
+	/**
+	 * The black pawns bitboard.
+	 */
+	private long blackPawns;
+
+	/**
+	 * The white pawns bitboard.
+	 */
+	private long whitePawns;
+
+	/**
+	 * The Zobrist hash of the pawns.
+	 */
+	private long hash;
+
+	/**
+	 * The ternary codes of the pattern instances (see {@link Patterns}).
+	 */
+	private final int[] patternCodes;
+
+	/**
+	 * The number of black pawns.
+	 */
+	private int nbBlackPawns;
 
 	/**
-	 * The board game.
+	 * The number of white pawns.
 	 */
-	private Cell[][] boardGame;
+	private int nbWhitePawns;
+
+	/**
+	 * The points of the black pawns.
+	 */
+	private int blackPoints;
+
+	/**
+	 * The points of the white pawns.
+	 */
+	private int whitePoints;
 
 	/**
 	 * The number of cells remaining.
 	 */
 	private int nbCellsRemaining;
 
+	/**
+	 * The squares of the played moves, by ply.
+	 */
+	private final int[] squaresStack;
+
+	/**
+	 * The pawns flipped by the played moves, by ply.
+	 */
+	private final long[] flipsStack;
+
+	/**
+	 * The player pawns of the played moves, by ply.
+	 */
+	private final Cell[] pawnsStack;
+
+	/**
+	 * The Zobrist hashes before the played moves, by ply.
+	 */
+	private final long[] hashesStack;
+
+	/**
+	 * The number of played moves which can be unmade.
+	 */
+	private int ply;
+
 	/**
 	 * The player one.
 	 */
@@ -65,6 +142,11 @@ public class BoardGame
 	 */
 	private IPlayer currentPlayer;
 
+	/**
+	 * The legal moves of the current player, computed once by position of the game.
+	 */
+	private long currentLegalMoves;
+
 	/**
 	 * The carried out moves.
 	 */
@@ -75,13 +157,33 @@ public class BoardGame
 	 */
 	private final IView reversiView;
 
+	/**
+	 * The pending choice of the current player, a computer player (null if none).
+	 */
+	private CompletableFuture<Position> pendingChoice;
+
+	/**
+	 * The writer of the record of the game, once it is over (null if none).
+	 */
+	private GameRecordWriter gameRecordWriter;
+
+	/**
+	 * The description of the player one in the game record.
+	 */
+	private String playerOneDescription;
+
+	/**
+	 * The description of the player two in the game record.
+	 */
+	private String playerTwoDescription;
+
 	/**
 	 * Create a board game.
 	 * 
 	 * @param width
-	 *            The width.
+	 *            The width (only 8 is supported).
 	 * @param height
-	 *            The height.
+	 *            The height (only 8 is supported).
 	 * @param playerOne
 	 *            The player one.
 	 * @param playerTwo
@@ -91,8 +193,17 @@ public class BoardGame
 	 */
 	public BoardGame(int width, int height, IPlayer playerOne, IPlayer playerTwo, IView reversiView)
 	{
-		this.boardGame = new Cell[width][height];
+		if ((width != BitBoard.SIZE) || (height != BitBoard.SIZE))
+		{
+			throw new IllegalArgumentException(String.format("Unsupported board game size (%d, %d)", width, height));
+		}
+
 		this.nbCellsRemaining = width * height - 4;
+		this.patternCodes = new int[Patterns.NB_INSTANCES];
+		this.squaresStack = new int[BitBoard.NB_CELLS];
+		this.flipsStack = new long[BitBoard.NB_CELLS];
+		this.pawnsStack = new Cell[BitBoard.NB_CELLS];
+		this.hashesStack = new long[BitBoard.NB_CELLS];
 		this.playerOne = playerOne;
 		this.playerTwo = playerTwo;
 		this.moves = new HashMap<IPlayer, Integer>();
@@ -107,8 +218,19 @@ public class BoardGame
 	 */
 	public BoardGame(BoardGame boardGame)
 	{
-		this.boardGame = boardGame.getBoardGame();
+		this.blackPawns = boardGame.blackPawns;
+		this.whitePawns = boardGame.whitePawns;
+		this.hash = boardGame.hash;
 		this.nbCellsRemaining = boardGame.getNbCellsRemaining();
+		this.patternCodes = boardGame.patternCodes.clone();
+		this.nbBlackPawns = boardGame.nbBlackPawns;
+		this.nbWhitePawns = boardGame.nbWhitePawns;
+		this.blackPoints = boardGame.blackPoints;
+		this.whitePoints = boardGame.whitePoints;
+		this.squaresStack = new int[BitBoard.NB_CELLS];
+		this.flipsStack = new long[BitBoard.NB_CELLS];
+		this.pawnsStack = new Cell[BitBoard.NB_CELLS];
+		this.hashesStack = new long[BitBoard.NB_CELLS];
 		this.playerOne = boardGame.getPlayerOne();
 		this.playerTwo = boardGame.getPlayerTwo();
 		this.moves = null;
@@ -120,24 +242,83 @@ public class BoardGame
 	 */
 	public void init()
 	{
-		for (int x = 0; x < this.boardGame.length; x++)
-		{
-			for (int y = 0; y < this.boardGame[0].length; y++)
-			{
-				this.boardGame[x][y] = Cell.EMPTY;
-			}
-		}
+		init(new int[0]);
+	}
 
-		this.boardGame[3][3] = Cell.WHITE_PAWN;
-		this.boardGame[3][4] = Cell.BLACK_PAWN;
-		this.boardGame[4][3] = Cell.BLACK_PAWN;
-		this.boardGame[4][4] = Cell.WHITE_PAWN;
+	/**
+	 * Init the board game from an opening: its moves are played in turn, black first, before the players take over. They are not counted as moves of the players.
+	 * 
+	 * @param openingMoves
+	 *            The squares of the opening moves (the passes are implied).
+	 * @throws IllegalArgumentException
+	 *             If a move of the opening is illegal.
+	 */
+	public void init(int[] openingMoves)
+	{
+		this.blackPawns = BitBoard.START_BLACK_PAWNS;
+		this.whitePawns = BitBoard.START_WHITE_PAWNS;
+		this.hash = Zobrist.getHash(this.blackPawns, this.whitePawns);
+		Patterns.computeCodes(this.blackPawns, this.whitePawns, this.patternCodes);
+		this.nbBlackPawns = Long.bitCount(this.blackPawns);
+		this.nbWhitePawns = Long.bitCount(this.whitePawns);
+		this.blackPoints = computePoints(this.blackPawns);
+		this.whitePoints = computePoints(this.whitePawns);
+		this.nbCellsRemaining = BitBoard.NB_CELLS - 4;
+		this.ply = 0;
 
 		this.moves.put(this.playerOne, DEFAULT_MOVE_VALUE);
 		this.moves.put(this.playerTwo, DEFAULT_MOVE_VALUE);
 
+		this.currentPlayer = null;
 		updateCurrentPlayer();
+		for (int square : openingMoves)
+		{
+			if ((square < 0) || (square >= BitBoard.NB_CELLS) || ((this.currentLegalMoves & (1L << square)) == 0))
+			{
+				throw new IllegalArgumentException(String.format("Illegal opening move (%d)", square));
+			}
+
+			makeMove(square, this.currentPlayer.getCellRepresentation());
+			updateCurrentPlayer();
+			if ((this.currentLegalMoves == 0) && !gameOver())
+			{
+				updateCurrentPlayer();
+			}
+		}
+
 		this.reversiView.notifyUpdateBoardGame(this);
+		this.reversiView.notifyUpdateScore(1, getNbCellsByPawn(this.playerOne.getCellRepresentation()));
+		this.reversiView.notifyUpdateScore(2, getNbCellsByPawn(this.playerTwo.getCellRepresentation()));
+
+		if (!gameOver() && (this.currentPlayer.getPlayerType() == PlayerType.COMPUTER))
+		{
+			requestNextChoice();
+		}
+	}
+
+	/**
+	 * Set the writer of the record of the game: the moves played since the start position (the opening included) are written once the game is over.
+	 * 
+	 * @param gameRecordWriter
+	 *            The game record writer (null for none).
+	 * @param playerOneDescription
+	 *            The description of the player one (black), such as its engine settings.
+	 * @param playerTwoDescription
+	 *            The description of the player two (white).
+	 * @throws IllegalArgumentException
+	 *             If a description is too long to be written (see {@link GameRecordWriter#checkPlayerDescription(String)}).
+	 */
+	public void setGameRecordWriter(GameRecordWriter gameRecordWriter, String playerOneDescription, String playerTwoDescription)
+	{
+		if (gameRecordWriter != null)
+		{
+			GameRecordWriter.checkPlayerDescription(playerOneDescription);
+			GameRecordWriter.checkPlayerDescription(playerTwoDescription);
+		}
+
+		this.gameRecordWriter = gameRecordWriter;
+		this.playerOneDescription = playerOneDescription;
+		this.playerTwoDescription = playerTwoDescription;
 	}
 
 	/**
@@ -154,6 +335,7 @@ public class BoardGame
 			this.currentPlayer = this.playerOne;
 		}
 
+		this.currentLegalMoves = getLegalMoves(this.currentPlayer.getCellRepresentation());
 		this.reversiView.notifyCurrentPlayer(this.currentPlayer == this.playerOne ? 1 : 2);
 	}
 
@@ -167,22 +349,33 @@ public class BoardGame
 	 */
 	public void markCell(Position position) throws BoardGameException
 	{
+		// The event is only created if the flight recorder API is available, so that its classes are never loaded otherwise.
+		final MoveEvent moveEvent = (FlightRecorder.isAvailable() ? new MoveEvent() : null);
+		if (moveEvent != null)
+		{
+			moveEvent.begin();
+		}
+
 		checkMoveIsLegal(position.getX(), position.getY(), this.currentPlayer.getCellRepresentation());
-		applyMove(position.getX(), position.getY(), this.currentPlayer.getCellRepresentation());
-		this.nbCellsRemaining--;
+		final int square = BitBoard.getSquare(position.getX(), position.getY());
+		final int playerNumber = (this.currentPlayer == this.playerOne ? 1 : 2);
+		makeMove(square, this.currentPlayer.getCellRepresentation());
 		this.moves.put(this.currentPlayer, this.moves.get(this.currentPlayer) + 1);
 
 		updateCurrentPlayer();
+
+		final int playerOneScore = getNbCellsByPawn(this.playerOne.getCellRepresentation());
+		final int playerTwoScore = getNbCellsByPawn(this.playerTwo.getCellRepresentation());
 		this.reversiView.notifyUpdateBoardGame(this);
-		this.reversiView.notifyUpdateScore(1, getNbCellsByPawn(this.playerOne.getCellRepresentation()));
-		this.reversiView.notifyUpdateScore(2, getNbCellsByPawn(this.playerTwo.getCellRepresentation()));
+		this.reversiView.notifyUpdateScore(1, playerOneScore);
+		this.reversiView.notifyUpdateScore(2, playerTwoScore);
 		this.reversiView.notifyUpdateMoves(1, this.moves.get(this.playerOne));
 		this.reversiView.notifyUpdateMoves(2, this.moves.get(this.playerTwo));
 
-		final int playerOneScore = getNbCellsByPawn(this.playerOne.getCellRepresentation());
-		final int playerTwoScore = getNbCellsByPawn(this.playerTwo.getCellRepresentation());
-		if (areAllCellsMarked() || (playerOneScore == 0) || (playerTwoScore == 0))
+		if (gameOver())
 		{
+			writeGameRecord();
+
 			String computedMessage = null;
 			if (playerOneScore == playerTwoScore)
 			{
@@ -194,21 +387,155 @@ public class BoardGame
 			}
 
 			this.reversiView.notifyMessage(computedMessage);
+			commitMoveEvent(moveEvent, playerNumber, square, false, true);
 			return;
 		}
 
-		if (!playerCanPlay(this.currentPlayer.getCellRepresentation()))
+		final boolean opponentPasses = (this.currentLegalMoves == 0);
+		if (opponentPasses)
 		{
 			this.reversiView.notifyMessage(String.format("Joueur %d ne peut pas jouer...", (this.currentPlayer == this.playerOne ? 1 : 2)));
 			updateCurrentPlayer();
 		}
 
+		commitMoveEvent(moveEvent, playerNumber, square, opponentPasses, false);
+
 		if (this.currentPlayer.getPlayerType() == PlayerType.COMPUTER)
 		{
-			markCell(this.currentPlayer.getNextChoice(new BoardGame(this)));
+			requestNextChoice();
+		}
+	}
+
+	/**
+	 * Write the record of the game, once it is over, if there is a game record writer.
+	 */
+	private void writeGameRecord()
+	{
+		if (this.gameRecordWriter == null)
+		{
+			return;
+		}
+
+		try
+		{
+			this.gameRecordWriter.write(new GameRecord(this.playerOneDescription, this.playerTwoDescription, this.nbBlackPawns, this.nbWhitePawns, Arrays.copyOf(this.squaresStack, this.ply)));
+		}
+		catch (IOException | IllegalArgumentException e)
+		{
+			this.reversiView.notifyMessage(String.format("La partie n'a pas pu être enregistrée (%s)", e.getMessage()));
+		}
+	}
+
+	/**
+	 * Commit the flight recorder event of a move, if it is enabled.
+	 * 
+	 * @param moveEvent
+	 *            The move event, begun before the move was checked (null if the flight recorder API is not available).
+	 * @param playerNumber
+	 *            The number of the player who has moved.
+	 * @param square
+	 *            The square of the move.
+	 * @param opponentPasses
+	 *            True if the opponent can not play after the move.
+	 * @param gameOver
+	 *            True if the game is over after the move.
+	 */
+	private void commitMoveEvent(MoveEvent moveEvent, int playerNumber, int square, boolean opponentPasses, boolean gameOver)
+	{
+		if (moveEvent == null)
+		{
+			return;
+		}
+
+		moveEvent.end();
+		if (moveEvent.shouldCommit())
+		{
+			moveEvent.playerNumber = playerNumber;
+			moveEvent.move = BitBoard.getNotation(square);
+			moveEvent.nbBlackPawns = this.nbBlackPawns;
+			moveEvent.nbWhitePawns = this.nbWhitePawns;
+			moveEvent.opponentPasses = opponentPasses;
+			moveEvent.gameOver = gameOver;
+			moveEvent.commit();
+		}
+	}
+
+	/**
+	 * Request the next choice of the current player, a computer player. The choice is searched on the engine thread of the player, so that the view is not blocked: its progress and the choice itself
+	 * are given back to the view thread.
+	 */
+	private void requestNextChoice()
+	{
+		final IPlayer player = this.currentPlayer;
+		final int playerNumber = (player == this.playerOne ? 1 : 2);
+		final CompletableFuture<Position> choice = player.getNextChoiceAsync(this, (depth, bestMove, score) -> this.reversiView.runLater(() ->
+		{
+			if ((this.pendingChoice != null) && (this.currentPlayer == player))
+			{
+				this.reversiView.notifyMessage(String.format("Joueur %d réfléchit (profondeur %d, meilleur coup %s)", playerNumber, depth, BitBoard.getNotation(BitBoard.getSquare(bestMove.getX(), bestMove.getY()))));
+			}
+		}));
+
+		this.pendingChoice = choice;
+		choice.whenComplete((position, error) -> this.reversiView.runLater(() -> applyChoice(choice, position, error)));
+	}
+
+	/**
+	 * Apply the choice of a computer player, unless it has been cancelled.
+	 * 
+	 * @param choice
+	 *            The choice.
+	 * @param position
+	 *            The position to mark (null if there is none).
+	 * @param error
+	 *            The error of the search (null if none).
+	 */
+	private void applyChoice(CompletableFuture<Position> choice, Position position, Throwable error)
+	{
+		if (this.pendingChoice != choice)
+		{
+			return;
+		}
+
+		this.pendingChoice = null;
+		if ((error != null) || (position == null))
+		{
+			this.reversiView.notifyChoiceFailed((this.currentPlayer == this.playerOne ? 1 : 2), error);
+			return;
+		}
+
+		try
+		{
+			markCell(position);
+		}
+		catch (BoardGameException e)
+		{
+			this.reversiView.notifyMessage(e.getMessage());
+		}
+	}
+
+	/**
+	 * Cancel the pending choice of a computer player, if any: its search is stopped and its choice is ignored.
+	 */
+	public void cancelNextChoice()
+	{
+		if (this.pendingChoice != null)
+		{
+			this.pendingChoice.cancel(true);
+			this.pendingChoice = null;
 		}
 	}
 
+	/**
+	 * Check if a computer player is thinking of its next choice.
+	 * 
+	 * @return True or False.
+	 */
+	public boolean isThinking()
+	{
+		return (this.pendingChoice != null);
+	}
+
 	/**
 	 * Check if the move is legal.
 	 * 
@@ -250,7 +577,7 @@ public class BoardGame
 	 */
 	private boolean isInBounds(int x, int y)
 	{
-		return ((x >= 0) && (x < this.boardGame.length) && (y >= 0) && (y < this.boardGame[0].length));
+		return ((x >= 0) && (x < BitBoard.SIZE) && (y >= 0) && (y < BitBoard.SIZE));
 	}
 
 	/**
@@ -264,7 +591,7 @@ public class BoardGame
 	 */
 	private boolean cellIsEmpty(int x, int y)
 	{
-		return this.boardGame[x][y] == Cell.EMPTY;
+		return ((this.blackPawns | this.whitePawns) & (1L << BitBoard.getSquare(x, y))) == 0;
 	}
 
 	/**
@@ -280,113 +607,60 @@ public class BoardGame
 	 */
 	private boolean moveCanBePlayed(int x, int y, Cell playerPawn)
 	{
-		Cell currentPawn = null;
-
-		boolean sawOther;
-		int xTemp;
-		int yTemp;
-
-		for (int ii = 0; ii < DX.length; ii++)
-		{
-			sawOther = false;
-			xTemp = x;
-			yTemp = y;
-
-			for (int dd = 0; dd < this.boardGame.length; dd++)
-			{
-				xTemp += DX[ii];
-				yTemp += DY[ii];
-
-				if (!isInBounds(xTemp, yTemp))
-				{
-					break;
-				}
-
-				currentPawn = this.boardGame[xTemp][yTemp];
-
-				if (currentPawn == Cell.EMPTY)
-				{
-					break;
-				}
-
-				if (currentPawn != playerPawn)
-				{
-					sawOther = true;
-				}
-				else
-				{
-					if (sawOther)
-					{
-						return true;
-					}
-
-					break;
-				}
-			}
-		}
-
-		return false;
+		return (getLegalMoves(playerPawn) & (1L << BitBoard.getSquare(x, y))) != 0;
 	}
 
 	/**
 	 * Apply a move.
 	 * 
-	 * @param x
-	 *            The x coordinate.
-	 * @param y
-	 *            The y coordinate.
+	 * @param square
+	 *            The square of the move.
 	 * @param playerPawn
 	 *            The player pawn.
+	 * @return The flipped pawns.
 	 */
-	private void applyMove(int x, int y, Cell playerPawn)
+	private long applyMove(int square, Cell playerPawn)
 	{
-		Cell currentPawn;
-
-		final List<Position> positionsToFlip = new ArrayList<Position>();
-		int xTemp;
-		int yTemp;
-
-		this.boardGame[x][y] = playerPawn;
-
-		for (int ii = 0; ii < DX.length; ii++)
+		final long flips = BitBoard.getFlips(square, getPawns(playerPawn), getOpponentPawns(playerPawn));
+		final int flipDelta = (playerPawn == Cell.BLACK_PAWN ? Patterns.BLACK_CODE - Patterns.WHITE_CODE : Patterns.WHITE_CODE - Patterns.BLACK_CODE);
+		final int nbFlips = Long.bitCount(flips);
+
+		long flipped = flips;
+		int flippedSquare;
+		int flippedPoints = 0;
+		while (flipped != 0)
 		{
-			xTemp = x;
-			yTemp = y;
-
-			for (int dd = 0; dd < this.boardGame.length; dd++)
-			{
-				xTemp += DX[ii];
-				yTemp += DY[ii];
-
-				if (!isInBounds(xTemp, yTemp))
-				{
-					break;
-				}
-
-				currentPawn = this.boardGame[xTemp][yTemp];
-
-				if (currentPawn == Cell.EMPTY)
-				{
-					break;
-				}
-
-				if (currentPawn != playerPawn)
-				{
-					positionsToFlip.add(new Position(xTemp, yTemp));
-				}
-				else
-				{
-					for (Position currentPosition : positionsToFlip)
-					{
-						this.boardGame[currentPosition.getX()][currentPosition.getY()] = playerPawn;
-					}
-
-					break;
-				}
-			}
+			flippedSquare = Long.numberOfTrailingZeros(flipped);
+			this.hash ^= Zobrist.FLIP_KEYS[flippedSquare];
+			Patterns.updateCodes(this.patternCodes, flippedSquare, flipDelta);
+			flippedPoints += SQUARE_POINTS[flippedSquare];
+			flipped &= flipped - 1;
+		}
 
-			positionsToFlip.clear();
+		if (playerPawn == Cell.BLACK_PAWN)
+		{
+			this.blackPawns |= flips | (1L << square);
+			this.whitePawns &= ~flips;
+			this.hash ^= Zobrist.BLACK_PAWN_KEYS[square];
+			Patterns.updateCodes(this.patternCodes, square, Patterns.BLACK_CODE);
+			this.nbBlackPawns += nbFlips + 1;
+			this.nbWhitePawns -= nbFlips;
+			this.blackPoints += flippedPoints + SQUARE_POINTS[square];
+			this.whitePoints -= flippedPoints;
 		}
+		else
+		{
+			this.whitePawns |= flips | (1L << square);
+			this.blackPawns &= ~flips;
+			this.hash ^= Zobrist.WHITE_PAWN_KEYS[square];
+			Patterns.updateCodes(this.patternCodes, square, Patterns.WHITE_CODE);
+			this.nbWhitePawns += nbFlips + 1;
+			this.nbBlackPawns -= nbFlips;
+			this.whitePoints += flippedPoints + SQUARE_POINTS[square];
+			this.blackPoints -= flippedPoints;
+		}
+
+		return flips;
 	}
 
 	/**
@@ -409,28 +683,70 @@ public class BoardGame
 	 */
 	public boolean playerCanPlay(Cell playerPawn)
 	{
-		final List<Position> availablePositions = new ArrayList<Position>();
-		for (int x = 0; x < this.boardGame.length; x++)
+		return getLegalMoves(playerPawn) != 0;
+	}
+
+	/**
+	 * Get the legal moves of a player.
+	 * 
+	 * @param playerPawn
+	 *            The player pawn.
+	 * @return The bitboard of the legal moves (the bit at index x * 8 + y is set when the move (x, y) is legal).
+	 */
+	public long getLegalMoves(Cell playerPawn)
+	{
+		return BitBoard.getLegalMoves(getPawns(playerPawn), getOpponentPawns(playerPawn));
+	}
+
+	/**
+	 * Get the legal moves of a player.
+	 * 
+	 * @param playerPawn
+	 *            The player pawn.
+	 * @param squares
+	 *            The preallocated array filled with the squares of the legal moves (at least 64 long).
+	 * @return The number of legal moves.
+	 */
+	public int getLegalMoves(Cell playerPawn, int[] squares)
+	{
+		long legalMoves = getLegalMoves(playerPawn);
+		int nbLegalMoves = 0;
+
+		while (legalMoves != 0)
 		{
-			for (int y = 0; y < this.boardGame[0].length; y++)
-			{
-				try
-				{
-					checkMoveIsLegal(x, y, playerPawn);
-					availablePositions.add(new Position(x, y));
-				}
-				catch (BoardGameException e)
-				{
-					// Nothing.
-				}
-			}
+			squares[nbLegalMoves++] = Long.numberOfTrailingZeros(legalMoves);
+			legalMoves &= legalMoves - 1;
 		}
 
-		return !availablePositions.isEmpty();
+		return nbLegalMoves;
 	}
 
 	/**
-	 * Get the number of cells for a specific pawn.
+	 * Get the legal moves of the current player. They are computed once by position of the game, when the current player is updated (not by {@link #makeMove(int, Cell)}).
+	 * 
+	 * @return The legal moves bitboard.
+	 */
+	public long getCurrentLegalMoves()
+	{
+		return this.currentLegalMoves;
+	}
+
+	/**
+	 * Get the number of pawns a move would flip.
+	 * 
+	 * @param square
+	 *            The square of the move.
+	 * @param playerPawn
+	 *            The player pawn.
+	 * @return The number of flipped pawns (0 if the move is not legal).
+	 */
+	public int getNbFlips(int square, Cell playerPawn)
+	{
+		return Long.bitCount(BitBoard.getFlips(square, getPawns(playerPawn), getOpponentPawns(playerPawn)));
+	}
+
+	/**
+	 * Get the number of cells for a specific pawn (maintained as the moves are made).
 	 * 
 	 * @param pawn
 	 *            The specific pawn.
@@ -438,23 +754,19 @@ public class BoardGame
 	 */
 	public int getNbCellsByPawn(Cell pawn)
 	{
-		int nbCells = 0;
-		for (int x = 0; x < this.boardGame.length; x++)
+		switch (pawn)
 		{
-			for (int y = 0; y < this.boardGame[0].length; y++)
-			{
-				if (this.boardGame[x][y] == pawn)
-				{
-					nbCells++;
-				}
-			}
+			case BLACK_PAWN:
+				return this.nbBlackPawns;
+			case WHITE_PAWN:
+				return this.nbWhitePawns;
+			default:
+				return this.nbCellsRemaining;
 		}
-
-		return nbCells;
 	}
 
 	/**
-	 * Get the number of points for a specific pawn.
+	 * Get the number of points for a specific pawn (maintained as the moves are made).
 	 * 
 	 * @param pawn
 	 *            The specific pawn.
@@ -462,16 +774,33 @@ public class BoardGame
 	 */
 	public int getNbPointsByPawn(Cell pawn)
 	{
+		switch (pawn)
+		{
+			case BLACK_PAWN:
+				return this.blackPoints;
+			case WHITE_PAWN:
+				return this.whitePoints;
+			default:
+				return TOTAL_POINTS - this.blackPoints - this.whitePoints;
+		}
+	}
+
+	/**
+	 * Compute the number of points of pawns from scratch.
+	 * 
+	 * @param pawns
+	 *            The pawns bitboard.
+	 * @return The number of points.
+	 */
+	private static int computePoints(long pawns)
+	{
+		long remainingPawns = pawns;
 		int nbPoints = 0;
-		for (int x = 0; x < this.boardGame.length; x++)
+
+		while (remainingPawns != 0)
 		{
-			for (int y = 0; y < this.boardGame[0].length; y++)
-			{
-				if (this.boardGame[x][y] == pawn)
-				{
-					nbPoints += EVALUATION_BOARD[x][y];
-				}
-			}
+			nbPoints += SQUARE_POINTS[Long.numberOfTrailingZeros(remainingPawns)];
+			remainingPawns &= remainingPawns - 1;
 		}
 
 		return nbPoints;
@@ -484,13 +813,62 @@ public class BoardGame
 	 */
 	public Cell[][] getBoardGame()
 	{
-		final Cell[][] clonedBoardGame = new Cell[this.boardGame.length][this.boardGame[0].length];
-		for (int offset = 0; offset < this.boardGame.length; offset++)
+		final Cell[][] boardGameRepresentation = new Cell[BitBoard.SIZE][BitBoard.SIZE];
+		long bit;
+
+		for (int x = 0; x < BitBoard.SIZE; x++)
 		{
-			clonedBoardGame[offset] = this.boardGame[offset].clone();
+			for (int y = 0; y < BitBoard.SIZE; y++)
+			{
+				bit = 1L << BitBoard.getSquare(x, y);
+				if ((this.blackPawns & bit) != 0)
+				{
+					boardGameRepresentation[x][y] = Cell.BLACK_PAWN;
+				}
+				else if ((this.whitePawns & bit) != 0)
+				{
+					boardGameRepresentation[x][y] = Cell.WHITE_PAWN;
+				}
+				else
+				{
+					boardGameRepresentation[x][y] = Cell.EMPTY;
+				}
+			}
 		}
 
-		return clonedBoardGame;
+		return boardGameRepresentation;
+	}
+
+	/**
+	 * Get the pawns bitboard of a specific pawn.
+	 * 
+	 * @param pawn
+	 *            The specific pawn.
+	 * @return The pawns bitboard (the empty cells for the empty pawn).
+	 */
+	public long getPawns(Cell pawn)
+	{
+		switch (pawn)
+		{
+			case BLACK_PAWN:
+				return this.blackPawns;
+			case WHITE_PAWN:
+				return this.whitePawns;
+			default:
+				return ~(this.blackPawns | this.whitePawns);
+		}
+	}
+
+	/**
+	 * Get the opponent pawns bitboard of a player pawn.
+	 * 
+	 * @param playerPawn
+	 *            The player pawn.
+	 * @return The opponent pawns bitboard.
+	 */
+	private long getOpponentPawns(Cell playerPawn)
+	{
+		return (playerPawn == Cell.BLACK_PAWN ? this.whitePawns : this.blackPawns);
 	}
 
 	/**
@@ -498,7 +876,7 @@ public class BoardGame
 	 * 
 	 * @return The number of cells remaining.
 	 */
-	private int getNbCellsRemaining()
+	public int getNbCellsRemaining()
 	{
 		return this.nbCellsRemaining;
 	}
@@ -535,41 +913,105 @@ public class BoardGame
 
 	/////////////////////////////////////////// USED FOR AI ///////////////////////////////////////////
 	/**
-	 * Check if the game is over.
+	 * Check if the game is over (no player can play anymore).
 	 * 
 	 * @return True of False.
 	 */
 	public boolean gameOver()
 	{
-		return areAllCellsMarked() || !playerCanPlay(this.playerOne.getCellRepresentation()) || !playerCanPlay(this.playerTwo.getCellRepresentation());
+		return areAllCellsMarked() || ((getLegalMoves(Cell.BLACK_PAWN) | getLegalMoves(Cell.WHITE_PAWN)) == 0);
 	}
 
 	/**
-	 * Mark a cell for AI.
+	 * Make a move in place, it can be undone with {@link #unmakeMove()}. The move must be one of the legal moves of the player, it is not checked.
 	 * 
-	 * @param position
-	 *            The position to mark.
+	 * @param square
+	 *            The square to mark.
 	 * @param playerPawn
 	 *            The player pawn.
-	 * @throws BoardGameException
-	 *             If an error occurred.
 	 */
-	public void markCellAI(Position position, Cell playerPawn) throws BoardGameException
+	public void makeMove(int square, Cell playerPawn)
 	{
-		checkMoveIsLegal(position.getX(), position.getY(), playerPawn);
-		applyMove(position.getX(), position.getY(), playerPawn);
+		this.hashesStack[this.ply] = this.hash;
+		this.flipsStack[this.ply] = applyMove(square, playerPawn);
+		this.squaresStack[this.ply] = square;
+		this.pawnsStack[this.ply] = playerPawn;
+		this.ply++;
 		this.nbCellsRemaining--;
 	}
 
 	/**
-	 * Reset the board game.
+	 * Unmake the last move made with {@link #makeMove(int, Cell)}.
+	 */
+	public void unmakeMove()
+	{
+		this.ply--;
+		this.nbCellsRemaining++;
+
+		final long flips = this.flipsStack[this.ply];
+		final int square = this.squaresStack[this.ply];
+		final long move = 1L << square;
+		final boolean black = (this.pawnsStack[this.ply] == Cell.BLACK_PAWN);
+		final int flipDelta = (black ? Patterns.WHITE_CODE - Patterns.BLACK_CODE : Patterns.BLACK_CODE - Patterns.WHITE_CODE);
+		final int nbFlips = Long.bitCount(flips);
+
+		long flipped = flips;
+		int flippedSquare;
+		int flippedPoints = 0;
+		while (flipped != 0)
+		{
+			flippedSquare = Long.numberOfTrailingZeros(flipped);
+			Patterns.updateCodes(this.patternCodes, flippedSquare, flipDelta);
+			flippedPoints += SQUARE_POINTS[flippedSquare];
+			flipped &= flipped - 1;
+		}
+
+		if (black)
+		{
+			this.blackPawns &= ~(flips | move);
+			this.whitePawns |= flips;
+			Patterns.updateCodes(this.patternCodes, square, -Patterns.BLACK_CODE);
+			this.nbBlackPawns -= nbFlips + 1;
+			this.nbWhitePawns += nbFlips;
+			this.blackPoints -= flippedPoints + SQUARE_POINTS[square];
+			this.whitePoints += flippedPoints;
+		}
+		else
+		{
+			this.whitePawns &= ~(flips | move);
+			this.blackPawns |= flips;
+			Patterns.updateCodes(this.patternCodes, square, -Patterns.WHITE_CODE);
+			this.nbWhitePawns -= nbFlips + 1;
+			this.nbBlackPawns += nbFlips;
+			this.whitePoints -= flippedPoints + SQUARE_POINTS[square];
+			this.blackPoints += flippedPoints;
+		}
+
+		this.hash = this.hashesStack[this.ply];
+	}
+
+	/**
+	 * Get the ternary code of a pattern instance.
 	 * 
-	 * @param boardGame
-	 *            The board game.
+	 * @param instance
+	 *            The instance (see {@link Patterns}).
+	 * @return The code.
+	 */
+	public int getPatternCode(int instance)
+	{
+		return this.patternCodes[instance];
+	}
+
+	/**
+	 * Get the Zobrist hash of the position with a player to play.
+	 * 
+	 * @param playerPawn
+	 *            The pawn of the player to play.
+	 * @return The hash.
 	 */
-	public void resetBoardGame(Cell[][] boardGame)
+	public long getHash(Cell playerPawn)
 	{
-		this.boardGame = boardGame;
+		return (playerPawn == Cell.WHITE_PAWN ? this.hash ^ Zobrist.WHITE_TO_PLAY : this.hash);
 	}
 	/////////////////////////////////////////// END ///////////////////////////////////////////
 }
\ No newline at end of file
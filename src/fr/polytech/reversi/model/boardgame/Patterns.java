@@ -0,0 +1,227 @@
+package fr.polytech.reversi.model.boardgame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class describes the patterns of the board game used by the pattern evaluation: lines of cells whose contents are encoded as a ternary number (0 for an empty cell, 1 for a black pawn and 2 for
+ * a white pawn).
+ *
+ * Each kind of pattern (edge with its X cells, 3x3 and 2x5 corners, diagonals) is made of all its symmetrical instances, which share the same weights. The codes of the instances are maintained by the
+ * board game as the moves are made.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class Patterns
+{
+	/**
+	 * The code of an empty cell.
+	 */
+	public static final int EMPTY_CODE = 0;
+
+	/**
+	 * The code of a black pawn.
+	 */
+	public static final int BLACK_CODE = 1;
+
+	/**
+	 * The code of a white pawn.
+	 */
+	public static final int WHITE_CODE = 2;
+
+	/**
+	 * The cells of a base instance of each pattern kind (edge and X cells, 3x3 corner, 2x5 corner, diagonals of 8, 7, 6, 5 and 4 cells), as (x, y) coordinates.
+	 */
+	private static final int[][][] BASE_PATTERNS = new int[][][] {
+			{ { 0, 0 }, { 0, 1 }, { 0, 2 }, { 0, 3 }, { 0, 4 }, { 0, 5 }, { 0, 6 }, { 0, 7 }, { 1, 1 }, { 1, 6 } },
+			{ { 0, 0 }, { 0, 1 }, { 0, 2 }, { 1, 0 }, { 1, 1 }, { 1, 2 }, { 2, 0 }, { 2, 1 }, { 2, 2 } },
+			{ { 0, 0 }, { 0, 1 }, { 0, 2 }, { 0, 3 }, { 0, 4 }, { 1, 0 }, { 1, 1 }, { 1, 2 }, { 1, 3 }, { 1, 4 } },
+			{ { 0, 0 }, { 1, 1 }, { 2, 2 }, { 3, 3 }, { 4, 4 }, { 5, 5 }, { 6, 6 }, { 7, 7 } },
+			{ { 0, 1 }, { 1, 2 }, { 2, 3 }, { 3, 4 }, { 4, 5 }, { 5, 6 }, { 6, 7 } },
+			{ { 0, 2 }, { 1, 3 }, { 2, 4 }, { 3, 5 }, { 4, 6 }, { 5, 7 } },
+			{ { 0, 3 }, { 1, 4 }, { 2, 5 }, { 3, 6 }, { 4, 7 } },
+			{ { 0, 4 }, { 1, 5 }, { 2, 6 }, { 3, 7 } } };
+
+	/**
+	 * The number of pattern kinds.
+	 */
+	public static final int NB_KINDS = BASE_PATTERNS.length;
+
+	/**
+	 * The kind of each instance.
+	 */
+	private static final int[] INSTANCE_KINDS;
+
+	/**
+	 * The number of instances.
+	 */
+	public static final int NB_INSTANCES;
+
+	/**
+	 * The instances containing each square.
+	 */
+	static final int[][] SQUARE_INSTANCES = new int[BitBoard.NB_CELLS][];
+
+	/**
+	 * The power of 3 of each square in the instances containing it.
+	 */
+	static final int[][] SQUARE_POWERS = new int[BitBoard.NB_CELLS][];
+
+	static
+	{
+		final List<Integer> kinds = new ArrayList<Integer>();
+		final List<int[]> instances = new ArrayList<int[]>();
+
+		for (int kind = 0; kind < NB_KINDS; kind++)
+		{
+			final List<Long> masks = new ArrayList<Long>();
+			for (int symmetry = 0; symmetry < BitBoard.NB_SYMMETRIES; symmetry++)
+			{
+				final int[] squares = new int[BASE_PATTERNS[kind].length];
+				long mask = 0L;
+				for (int index = 0; index < squares.length; index++)
+				{
+					final long cell = BitBoard.getSymmetry(1L << BitBoard.getSquare(BASE_PATTERNS[kind][index][0], BASE_PATTERNS[kind][index][1]), symmetry);
+					squares[index] = Long.numberOfTrailingZeros(cell);
+					mask |= cell;
+				}
+
+				if (!masks.contains(mask))
+				{
+					masks.add(mask);
+					kinds.add(kind);
+					instances.add(squares);
+				}
+			}
+		}
+
+		NB_INSTANCES = instances.size();
+		INSTANCE_KINDS = new int[NB_INSTANCES];
+		final List<List<int[]>> squareInstances = new ArrayList<List<int[]>>();
+		for (int square = 0; square < BitBoard.NB_CELLS; square++)
+		{
+			squareInstances.add(new ArrayList<int[]>());
+		}
+
+		for (int instance = 0; instance < NB_INSTANCES; instance++)
+		{
+			INSTANCE_KINDS[instance] = kinds.get(instance);
+			int power = 1;
+			for (int square : instances.get(instance))
+			{
+				squareInstances.get(square).add(new int[] { instance, power });
+				power *= 3;
+			}
+		}
+
+		for (int square = 0; square < BitBoard.NB_CELLS; square++)
+		{
+			final List<int[]> entries = squareInstances.get(square);
+			SQUARE_INSTANCES[square] = new int[entries.size()];
+			SQUARE_POWERS[square] = new int[entries.size()];
+			for (int index = 0; index < entries.size(); index++)
+			{
+				SQUARE_INSTANCES[square][index] = entries.get(index)[0];
+				SQUARE_POWERS[square][index] = entries.get(index)[1];
+			}
+		}
+	}
+
+	/**
+	 * Private constructor.
+	 */
+	private Patterns()
+	{
+	}
+
+	/**
+	 * Get the kind of an instance.
+	 * 
+	 * @param instance
+	 *            The instance.
+	 * @return The pattern kind.
+	 */
+	public static int getKind(int instance)
+	{
+		return INSTANCE_KINDS[instance];
+	}
+
+	/**
+	 * Get the number of cells of a pattern kind.
+	 * 
+	 * @param kind
+	 *            The pattern kind.
+	 * @return The number of cells.
+	 */
+	public static int getNbCells(int kind)
+	{
+		return BASE_PATTERNS[kind].length;
+	}
+
+	/**
+	 * Get the number of configurations of a pattern kind.
+	 * 
+	 * @param kind
+	 *            The pattern kind.
+	 * @return The number of configurations (3 to the power of the number of cells).
+	 */
+	public static int getNbConfigurations(int kind)
+	{
+		int nbConfigurations = 1;
+		for (int index = 0; index < getNbCells(kind); index++)
+		{
+			nbConfigurations *= 3;
+		}
+
+		return nbConfigurations;
+	}
+
+	/**
+	 * Compute the codes of all the instances from scratch.
+	 * 
+	 * @param blackPawns
+	 *            The black pawns bitboard.
+	 * @param whitePawns
+	 *            The white pawns bitboard.
+	 * @param codes
+	 *            The array receiving the codes (at least {@link #NB_INSTANCES} long).
+	 */
+	public static void computeCodes(long blackPawns, long whitePawns, int[] codes)
+	{
+		for (int instance = 0; instance < NB_INSTANCES; instance++)
+		{
+			codes[instance] = 0;
+		}
+
+		for (int square = 0; square < BitBoard.NB_CELLS; square++)
+		{
+			final long cell = 1L << square;
+			final int code = ((blackPawns & cell) != 0 ? BLACK_CODE : ((whitePawns & cell) != 0 ? WHITE_CODE : EMPTY_CODE));
+			if (code != EMPTY_CODE)
+			{
+				updateCodes(codes, square, code);
+			}
+		}
+	}
+
+	/**
+	 * Update the codes of the instances containing a square.
+	 * 
+	 * @param codes
+	 *            The codes.
+	 * @param square
+	 *            The square.
+	 * @param delta
+	 *            The change of the cell code.
+	 */
+	static void updateCodes(int[] codes, int square, int delta)
+	{
+		final int[] instances = SQUARE_INSTANCES[square];
+		final int[] powers = SQUARE_POWERS[square];
+		for (int index = 0; index < instances.length; index++)
+		{
+			codes[instances[index]] += delta * powers[index];
+		}
+	}
+}
\ No newline at end of file
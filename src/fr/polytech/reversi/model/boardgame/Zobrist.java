@@ -0,0 +1,109 @@
+package fr.polytech.reversi.model.boardgame;
+
+import java.util.Random;
+
+/**
+ * This class holds the Zobrist keys used to hash the board game positions.
+ *
+ * The keys are generated from a fixed seed so that a position always gets the same hash from one run to another.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class Zobrist
+{
+	/**
+	 * The seed of the keys.
+	 */
+	private static final long SEED = 0x5EED0F5EE5L;
+
+	/**
+	 * The key of the white player to play.
+	 */
+	public static final long WHITE_TO_PLAY;
+
+	/**
+	 * The keys of the black pawns, by square.
+	 */
+	static final long[] BLACK_PAWN_KEYS = new long[BitBoard.NB_CELLS];
+
+	/**
+	 * The keys of the white pawns, by square.
+	 */
+	static final long[] WHITE_PAWN_KEYS = new long[BitBoard.NB_CELLS];
+
+	/**
+	 * The keys of a pawn flipped from a colour to the other, by square.
+	 */
+	static final long[] FLIP_KEYS = new long[BitBoard.NB_CELLS];
+
+	static
+	{
+		final Random random = new Random(SEED);
+		for (int square = 0; square < BitBoard.NB_CELLS; square++)
+		{
+			BLACK_PAWN_KEYS[square] = random.nextLong();
+			WHITE_PAWN_KEYS[square] = random.nextLong();
+			FLIP_KEYS[square] = BLACK_PAWN_KEYS[square] ^ WHITE_PAWN_KEYS[square];
+		}
+
+		WHITE_TO_PLAY = random.nextLong();
+	}
+
+	/**
+	 * Private constructor.
+	 */
+	private Zobrist()
+	{
+	}
+
+	/**
+	 * Compute the hash of a position from scratch.
+	 * 
+	 * @param blackPawns
+	 *            The black pawns bitboard.
+	 * @param whitePawns
+	 *            The white pawns bitboard.
+	 * @return The hash.
+	 */
+	public static long getHash(long blackPawns, long whitePawns)
+	{
+		long hash = 0L;
+		long pawns = blackPawns;
+
+		while (pawns != 0)
+		{
+			hash ^= BLACK_PAWN_KEYS[Long.numberOfTrailingZeros(pawns)];
+			pawns &= pawns - 1;
+		}
+
+		pawns = whitePawns;
+		while (pawns != 0)
+		{
+			hash ^= WHITE_PAWN_KEYS[Long.numberOfTrailingZeros(pawns)];
+			pawns &= pawns - 1;
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Compute the symmetry-canonical hash of a position: the smallest hash of its symmetrical positions, so that all of them share the same hash.
+	 * 
+	 * @param playerPawns
+	 *            The pawns of the player to play.
+	 * @param opponentPawns
+	 *            The pawns of the opponent.
+	 * @return The canonical hash.
+	 */
+	public static long getCanonicalHash(long playerPawns, long opponentPawns)
+	{
+		long canonicalHash = getHash(playerPawns, opponentPawns);
+		for (int symmetry = 1; symmetry < BitBoard.NB_SYMMETRIES; symmetry++)
+		{
+			canonicalHash = Math.min(canonicalHash, getHash(BitBoard.getSymmetry(playerPawns, symmetry), BitBoard.getSymmetry(opponentPawns, symmetry)));
+		}
+
+		return canonicalHash;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package fr.polytech.reversi.model.boardgame.events;
+
+/**
+ * This class checks once if the flight recorder API (jdk.jfr) is available: it is from JDK 8u262 and JDK 11, but not on the older JDK 8. The events (see {@link MoveEvent}) must only be created if it
+ * is, so that the board game and the players also run without it.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class FlightRecorder
+{
+	/**
+	 * The name of the base class of the events.
+	 */
+	private static final String EVENT_CLASS_NAME = "jdk.jfr.Event";
+
+	/**
+	 * Private constructor.
+	 */
+	private FlightRecorder()
+	{
+	}
+
+	/**
+	 * Check if the flight recorder API is available.
+	 * 
+	 * @return True or False.
+	 */
+	public static boolean isAvailable()
+	{
+		return AvailabilityHolder.AVAILABLE;
+	}
+
+	/**
+	 * This class holds the availability of the flight recorder API, checked the first time it is needed.
+	 */
+	private static final class AvailabilityHolder
+	{
+		/**
+		 * True if the flight recorder API is available.
+		 */
+		private static final boolean AVAILABLE = checkAvailability();
+
+		/**
+		 * Check if the base class of the events can be loaded.
+		 * 
+		 * @return True or False.
+		 */
+		private static boolean checkAvailability()
+		{
+			try
+			{
+				Class.forName(EVENT_CLASS_NAME, false, FlightRecorder.class.getClassLoader());
+				return true;
+			}
+			catch (ClassNotFoundException | LinkageError e)
+			{
+				return false;
+			}
+		}
+	}
+}
\ No newline at end of file
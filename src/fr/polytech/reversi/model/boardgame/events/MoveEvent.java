@@ -0,0 +1,56 @@
+package fr.polytech.reversi.model.boardgame.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This class represents the flight recorder event of a move marked on the board game, including the notifications of the view it triggers.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+@Name("fr.polytech.reversi.Move")
+@Label("Move")
+@Category("Reversi")
+@Description("A move marked on the board game, followed by a pass or by the end of the game")
+public class MoveEvent extends Event
+{
+	/**
+	 * The number of the player who has moved (1 or 2).
+	 */
+	@Label("Player")
+	public int playerNumber;
+
+	/**
+	 * The move, in the usual notation.
+	 */
+	@Label("Move")
+	public String move;
+
+	/**
+	 * The number of black pawns after the move.
+	 */
+	@Label("Black Pawns")
+	public int nbBlackPawns;
+
+	/**
+	 * The number of white pawns after the move.
+	 */
+	@Label("White Pawns")
+	public int nbWhitePawns;
+
+	/**
+	 * True if the opponent can not play after the move, and passes.
+	 */
+	@Label("Opponent Passes")
+	public boolean opponentPasses;
+
+	/**
+	 * True if the game is over after the move.
+	 */
+	@Label("Game Over")
+	public boolean gameOver;
+}
\ No newline at end of file
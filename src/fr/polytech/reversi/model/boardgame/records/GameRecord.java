@@ -0,0 +1,193 @@
+package fr.polytech.reversi.model.boardgame.records;
+
+import java.util.Arrays;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+
+/**
+ * This class represents the record of a finished game: the descriptions of its players (their engine settings), its result and its moves, black playing first and the passes being implied.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class GameRecord
+{
+	/**
+	 * The max number of moves of a game.
+	 */
+	public static final int MAX_NB_MOVES = BitBoard.NB_CELLS - 4;
+
+	/**
+	 * The description of the black player.
+	 */
+	private final String blackPlayer;
+
+	/**
+	 * The description of the white player.
+	 */
+	private final String whitePlayer;
+
+	/**
+	 * The final number of black pawns.
+	 */
+	private final int nbBlackPawns;
+
+	/**
+	 * The final number of white pawns.
+	 */
+	private final int nbWhitePawns;
+
+	/**
+	 * The moves squares.
+	 */
+	private final int[] moves;
+
+	/**
+	 * Create a game record.
+	 * 
+	 * @param blackPlayer
+	 *            The description of the black player.
+	 * @param whitePlayer
+	 *            The description of the white player.
+	 * @param nbBlackPawns
+	 *            The final number of black pawns.
+	 * @param nbWhitePawns
+	 *            The final number of white pawns.
+	 * @param moves
+	 *            The moves squares (not copied).
+	 * @throws IllegalArgumentException
+	 *             If the result or a move is out of range.
+	 */
+	public GameRecord(String blackPlayer, String whitePlayer, int nbBlackPawns, int nbWhitePawns, int[] moves)
+	{
+		if ((nbBlackPawns < 0) || (nbWhitePawns < 0) || (nbBlackPawns + nbWhitePawns > BitBoard.NB_CELLS))
+		{
+			throw new IllegalArgumentException(String.format("Invalid game result (%d-%d)", nbBlackPawns, nbWhitePawns));
+		}
+
+		if (moves.length > MAX_NB_MOVES)
+		{
+			throw new IllegalArgumentException(String.format("Invalid number of moves (%d)", moves.length));
+		}
+
+		for (int square : moves)
+		{
+			if ((square < 0) || (square >= BitBoard.NB_CELLS))
+			{
+				throw new IllegalArgumentException(String.format("Invalid move square (%d)", square));
+			}
+		}
+
+		this.blackPlayer = blackPlayer;
+		this.whitePlayer = whitePlayer;
+		this.nbBlackPawns = nbBlackPawns;
+		this.nbWhitePawns = nbWhitePawns;
+		this.moves = moves;
+	}
+
+	/**
+	 * Get the description of the black player.
+	 * 
+	 * @return The description.
+	 */
+	public String getBlackPlayer()
+	{
+		return this.blackPlayer;
+	}
+
+	/**
+	 * Get the description of the white player.
+	 * 
+	 * @return The description.
+	 */
+	public String getWhitePlayer()
+	{
+		return this.whitePlayer;
+	}
+
+	/**
+	 * Get the final number of black pawns.
+	 * 
+	 * @return The number of black pawns.
+	 */
+	public int getNbBlackPawns()
+	{
+		return this.nbBlackPawns;
+	}
+
+	/**
+	 * Get the final number of white pawns.
+	 * 
+	 * @return The number of white pawns.
+	 */
+	public int getNbWhitePawns()
+	{
+		return this.nbWhitePawns;
+	}
+
+	/**
+	 * Get the number of moves.
+	 * 
+	 * @return The number of moves.
+	 */
+	public int getNbMoves()
+	{
+		return this.moves.length;
+	}
+
+	/**
+	 * Get a move.
+	 * 
+	 * @param index
+	 *            The index of the move (0 for the first move of black).
+	 * @return The move square.
+	 */
+	public int getMove(int index)
+	{
+		return this.moves[index];
+	}
+
+	/**
+	 * Get the moves.
+	 * 
+	 * @return A copy of the moves squares (the passes are implied).
+	 */
+	public int[] getMoves()
+	{
+		return Arrays.copyOf(this.moves, this.moves.length);
+	}
+
+	/**
+	 * Replay the game on a board game, whose players must be human players so that no search is started: the board game is left in the final position of the game.
+	 * 
+	 * @param boardGame
+	 *            The board game.
+	 * @throws IllegalArgumentException
+	 *             If a move is illegal, or if the final position does not match the result of the record.
+	 */
+	public void replay(BoardGame boardGame)
+	{
+		boardGame.init(this.moves);
+		if (!boardGame.gameOver() || (boardGame.getNbCellsByPawn(Cell.BLACK_PAWN) != this.nbBlackPawns) || (boardGame.getNbCellsByPawn(Cell.WHITE_PAWN) != this.nbWhitePawns))
+		{
+			throw new IllegalArgumentException(String.format("The moves do not lead to the result of the game record (%d-%d)", this.nbBlackPawns, this.nbWhitePawns));
+		}
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder moves = new StringBuilder();
+		for (int square : this.moves)
+		{
+			moves.append(BitBoard.getNotation(square));
+		}
+
+		return String.format("GameRecord [black=%s, white=%s, result=%d-%d, moves=%s]", this.blackPlayer, this.whitePlayer, this.nbBlackPawns, this.nbWhitePawns, moves);
+	}
+}
\ No newline at end of file
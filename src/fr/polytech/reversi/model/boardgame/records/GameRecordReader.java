@@ -0,0 +1,264 @@
+package fr.polytech.reversi.model.boardgame.records;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class reads the game records of a file written by a {@link GameRecordWriter}, sequentially through a buffer refilled from the file channel: the memory used does not depend on the size of
+ * the file.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class GameRecordReader implements Closeable
+{
+	/**
+	 * The path of the file.
+	 */
+	private final Path path;
+
+	/**
+	 * The file channel.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * The buffer, ready to be read.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * The players descriptions read, by index.
+	 */
+	private final List<String> players;
+
+	/**
+	 * The bytes of a player description.
+	 */
+	private final byte[] descriptionBytes;
+
+	/**
+	 * The number of games read.
+	 */
+	private long nbGames;
+
+	/**
+	 * Open a game records file.
+	 * 
+	 * @param path
+	 *            The path of the file.
+	 * @throws IOException
+	 *             If the file can not be read or is not a valid game records file.
+	 */
+	public GameRecordReader(Path path) throws IOException
+	{
+		this.path = path;
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.buffer = ByteBuffer.allocateDirect(GameRecordWriter.BUFFER_SIZE);
+		this.buffer.flip();
+		this.players = new ArrayList<String>();
+		this.descriptionBytes = new byte[GameRecordWriter.MAX_DESCRIPTION_SIZE];
+
+		try
+		{
+			if (!fill(GameRecordWriter.HEADER_SIZE) || (this.buffer.getInt() != GameRecordWriter.MAGIC) || (this.buffer.getInt() != GameRecordWriter.VERSION))
+			{
+				throw new IOException(String.format("Invalid game records header (%s)", path));
+			}
+		}
+		catch (IOException e)
+		{
+			this.channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Check if a file is a game records file, from its magic number.
+	 * 
+	 * @param path
+	 *            The path of the file.
+	 * @return True or False.
+	 * @throws IOException
+	 *             If the file can not be read.
+	 */
+	public static boolean isGameRecordsFile(Path path) throws IOException
+	{
+		if (Files.size(path) < Integer.BYTES)
+		{
+			return false;
+		}
+
+		try (DataInputStream input = new DataInputStream(Files.newInputStream(path)))
+		{
+			return (input.readInt() == GameRecordWriter.MAGIC);
+		}
+	}
+
+	/**
+	 * Read the next game record.
+	 * 
+	 * @return The game record, or null at the end of the file.
+	 * @throws IOException
+	 *             If the file can not be read or is corrupted.
+	 */
+	public GameRecord read() throws IOException
+	{
+		while (fill(1))
+		{
+			final byte entry = this.buffer.get();
+			if (entry == GameRecordWriter.PLAYER_ENTRY)
+			{
+				readPlayer();
+			}
+			else if (entry == GameRecordWriter.GAME_ENTRY)
+			{
+				return readGame();
+			}
+			else
+			{
+				throw new IOException(String.format("Invalid game records entry (%d) after %d games (%s)", entry, this.nbGames, this.path));
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Read a player entry, after its tag.
+	 * 
+	 * @throws IOException
+	 *             If the file can not be read or is corrupted.
+	 */
+	private void readPlayer() throws IOException
+	{
+		require(2);
+		final int size = this.buffer.getShort() & 0xFFFF;
+		if (size > GameRecordWriter.MAX_DESCRIPTION_SIZE)
+		{
+			throw new IOException(String.format("Too long player description (%d bytes) after %d games (%s)", size, this.nbGames, this.path));
+		}
+
+		require(size);
+		this.buffer.get(this.descriptionBytes, 0, size);
+		this.players.add(new String(this.descriptionBytes, 0, size, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Read a game entry, after its tag.
+	 * 
+	 * @return The game record.
+	 * @throws IOException
+	 *             If the file can not be read or is corrupted.
+	 */
+	private GameRecord readGame() throws IOException
+	{
+		require(GameRecordWriter.GAME_ENTRY_SIZE - 1);
+		final int blackPlayerIndex = this.buffer.getShort() & 0xFFFF;
+		final int whitePlayerIndex = this.buffer.getShort() & 0xFFFF;
+		final int nbBlackPawns = this.buffer.get() & 0xFF;
+		final int nbWhitePawns = this.buffer.get() & 0xFF;
+		final int nbMoves = this.buffer.get() & 0xFF;
+		if ((blackPlayerIndex >= this.players.size()) || (whitePlayerIndex >= this.players.size()))
+		{
+			throw new IOException(String.format("Unknown player index (%d, %d) after %d games (%s)", blackPlayerIndex, whitePlayerIndex, this.nbGames, this.path));
+		}
+
+		require(nbMoves);
+		final int[] moves = new int[nbMoves];
+		for (int index = 0; index < nbMoves; index++)
+		{
+			moves[index] = this.buffer.get() & 0xFF;
+		}
+
+		try
+		{
+			final GameRecord gameRecord = new GameRecord(this.players.get(blackPlayerIndex), this.players.get(whitePlayerIndex), nbBlackPawns, nbWhitePawns, moves);
+			this.nbGames++;
+			return gameRecord;
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new IOException(String.format("Invalid game record after %d games (%s): %s", this.nbGames, this.path, e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * Make sure the buffer has a given number of remaining bytes, refilling it from the file if needed.
+	 * 
+	 * @param size
+	 *            The number of bytes (at most the size of the buffer).
+	 * @return False if the end of the file is reached first.
+	 * @throws IOException
+	 *             If the file can not be read.
+	 */
+	private boolean fill(int size) throws IOException
+	{
+		if (this.buffer.remaining() >= size)
+		{
+			return true;
+		}
+
+		this.buffer.compact();
+		try
+		{
+			while (this.buffer.position() < size)
+			{
+				if (this.channel.read(this.buffer) < 0)
+				{
+					return false;
+				}
+			}
+
+			return true;
+		}
+		finally
+		{
+			this.buffer.flip();
+		}
+	}
+
+	/**
+	 * Make sure the buffer has a given number of remaining bytes, the end of the file being an error.
+	 * 
+	 * @param size
+	 *            The number of bytes.
+	 * @throws IOException
+	 *             If the file can not be read or is truncated.
+	 */
+	private void require(int size) throws IOException
+	{
+		if (!fill(size))
+		{
+			throw new IOException(String.format("Truncated game records after %d games (%s)", this.nbGames, this.path));
+		}
+	}
+
+	/**
+	 * Get the number of games read.
+	 * 
+	 * @return The number of games.
+	 */
+	public long getNbGames()
+	{
+		return this.nbGames;
+	}
+
+	/**
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		this.channel.close();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,250 @@
+package fr.polytech.reversi.model.boardgame.records;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class writes game records to a file, through a buffer flushed to the file channel once full: the memory used does not depend on the number of games.
+ *
+ * The file starts with a header (magic number, version), followed by entries. A player entry declares the description of a player, which takes the next player index. A game entry holds the
+ * indexes of the black and white players, the final numbers of black and white pawns, the number of moves and a byte by move square. The description of a player is only written once, so that a
+ * game takes 8 bytes and a byte by move.
+ *
+ * The writer may be shared by several board games: the records are written whole, one at a time.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class GameRecordWriter implements Closeable
+{
+	/**
+	 * The magic number of the game records files ("RVGR").
+	 */
+	public static final int MAGIC = 0x52564752;
+
+	/**
+	 * The version of the game records files.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The size of the header in bytes.
+	 */
+	public static final int HEADER_SIZE = 8;
+
+	/**
+	 * The tag of a player entry.
+	 */
+	static final byte PLAYER_ENTRY = 0;
+
+	/**
+	 * The tag of a game entry.
+	 */
+	static final byte GAME_ENTRY = 1;
+
+	/**
+	 * The size of a game entry without its moves in bytes (tag, players indexes, numbers of pawns and number of moves).
+	 */
+	static final int GAME_ENTRY_SIZE = 8;
+
+	/**
+	 * The max number of players descriptions.
+	 */
+	static final int MAX_NB_PLAYERS = 1 << 16;
+
+	/**
+	 * The max size of the description of a player in bytes.
+	 */
+	static final int MAX_DESCRIPTION_SIZE = 1024;
+
+	/**
+	 * The size of the buffer in bytes.
+	 */
+	static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The file channel.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * The buffer.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * The indexes of the players descriptions already written.
+	 */
+	private final Map<String, Integer> playersIndexes;
+
+	/**
+	 * The number of games written.
+	 */
+	private long nbGames;
+
+	/**
+	 * Create a game records file (an existing file is overwritten).
+	 * 
+	 * @param path
+	 *            The path of the file.
+	 * @throws IOException
+	 *             If the file can not be created.
+	 */
+	public GameRecordWriter(Path path) throws IOException
+	{
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		this.buffer.putInt(MAGIC).putInt(VERSION);
+		this.playersIndexes = new HashMap<String, Integer>();
+	}
+
+	/**
+	 * Write a game record.
+	 * 
+	 * @param gameRecord
+	 *            The game record.
+	 * @throws IOException
+	 *             If the buffer can not be flushed, or if there are too many players descriptions.
+	 * @throws IllegalArgumentException
+	 *             If the description of a player is too long (see {@link #checkPlayerDescription(String)}).
+	 */
+	public synchronized void write(GameRecord gameRecord) throws IOException
+	{
+		final int blackPlayerIndex = getPlayerIndex(gameRecord.getBlackPlayer());
+		final int whitePlayerIndex = getPlayerIndex(gameRecord.getWhitePlayer());
+		final int nbMoves = gameRecord.getNbMoves();
+
+		ensureRemaining(GAME_ENTRY_SIZE + nbMoves);
+		this.buffer.put(GAME_ENTRY);
+		this.buffer.putShort((short) blackPlayerIndex);
+		this.buffer.putShort((short) whitePlayerIndex);
+		this.buffer.put((byte) gameRecord.getNbBlackPawns());
+		this.buffer.put((byte) gameRecord.getNbWhitePawns());
+		this.buffer.put((byte) nbMoves);
+		for (int index = 0; index < nbMoves; index++)
+		{
+			this.buffer.put((byte) gameRecord.getMove(index));
+		}
+
+		this.nbGames++;
+	}
+
+	/**
+	 * Check the description of a player: it must fit in a player entry once encoded in UTF-8.
+	 * 
+	 * @param description
+	 *            The description of the player.
+	 * @throws IllegalArgumentException
+	 *             If the description is too long.
+	 */
+	public static void checkPlayerDescription(String description)
+	{
+		final int size = description.getBytes(StandardCharsets.UTF_8).length;
+		if (size > MAX_DESCRIPTION_SIZE)
+		{
+			throw new IllegalArgumentException(String.format("Too long player description (%d bytes)", size));
+		}
+	}
+
+	/**
+	 * Get the index of the description of a player, writing its player entry if it is a new one.
+	 * 
+	 * @param description
+	 *            The description of the player.
+	 * @return The index.
+	 * @throws IOException
+	 *             If the buffer can not be flushed, or if there are too many players descriptions.
+	 */
+	private int getPlayerIndex(String description) throws IOException
+	{
+		final Integer playerIndex = this.playersIndexes.get(description);
+		if (playerIndex != null)
+		{
+			return playerIndex;
+		}
+
+		if (this.playersIndexes.size() == MAX_NB_PLAYERS)
+		{
+			throw new IOException(String.format("Too many players descriptions (%d)", MAX_NB_PLAYERS));
+		}
+
+		checkPlayerDescription(description);
+		final byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+		ensureRemaining(3 + bytes.length);
+		this.buffer.put(PLAYER_ENTRY);
+		this.buffer.putShort((short) bytes.length);
+		this.buffer.put(bytes);
+
+		final int newPlayerIndex = this.playersIndexes.size();
+		this.playersIndexes.put(description, newPlayerIndex);
+		return newPlayerIndex;
+	}
+
+	/**
+	 * Flush the buffer if it has not a given number of remaining bytes.
+	 * 
+	 * @param size
+	 *            The number of bytes.
+	 * @throws IOException
+	 *             If the buffer can not be flushed.
+	 */
+	private void ensureRemaining(int size) throws IOException
+	{
+		if (this.buffer.remaining() < size)
+		{
+			flush();
+		}
+	}
+
+	/**
+	 * Flush the buffer to the file.
+	 * 
+	 * @throws IOException
+	 *             If the buffer can not be written.
+	 */
+	public synchronized void flush() throws IOException
+	{
+		this.buffer.flip();
+		while (this.buffer.hasRemaining())
+		{
+			this.channel.write(this.buffer);
+		}
+
+		this.buffer.clear();
+	}
+
+	/**
+	 * Get the number of games written.
+	 * 
+	 * @return The number of games.
+	 */
+	public synchronized long getNbGames()
+	{
+		return this.nbGames;
+	}
+
+	/**
+	 * Flush the buffer and close the file.
+	 * 
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		try
+		{
+			flush();
+		}
+		finally
+		{
+			this.channel.close();
+		}
+	}
+}
\ No newline at end of file
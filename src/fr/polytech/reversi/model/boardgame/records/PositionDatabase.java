@@ -0,0 +1,558 @@
+package fr.polytech.reversi.model.boardgame.records;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.boardgame.Zobrist;
+
+/**
+ * This class represents a database of the positions of game records, held in an open-addressing hash table of a memory-mapped file: the entries are never copied to the heap, and a lookup does not
+ * allocate anything.
+ *
+ * A position is stored once for its 8 symmetries, as its canonical form: the smallest pawns of the player to play and of the opponent among the symmetries. Its entry aggregates the games where
+ * it was reached: the number of visits, the number of wins and draws of the player to play, and the best final disc differential the player to play has reached from it.
+ *
+ * The file starts with a header (magic number, version, capacity, number of entries), followed by the slots of the table, an empty slot having no pawns. The capacity is fixed when the file is
+ * created: the database is full once three quarters of the slots are used.
+ *
+ * The lookups may be done by several threads at once, but not while positions are added.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class PositionDatabase implements Closeable
+{
+	/**
+	 * The missing entry.
+	 */
+	public static final int NO_ENTRY = -1;
+
+	/**
+	 * The magic number of the position database files ("RVPD").
+	 */
+	public static final int MAGIC = 0x52565044;
+
+	/**
+	 * The version of the position database files.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The size of the header in bytes.
+	 */
+	public static final int HEADER_SIZE = 16;
+
+	/**
+	 * The size of an entry in bytes (pawns of the player and of the opponent, visits, wins, draws and best score).
+	 */
+	public static final int ENTRY_SIZE = 32;
+
+	/**
+	 * The max capacity, so that the file can be mapped at once.
+	 */
+	public static final int MAX_CAPACITY = 1 << 25;
+
+	/**
+	 * The offset of the capacity in the header.
+	 */
+	private static final int CAPACITY_OFFSET = 8;
+
+	/**
+	 * The offset of the number of entries in the header.
+	 */
+	private static final int NB_ENTRIES_OFFSET = 12;
+
+	/**
+	 * The offset of the pawns of the opponent in an entry.
+	 */
+	private static final int OPPONENT_PAWNS_OFFSET = 8;
+
+	/**
+	 * The offset of the number of visits in an entry.
+	 */
+	private static final int VISITS_OFFSET = 16;
+
+	/**
+	 * The offset of the number of wins in an entry.
+	 */
+	private static final int WINS_OFFSET = 20;
+
+	/**
+	 * The offset of the number of draws in an entry.
+	 */
+	private static final int DRAWS_OFFSET = 24;
+
+	/**
+	 * The offset of the best score in an entry.
+	 */
+	private static final int BEST_SCORE_OFFSET = 28;
+
+	/**
+	 * The max load factor of the table, as a fraction of the capacity (3/4).
+	 */
+	private static final int MAX_LOAD_NUMERATOR = 3;
+
+	/**
+	 * The denominator of the max load factor.
+	 */
+	private static final int MAX_LOAD_DENOMINATOR = 4;
+
+	/**
+	 * The mapped file.
+	 */
+	private final MappedByteBuffer buffer;
+
+	/**
+	 * The capacity (a power of 2).
+	 */
+	private final int capacity;
+
+	/**
+	 * True if the database can not be updated.
+	 */
+	private final boolean readOnly;
+
+	/**
+	 * The number of entries.
+	 */
+	private int nbEntries;
+
+	/**
+	 * Open a position database, to look positions up.
+	 * 
+	 * @param path
+	 *            The path of the database file.
+	 * @throws IOException
+	 *             If the file can not be read or is not a valid database file.
+	 */
+	public PositionDatabase(Path path) throws IOException
+	{
+		this.readOnly = true;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			this.buffer = map(path, channel, FileChannel.MapMode.READ_ONLY);
+		}
+
+		this.capacity = this.buffer.getInt(CAPACITY_OFFSET);
+		this.nbEntries = this.buffer.getInt(NB_ENTRIES_OFFSET);
+	}
+
+	/**
+	 * Open a position database to update it, creating it if the file does not exist.
+	 * 
+	 * @param path
+	 *            The path of the database file.
+	 * @param capacity
+	 *            The min number of slots of a created database, rounded up to a power of 2 (ignored if the database exists).
+	 * @throws IOException
+	 *             If the file can not be read or written, or is not a valid database file.
+	 */
+	public PositionDatabase(Path path, int capacity) throws IOException
+	{
+		this.readOnly = false;
+		final boolean created = !Files.exists(path);
+		if (created && ((capacity <= 0) || (capacity > MAX_CAPACITY)))
+		{
+			throw new IllegalArgumentException(String.format("Invalid position database capacity (%d)", capacity));
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE))
+		{
+			if (created)
+			{
+				final int roundedCapacity = Math.max(1, Integer.highestOneBit(capacity - 1) << 1);
+				final MappedByteBuffer createdBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) roundedCapacity * ENTRY_SIZE);
+				createdBuffer.putInt(0, MAGIC);
+				createdBuffer.putInt(4, VERSION);
+				createdBuffer.putInt(CAPACITY_OFFSET, roundedCapacity);
+				createdBuffer.putInt(NB_ENTRIES_OFFSET, 0);
+				this.buffer = createdBuffer;
+			}
+			else
+			{
+				this.buffer = map(path, channel, FileChannel.MapMode.READ_WRITE);
+			}
+		}
+
+		this.capacity = this.buffer.getInt(CAPACITY_OFFSET);
+		this.nbEntries = this.buffer.getInt(NB_ENTRIES_OFFSET);
+	}
+
+	/**
+	 * Map an existing database file and check its header.
+	 * 
+	 * @param path
+	 *            The path of the database file.
+	 * @param channel
+	 *            The file channel.
+	 * @param mapMode
+	 *            The map mode.
+	 * @return The mapped file.
+	 * @throws IOException
+	 *             If the file can not be mapped or is not a valid database file.
+	 */
+	private static MappedByteBuffer map(Path path, FileChannel channel, FileChannel.MapMode mapMode) throws IOException
+	{
+		if ((channel.size() < HEADER_SIZE) || (channel.size() > HEADER_SIZE + (long) MAX_CAPACITY * ENTRY_SIZE))
+		{
+			throw new IOException(String.format("Invalid position database size (%d bytes)", channel.size()));
+		}
+
+		final MappedByteBuffer mappedBuffer = channel.map(mapMode, 0, channel.size());
+		final int capacity = mappedBuffer.getInt(CAPACITY_OFFSET);
+		if ((mappedBuffer.getInt(0) != MAGIC) || (mappedBuffer.getInt(4) != VERSION) || (Integer.bitCount(capacity) != 1))
+		{
+			throw new IOException(String.format("Invalid position database header (%s)", path));
+		}
+
+		if (HEADER_SIZE + (long) capacity * ENTRY_SIZE != channel.size())
+		{
+			throw new IOException(String.format("Truncated position database (%s)", path));
+		}
+
+		return mappedBuffer;
+	}
+
+	/**
+	 * Add the positions of a game: each position where a player has moved is visited once, the passes being skipped.
+	 * 
+	 * @param gameRecord
+	 *            The game record.
+	 * @throws IllegalArgumentException
+	 *             If a move of the game is illegal.
+	 * @throws IllegalStateException
+	 *             If the database is read-only or full.
+	 */
+	public void add(GameRecord gameRecord)
+	{
+		if (this.readOnly)
+		{
+			throw new IllegalStateException("The position database is read-only");
+		}
+
+		final int blackDifferential = gameRecord.getNbBlackPawns() - gameRecord.getNbWhitePawns();
+		long blackPawns = BitBoard.START_BLACK_PAWNS;
+		long whitePawns = BitBoard.START_WHITE_PAWNS;
+		boolean blackToPlay = true;
+		long playerPawns;
+		long opponentPawns;
+		long flips;
+		int square;
+
+		for (int index = 0; index < gameRecord.getNbMoves(); index++)
+		{
+			if (BitBoard.getLegalMoves(blackToPlay ? blackPawns : whitePawns, blackToPlay ? whitePawns : blackPawns) == 0)
+			{
+				blackToPlay = !blackToPlay;
+			}
+
+			square = gameRecord.getMove(index);
+			playerPawns = (blackToPlay ? blackPawns : whitePawns);
+			opponentPawns = (blackToPlay ? whitePawns : blackPawns);
+			if ((BitBoard.getLegalMoves(playerPawns, opponentPawns) & (1L << square)) == 0)
+			{
+				throw new IllegalArgumentException(String.format("Illegal game record move (%s)", BitBoard.getNotation(square)));
+			}
+
+			visit(playerPawns, opponentPawns, (blackToPlay ? blackDifferential : -blackDifferential));
+
+			flips = BitBoard.getFlips(square, playerPawns, opponentPawns);
+			blackPawns = (blackToPlay ? playerPawns | flips | (1L << square) : opponentPawns & ~flips);
+			whitePawns = (blackToPlay ? opponentPawns & ~flips : playerPawns | flips | (1L << square));
+			blackToPlay = !blackToPlay;
+		}
+	}
+
+	/**
+	 * Add the positions of all the games of a game records file.
+	 * 
+	 * @param reader
+	 *            The game record reader.
+	 * @return The number of games added.
+	 * @throws IOException
+	 *             If the file can not be read or is corrupted.
+	 * @throws IllegalStateException
+	 *             If the database is read-only or full.
+	 */
+	public long load(GameRecordReader reader) throws IOException
+	{
+		long nbGames = 0;
+		GameRecord gameRecord;
+		while ((gameRecord = reader.read()) != null)
+		{
+			try
+			{
+				add(gameRecord);
+			}
+			catch (IllegalArgumentException e)
+			{
+				throw new IOException(String.format("Invalid game %d (%s)", reader.getNbGames(), e.getMessage()), e);
+			}
+
+			nbGames++;
+		}
+
+		return nbGames;
+	}
+
+	/**
+	 * Visit a position.
+	 * 
+	 * @param playerPawns
+	 *            The pawns of the player to play.
+	 * @param opponentPawns
+	 *            The pawns of the opponent.
+	 * @param differential
+	 *            The final disc differential of the player to play.
+	 * @throws IllegalStateException
+	 *             If the database is full.
+	 */
+	private void visit(long playerPawns, long opponentPawns, int differential)
+	{
+		final int symmetry = getCanonicalSymmetry(playerPawns, opponentPawns);
+		final long canonicalPlayerPawns = BitBoard.getSymmetry(playerPawns, symmetry);
+		final long canonicalOpponentPawns = BitBoard.getSymmetry(opponentPawns, symmetry);
+		int slot = findSlot(canonicalPlayerPawns, canonicalOpponentPawns);
+		int offset;
+
+		if (slot < 0)
+		{
+			if ((long) (this.nbEntries + 1) * MAX_LOAD_DENOMINATOR > (long) this.capacity * MAX_LOAD_NUMERATOR)
+			{
+				throw new IllegalStateException(String.format("The position database is full (%d entries)", this.nbEntries));
+			}
+
+			slot = -slot - 1;
+			offset = getOffset(slot);
+			this.buffer.putLong(offset, canonicalPlayerPawns);
+			this.buffer.putLong(offset + OPPONENT_PAWNS_OFFSET, canonicalOpponentPawns);
+			this.buffer.putInt(offset + BEST_SCORE_OFFSET, differential);
+			this.buffer.putInt(NB_ENTRIES_OFFSET, ++this.nbEntries);
+		}
+
+		offset = getOffset(slot);
+		this.buffer.putInt(offset + VISITS_OFFSET, this.buffer.getInt(offset + VISITS_OFFSET) + 1);
+		if (differential > 0)
+		{
+			this.buffer.putInt(offset + WINS_OFFSET, this.buffer.getInt(offset + WINS_OFFSET) + 1);
+		}
+		else if (differential == 0)
+		{
+			this.buffer.putInt(offset + DRAWS_OFFSET, this.buffer.getInt(offset + DRAWS_OFFSET) + 1);
+		}
+
+		if (differential > this.buffer.getInt(offset + BEST_SCORE_OFFSET))
+		{
+			this.buffer.putInt(offset + BEST_SCORE_OFFSET, differential);
+		}
+	}
+
+	/**
+	 * Find the entry of a position.
+	 * 
+	 * @param playerPawns
+	 *            The pawns of the player to play.
+	 * @param opponentPawns
+	 *            The pawns of the opponent.
+	 * @return The index of the entry, or {@link #NO_ENTRY} if the position is not in the database.
+	 */
+	public int find(long playerPawns, long opponentPawns)
+	{
+		final int symmetry = getCanonicalSymmetry(playerPawns, opponentPawns);
+		final int slot = findSlot(BitBoard.getSymmetry(playerPawns, symmetry), BitBoard.getSymmetry(opponentPawns, symmetry));
+		return (slot < 0 ? NO_ENTRY : slot);
+	}
+
+	/**
+	 * Find the entry of the position of a board game. The player to play is given, since the board games searched by the computer players have no current player.
+	 * 
+	 * @param boardGame
+	 *            The board game.
+	 * @param playerPawn
+	 *            The pawn of the player to play.
+	 * @return The index of the entry, or {@link #NO_ENTRY} if the position is not in the database.
+	 */
+	public int find(BoardGame boardGame, Cell playerPawn)
+	{
+		return find(boardGame.getPawns(playerPawn), boardGame.getPawns(playerPawn == Cell.BLACK_PAWN ? Cell.WHITE_PAWN : Cell.BLACK_PAWN));
+	}
+
+	/**
+	 * Get the symmetry giving the canonical form of a position: the smallest pawns of the player to play, then of the opponent.
+	 * 
+	 * @param playerPawns
+	 *            The pawns of the player to play.
+	 * @param opponentPawns
+	 *            The pawns of the opponent.
+	 * @return The symmetry (see {@link BitBoard#getSymmetry(long, int)}).
+	 */
+	private static int getCanonicalSymmetry(long playerPawns, long opponentPawns)
+	{
+		long canonicalPlayerPawns = playerPawns;
+		long canonicalOpponentPawns = opponentPawns;
+		int canonicalSymmetry = 0;
+		long symmetricPlayerPawns;
+		long symmetricOpponentPawns;
+
+		for (int symmetry = 1; symmetry < BitBoard.NB_SYMMETRIES; symmetry++)
+		{
+			symmetricPlayerPawns = BitBoard.getSymmetry(playerPawns, symmetry);
+			symmetricOpponentPawns = BitBoard.getSymmetry(opponentPawns, symmetry);
+			if ((symmetricPlayerPawns < canonicalPlayerPawns) || ((symmetricPlayerPawns == canonicalPlayerPawns) && (symmetricOpponentPawns < canonicalOpponentPawns)))
+			{
+				canonicalPlayerPawns = symmetricPlayerPawns;
+				canonicalOpponentPawns = symmetricOpponentPawns;
+				canonicalSymmetry = symmetry;
+			}
+		}
+
+		return canonicalSymmetry;
+	}
+
+	/**
+	 * Find the slot of a canonical position, probing the slots from its hash.
+	 * 
+	 * @param canonicalPlayerPawns
+	 *            The canonical pawns of the player to play.
+	 * @param canonicalOpponentPawns
+	 *            The canonical pawns of the opponent.
+	 * @return The slot of its entry, or -(slot + 1) with the empty slot where it would be stored.
+	 */
+	private int findSlot(long canonicalPlayerPawns, long canonicalOpponentPawns)
+	{
+		final int mask = this.capacity - 1;
+		int slot = (int) Zobrist.getHash(canonicalPlayerPawns, canonicalOpponentPawns) & mask;
+		int offset;
+		long slotPlayerPawns;
+		long slotOpponentPawns;
+
+		while (true)
+		{
+			offset = getOffset(slot);
+			slotPlayerPawns = this.buffer.getLong(offset);
+			slotOpponentPawns = this.buffer.getLong(offset + OPPONENT_PAWNS_OFFSET);
+			if ((slotPlayerPawns == canonicalPlayerPawns) && (slotOpponentPawns == canonicalOpponentPawns))
+			{
+				return slot;
+			}
+
+			if ((slotPlayerPawns | slotOpponentPawns) == 0)
+			{
+				return -slot - 1;
+			}
+
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Get the offset of a slot in the file.
+	 * 
+	 * @param slot
+	 *            The slot.
+	 * @return The offset in bytes.
+	 */
+	private static int getOffset(int slot)
+	{
+		return HEADER_SIZE + slot * ENTRY_SIZE;
+	}
+
+	/**
+	 * Get the number of visits of an entry.
+	 * 
+	 * @param index
+	 *            The index of the entry.
+	 * @return The number of games which reached the position.
+	 */
+	public int getVisits(int index)
+	{
+		return this.buffer.getInt(getOffset(index) + VISITS_OFFSET);
+	}
+
+	/**
+	 * Get the number of wins of an entry.
+	 * 
+	 * @param index
+	 *            The index of the entry.
+	 * @return The number of games won by the player to play.
+	 */
+	public int getWins(int index)
+	{
+		return this.buffer.getInt(getOffset(index) + WINS_OFFSET);
+	}
+
+	/**
+	 * Get the number of draws of an entry.
+	 * 
+	 * @param index
+	 *            The index of the entry.
+	 * @return The number of drawn games.
+	 */
+	public int getDraws(int index)
+	{
+		return this.buffer.getInt(getOffset(index) + DRAWS_OFFSET);
+	}
+
+	/**
+	 * Get the best score of an entry.
+	 * 
+	 * @param index
+	 *            The index of the entry.
+	 * @return The best final disc differential reached by the player to play.
+	 */
+	public int getBestScore(int index)
+	{
+		return this.buffer.getInt(getOffset(index) + BEST_SCORE_OFFSET);
+	}
+
+	/**
+	 * Get the number of entries.
+	 * 
+	 * @return The number of entries.
+	 */
+	public int getNbEntries()
+	{
+		return this.nbEntries;
+	}
+
+	/**
+	 * Get the capacity.
+	 * 
+	 * @return The number of slots.
+	 */
+	public int getCapacity()
+	{
+		return this.capacity;
+	}
+
+	/**
+	 * Write the updates of the database to the file.
+	 * 
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close()
+	{
+		if (!this.readOnly)
+		{
+			this.buffer.force();
+		}
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return String.format("PositionDatabase [entries=%d, capacity=%d, load=%.1f%%]", this.nbEntries, this.capacity, this.nbEntries * 100.0 / this.capacity);
+	}
+}
\ No newline at end of file
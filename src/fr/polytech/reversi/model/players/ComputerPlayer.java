@@ -1,9 +1,32 @@
 package fr.polytech.reversi.model.players;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
 import fr.polytech.reversi.model.boardgame.BoardGame;
 import fr.polytech.reversi.model.boardgame.Cell;
 import fr.polytech.reversi.model.boardgame.Position;
-import fr.polytech.reversi.model.boardgame.exceptions.BoardGameException;
+import fr.polytech.reversi.model.boardgame.events.FlightRecorder;
+import fr.polytech.reversi.model.players.book.BookSelection;
+import fr.polytech.reversi.model.players.book.OpeningBook;
+import fr.polytech.reversi.model.players.evaluation.IEvaluator;
+import fr.polytech.reversi.model.players.events.SearchEvent;
+import fr.polytech.reversi.model.players.search.AbortReason;
+import fr.polytech.reversi.model.players.search.EndgameSolver;
+import fr.polytech.reversi.model.players.search.MoveOrdering;
+import fr.polytech.reversi.model.players.search.ScoreType;
+import fr.polytech.reversi.model.players.search.SearchStatistics;
+import fr.polytech.reversi.model.players.search.Searcher;
+import fr.polytech.reversi.model.players.search.TimeManager;
+import fr.polytech.reversi.model.players.search.TranspositionTable;
 
 /**
  * This class represents a computer player.
@@ -14,24 +37,49 @@ import fr.polytech.reversi.model.boardgame.exceptions.BoardGameException;
 public class ComputerPlayer implements IPlayer
 {
 	/**
-	 * The abort time threshold.
+	 * The default max time of a move.
 	 */
-	private static final int ABORT_TIME_THRESHOLD = 3000; // 3 seconds
+	public static final int DEFAULT_MAX_MOVE_TIME = 3000; // 3 seconds
 
 	/**
-	 * The board game size.
+	 * The default transposition table size.
 	 */
-	private static final int SIZE = 10;
+	public static final int DEFAULT_TRANSPOSITION_TABLE_SIZE = 16; // MB
 
 	/**
-	 * The own representation.
+	 * The default number of empty cells from which the endgame is solved.
 	 */
-	private final Cell ownRepresentation;
+	public static final int DEFAULT_ENDGAME_EMPTIES = 14;
+
+	/**
+	 * The size of the endgame solver transposition table.
+	 */
+	private static final int ENDGAME_TRANSPOSITION_TABLE_SIZE = 4; // MB
+
+	/**
+	 * The number of empty cells, below the endgame ones, from which the endgame is solved exactly (above, only the win/loss/draw result is solved).
+	 */
+	private static final int EXACT_ENDGAME_OFFSET = 2;
+
+	/**
+	 * The depth of the search run before solving the endgame, giving a move if the solve is aborted.
+	 */
+	private static final int ENDGAME_FALLBACK_DEPTH = 4;
+
+	/**
+	 * The name of the search helper threads.
+	 */
+	private static final String HELPER_THREAD_NAME = "Reversi search helper";
 
 	/**
-	 * The opponent representation.
+	 * The name of the engine thread, running the asynchronous choices.
 	 */
-	private final Cell opponentRepresentation;
+	private static final String ENGINE_THREAD_NAME = "Reversi engine";
+
+	/**
+	 * The own representation.
+	 */
+	private final Cell ownRepresentation;
 
 	/**
 	 * The max depth.
@@ -39,14 +87,129 @@ public class ComputerPlayer implements IPlayer
 	private final int maxDepth;
 
 	/**
-	 * The start time.
+	 * The time manager.
+	 */
+	private final TimeManager timeManager;
+
+	/**
+	 * The transposition table.
+	 */
+	private final TranspositionTable transpositionTable;
+
+	/**
+	 * The searchers (the main one, then the helpers).
+	 */
+	private final Searcher[] searchers;
+
+	/**
+	 * The executor of the helper searchers (null if there is no helper).
 	 */
-	private long startTime;
+	private final ExecutorService helpersExecutor;
 
 	/**
-	 * The best move.
+	 * The executor of the asynchronous choices (a single engine thread, so that the choices are searched one after the other).
 	 */
-	private Position bestMove;
+	private final ExecutorService engineExecutor;
+
+	/**
+	 * The asynchronous choice being searched (null if none).
+	 */
+	private volatile Future<Position> runningChoice;
+
+	/**
+	 * The listener of the progress of the running search (null if none).
+	 */
+	private volatile IProgressListener progressListener;
+
+	/**
+	 * The listener of the search statistics (null if none).
+	 */
+	private volatile ISearchListener searchListener;
+
+	/**
+	 * The statistics of the search of the last move (and of the endgame solve iterations).
+	 */
+	private final SearchStatistics moveStatistics;
+
+	/**
+	 * The principal variation of the last move.
+	 */
+	private final int[] principalVariation;
+
+	/**
+	 * The predicted reply of the opponent to the last choice ({@link TranspositionTable#NO_MOVE} if none).
+	 */
+	private volatile int predictedReply;
+
+	/**
+	 * True if the computer player ponders after its asynchronous choices.
+	 */
+	private boolean pondering;
+
+	/**
+	 * The pondered position, reached by the last choice and its predicted reply (null if none).
+	 */
+	private BoardGame ponderedBoardGame;
+
+	/**
+	 * The predicted reply leading to the pondered position.
+	 */
+	private int ponderMove;
+
+	/**
+	 * The choice searched in the pondered position (null if none).
+	 */
+	private CompletableFuture<Position> ponderChoice;
+
+	/**
+	 * True if the opponent has played the predicted reply.
+	 */
+	private boolean ponderHit;
+
+	/**
+	 * True if the search of the pondered position has started.
+	 */
+	private boolean ponderStarted;
+
+	/**
+	 * True if the search of the pondered position has ended.
+	 */
+	private boolean ponderEnded;
+
+	/**
+	 * The choice found in the pondered position, once its search has ended.
+	 */
+	private Position ponderResult;
+
+	/**
+	 * The number of empty cells from which the endgame is solved (0 if never).
+	 */
+	private final int endgameEmpties;
+
+	/**
+	 * The endgame solver (null if the endgame is never solved).
+	 */
+	private final EndgameSolver endgameSolver;
+
+	/**
+	 * The random generator of the book moves.
+	 */
+	private final Random random;
+
+	/**
+	 * The opening book (null if there is none).
+	 */
+	private OpeningBook openingBook;
+
+	/**
+	 * True if the computer player analyses the positions: the opening book is ignored and even a single legal move is searched, so that each move has a score.
+	 */
+	private boolean analysis;
+
+	/**
+	 * The selection of the book moves.
+	 */
+	private BookSelection bookSelection;
 
 	/**
 	 * Create a computer player.
@@ -58,9 +221,246 @@ public class ComputerPlayer implements IPlayer
 	 */
 	public ComputerPlayer(Cell cellRepresentation, int maxDepth)
 	{
+		this(cellRepresentation, maxDepth, DEFAULT_TRANSPOSITION_TABLE_SIZE);
+	}
+
+	/**
+	 * Create a computer player.
+	 * 
+	 * @param cellRepresentation
+	 *            The cell representation.
+	 * @param maxDepth
+	 *            The max depth.
+	 * @param transpositionTableSize
+	 *            The transposition table size (in MB).
+	 */
+	public ComputerPlayer(Cell cellRepresentation, int maxDepth, int transpositionTableSize)
+	{
+		this(cellRepresentation, maxDepth, 0, new TimeManager(0, DEFAULT_MAX_MOVE_TIME), transpositionTableSize);
+	}
+
+	/**
+	 * Create a computer player.
+	 * 
+	 * @param cellRepresentation
+	 *            The cell representation.
+	 * @param difficulty
+	 *            The difficulty.
+	 * @param transpositionTableSize
+	 *            The transposition table size (in MB).
+	 */
+	public ComputerPlayer(Cell cellRepresentation, Difficulty difficulty, int transpositionTableSize)
+	{
+		this(cellRepresentation, difficulty, transpositionTableSize, 1);
+	}
+
+	/**
+	 * Create a computer player.
+	 * 
+	 * @param cellRepresentation
+	 *            The cell representation.
+	 * @param maxDepth
+	 *            The max depth.
+	 * @param maxNodes
+	 *            The max number of nodes searched by move (0 if unlimited).
+	 * @param timeManager
+	 *            The time manager.
+	 * @param transpositionTableSize
+	 *            The transposition table size (in MB).
+	 */
+	public ComputerPlayer(Cell cellRepresentation, int maxDepth, long maxNodes, TimeManager timeManager, int transpositionTableSize)
+	{
+		this(cellRepresentation, maxDepth, maxNodes, timeManager, transpositionTableSize, 1);
+	}
+
+	/**
+	 * Create a computer player.
+	 * 
+	 * @param cellRepresentation
+	 *            The cell representation.
+	 * @param difficulty
+	 *            The difficulty.
+	 * @param transpositionTableSize
+	 *            The transposition table size (in MB).
+	 * @param nbThreads
+	 *            The number of search threads.
+	 */
+	public ComputerPlayer(Cell cellRepresentation, Difficulty difficulty, int transpositionTableSize, int nbThreads)
+	{
+		this(cellRepresentation, difficulty.getMaxDepth(), difficulty.getMaxNodes(), new TimeManager(difficulty.getGameTime(), difficulty.getMaxMoveTime()), transpositionTableSize, nbThreads,
+				difficulty.getEndgameEmpties());
+	}
+
+	/**
+	 * Create a computer player.
+	 * 
+	 * @param cellRepresentation
+	 *            The cell representation.
+	 * @param maxDepth
+	 *            The max depth.
+	 * @param maxNodes
+	 *            The max number of nodes searched by move by the main thread (0 if unlimited).
+	 * @param timeManager
+	 *            The time manager.
+	 * @param transpositionTableSize
+	 *            The transposition table size (in MB).
+	 * @param nbThreads
+	 *            The number of search threads.
+	 */
+	public ComputerPlayer(Cell cellRepresentation, int maxDepth, long maxNodes, TimeManager timeManager, int transpositionTableSize, int nbThreads)
+	{
+		this(cellRepresentation, maxDepth, maxNodes, timeManager, transpositionTableSize, nbThreads, DEFAULT_ENDGAME_EMPTIES);
+	}
+
+	/**
+	 * Create a computer player. With several threads, the helper threads search the same position on their own board game copies (Lazy SMP), only sharing the transposition table: the main thread
+	 * benefits from their results through the table and decides of the move. From the given number of empty cells, the main thread solves the endgame instead (win/loss/draw, then exact disc
+	 * differential two empty cells later).
+	 * 
+	 * @param cellRepresentation
+	 *            The cell representation.
+	 * @param maxDepth
+	 *            The max depth.
+	 * @param maxNodes
+	 *            The max number of nodes searched by move by the main thread (0 if unlimited).
+	 * @param timeManager
+	 *            The time manager.
+	 * @param transpositionTableSize
+	 *            The transposition table size (in MB).
+	 * @param nbThreads
+	 *            The number of search threads.
+	 * @param endgameEmpties
+	 *            The number of empty cells from which the endgame is solved (0 if never).
+	 */
+	public ComputerPlayer(Cell cellRepresentation, int maxDepth, long maxNodes, TimeManager timeManager, int transpositionTableSize, int nbThreads, int endgameEmpties)
+	{
+		if (nbThreads <= 0)
+		{
+			throw new IllegalArgumentException(String.format("Invalid number of search threads (%d)", nbThreads));
+		}
+
 		this.ownRepresentation = cellRepresentation;
 		this.maxDepth = maxDepth;
-		this.opponentRepresentation = (this.ownRepresentation == Cell.BLACK_PAWN ? Cell.WHITE_PAWN : Cell.BLACK_PAWN);
+		this.timeManager = timeManager;
+		this.transpositionTable = new TranspositionTable(transpositionTableSize);
+		this.searchers = new Searcher[nbThreads];
+		for (int index = 0; index < nbThreads; index++)
+		{
+			this.searchers[index] = new Searcher(cellRepresentation, maxNodes, timeManager, this.transpositionTable, index > 0);
+		}
+
+		this.helpersExecutor = (nbThreads > 1 ? Executors.newFixedThreadPool(nbThreads - 1, runnable ->
+		{
+			final Thread thread = new Thread(runnable, HELPER_THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		}) : null);
+
+		this.engineExecutor = Executors.newSingleThreadExecutor(runnable ->
+		{
+			final Thread thread = new Thread(runnable, ENGINE_THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		this.endgameEmpties = endgameEmpties;
+		this.endgameSolver = (endgameEmpties > 0 ? new EndgameSolver(timeManager, ENDGAME_TRANSPOSITION_TABLE_SIZE) : null);
+		this.random = new Random();
+		this.bookSelection = BookSelection.BEST;
+		this.predictedReply = TranspositionTable.NO_MOVE;
+		this.moveStatistics = new SearchStatistics();
+		this.principalVariation = new int[MoveOrdering.MAX_PLY + 1];
+	}
+
+	/**
+	 * Set the evaluator of the positions reached by the search (the positional evaluation by default).
+	 * 
+	 * @param evaluator
+	 *            The evaluator.
+	 */
+	public void setEvaluator(IEvaluator evaluator)
+	{
+		for (Searcher searcher : this.searchers)
+		{
+			searcher.setEvaluator(evaluator);
+		}
+	}
+
+	/**
+	 * The listener is notified of each completed iteration of the main searcher and of each endgame solve, then of the summary of the search of each move (a book move has a depth of 0). The
+	 * statistics are counted on each search thread and collected without allocation, so that the listener may be left set.
+	 * 
+	 * @see fr.polytech.reversi.model.players.IPlayer#setSearchListener(fr.polytech.reversi.model.players.ISearchListener)
+	 */
+	@Override
+	public void setSearchListener(ISearchListener searchListener)
+	{
+		this.searchListener = searchListener;
+		this.searchers[0].setSearchListener(searchListener);
+	}
+
+	/**
+	 * Set the opening book, consulted before searching: a position found in the book is played at once.
+	 * 
+	 * @param openingBook
+	 *            The opening book (null if there is none).
+	 * @param bookSelection
+	 *            The selection of the book moves.
+	 */
+	public void setOpeningBook(OpeningBook openingBook, BookSelection bookSelection)
+	{
+		this.openingBook = openingBook;
+		this.bookSelection = bookSelection;
+	}
+
+	/**
+	 * Set if the computer player analyses the positions: the opening book is then ignored and even a single legal move is searched, so that the statistics of each move give its score.
+	 * 
+	 * @param analysis
+	 *            True or False.
+	 */
+	public void setAnalysis(boolean analysis)
+	{
+		this.analysis = analysis;
+	}
+
+	/**
+	 * Set if the computer player ponders: after each asynchronous choice, the position reached by the predicted reply of the opponent is searched on the engine thread while the opponent thinks. If the
+	 * opponent plays the predicted reply, the pondering search goes on as the search of the next choice, which is then given at once or soon; otherwise it is stopped at once.
+	 * 
+	 * @param pondering
+	 *            True or False.
+	 */
+	public synchronized void setPondering(boolean pondering)
+	{
+		this.pondering = pondering;
+		if (!pondering)
+		{
+			stopPondering();
+		}
+	}
+
+	/**
+	 * Stop the pondering search, if any.
+	 */
+	public synchronized void stopPondering()
+	{
+		if (this.ponderChoice != null)
+		{
+			this.ponderChoice.cancel(true);
+			this.ponderChoice = null;
+			this.ponderedBoardGame = null;
+		}
+	}
+
+	/**
+	 * Get the predicted reply of the opponent, whose position is being pondered.
+	 * 
+	 * @return The move square, or {@link TranspositionTable#NO_MOVE} if the computer player is not pondering.
+	 */
+	public synchronized int getPonderMove()
+	{
+		return (this.ponderChoice != null ? this.ponderMove : TranspositionTable.NO_MOVE);
 	}
 
 	/**
@@ -69,156 +469,643 @@ public class ComputerPlayer implements IPlayer
 	@Override
 	public Position getNextChoice(BoardGame boardGame)
 	{
-		this.startTime = System.currentTimeMillis();
-		maxValue(boardGame, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0);
+		this.progressListener = null;
+		this.searchers[0].setProgressListener(null);
+		return getNextChoice(boardGame, false);
+	}
 
-		return this.bestMove;
+	/**
+	 * @see fr.polytech.reversi.model.players.IPlayer#getNextChoiceAsync(fr.polytech.reversi.model.boardgame.BoardGame, fr.polytech.reversi.model.players.IProgressListener)
+	 */
+	@Override
+	public CompletableFuture<Position> getNextChoiceAsync(BoardGame boardGame, IProgressListener progressListener)
+	{
+		final CompletableFuture<Position> ponderedChoice = takePonderChoice(boardGame, progressListener);
+		return (ponderedChoice != null ? ponderedChoice : submitChoice(new BoardGame(boardGame), progressListener, false));
 	}
 
 	/**
-	 * Calculate the max value.
+	 * Take the choice searched by the pondering if the board game is the pondered position (ponder hit), or stop the pondering otherwise (ponder miss).
 	 * 
 	 * @param boardGame
 	 *            The board game.
-	 * @param alpha
-	 *            The alpha value.
-	 * @param beta
-	 *            The beta value.
-	 * @param depth
-	 *            The depth.
-	 * @return The max value.
+	 * @param progressListener
+	 *            The listener of the search progress (null if none).
+	 * @return The pondered choice, or null if the board game is not the pondered position.
 	 */
-	private double maxValue(BoardGame boardGame, double alpha, double beta, int depth)
+	private synchronized CompletableFuture<Position> takePonderChoice(BoardGame boardGame, IProgressListener progressListener)
 	{
-		if (depth >= this.maxDepth || !isTimerOk() || boardGame.gameOver())
+		final CompletableFuture<Position> ponderedChoice = this.ponderChoice;
+		final BoardGame ponderedBoardGame = this.ponderedBoardGame;
+		if (ponderedChoice == null)
 		{
-			return evaluate(boardGame);
+			return null;
 		}
 
-		BoardGame boardGameAfterNextMove = new BoardGame(boardGame);
+		this.ponderChoice = null;
+		this.ponderedBoardGame = null;
+		if ((boardGame.getPawns(Cell.BLACK_PAWN) != ponderedBoardGame.getPawns(Cell.BLACK_PAWN)) || (boardGame.getPawns(Cell.WHITE_PAWN) != ponderedBoardGame.getPawns(Cell.WHITE_PAWN)))
+		{
+			ponderedChoice.cancel(true);
+			return null;
+		}
 
-		if (!boardGame.playerCanPlay(this.ownRepresentation))
+		this.ponderHit = true;
+		this.progressListener = progressListener;
+		this.searchers[0].setProgressListener(progressListener);
+		if (this.ponderEnded)
 		{
-			return minValue(boardGame, alpha, beta, depth + 1);
+			startPondering(ponderedBoardGame, this.ponderResult);
+		}
+		else if (this.ponderStarted)
+		{
+			this.timeManager.ponderHit(boardGame.getNbCellsRemaining());
 		}
 
-		Position position = null;
-		Position localBestMove = null;
-		double bestResult = Double.NEGATIVE_INFINITY;
+		return ponderedChoice;
+	}
 
-		for (int x = 0; x < SIZE; x++)
+	/**
+	 * Submit the search of a choice to the engine thread.
+	 * 
+	 * @param searchedBoardGame
+	 *            The board game copy to search.
+	 * @param progressListener
+	 *            The listener of the search progress (null if none).
+	 * @param ponder
+	 *            True if the board game is the pondered position.
+	 * @return The future choice.
+	 */
+	private CompletableFuture<Position> submitChoice(BoardGame searchedBoardGame, IProgressListener progressListener, boolean ponder)
+	{
+		final CompletableFuture<Position> choice = new CompletableFuture<Position>();
+		choice.whenComplete((position, error) ->
 		{
-			for (int y = 0; y < SIZE; y++)
+			if (choice.isCancelled() && (this.runningChoice == choice))
 			{
-				position = new Position(x, y);
+				stop();
+			}
+		});
 
-				try
-				{
-					boardGameAfterNextMove.markCellAI(position, this.ownRepresentation);
-					alpha = minValue(boardGameAfterNextMove, alpha, beta, depth + 1);
-
-					if (alpha > bestResult)
-					{
-						localBestMove = position;
-						bestResult = alpha;
-					}
-				}
-				catch (BoardGameException e)
-				{
-					// Do nothing.
-				}
+		this.engineExecutor.execute(() ->
+		{
+			if (choice.isCancelled())
+			{
+				return;
+			}
 
-				if (alpha >= beta)
+			this.runningChoice = choice;
+			if (!ponder)
+			{
+				this.progressListener = progressListener;
+				this.searchers[0].setProgressListener(progressListener);
+			}
+
+			try
+			{
+				final Position position = getNextChoice(searchedBoardGame, ponder);
+				if (endChoice(choice, ponder, position))
 				{
-					break;
+					startPondering(searchedBoardGame, position);
 				}
 
-				boardGameAfterNextMove.resetBoardGame(boardGame.getBoardGame());
+				choice.complete(position);
 			}
+			catch (Throwable e)
+			{
+				// Even an error of the engine thread must end the choice, so that the board game does not wait for it forever.
+				choice.completeExceptionally(e);
+			}
+			finally
+			{
+				this.runningChoice = null;
+			}
+		});
+
+		return choice;
+	}
+
+	/**
+	 * End the search of a choice.
+	 * 
+	 * @param choice
+	 *            The choice.
+	 * @param ponder
+	 *            True if the searched position is the pondered position.
+	 * @param position
+	 *            The position found.
+	 * @return True if the choice has been given to the opponent, so that the pondering can start.
+	 */
+	private synchronized boolean endChoice(CompletableFuture<Position> choice, boolean ponder, Position position)
+	{
+		if (choice.isCancelled())
+		{
+			return false;
 		}
 
-		this.bestMove = localBestMove;
+		if (ponder && !this.ponderHit)
+		{
+			// The choice is kept until the ponder hit, which will start the next pondering.
+			this.ponderEnded = true;
+			this.ponderResult = position;
+			return false;
+		}
 
-		return alpha;
+		return true;
 	}
 
 	/**
-	 * Calculate the min value.
+	 * Start pondering after a choice, if the opponent reply is predicted.
+	 * 
+	 * @param boardGame
+	 *            The board game on which the choice has been searched.
+	 * @param choice
+	 *            The choice (null if none).
+	 */
+	private synchronized void startPondering(BoardGame boardGame, Position choice)
+	{
+		final int reply = this.predictedReply;
+		if (!this.pondering || (choice == null) || (reply == TranspositionTable.NO_MOVE))
+		{
+			return;
+		}
+
+		final Cell opponentRepresentation = (this.ownRepresentation == Cell.BLACK_PAWN ? Cell.WHITE_PAWN : Cell.BLACK_PAWN);
+		final BoardGame ponderedBoardGame = new BoardGame(boardGame);
+		ponderedBoardGame.makeMove(BitBoard.getSquare(choice.getX(), choice.getY()), this.ownRepresentation);
+		if ((ponderedBoardGame.getLegalMoves(opponentRepresentation) & (1L << reply)) == 0)
+		{
+			return;
+		}
+
+		ponderedBoardGame.makeMove(reply, opponentRepresentation);
+		this.ponderedBoardGame = ponderedBoardGame;
+		this.ponderMove = reply;
+		this.ponderHit = false;
+		this.ponderStarted = false;
+		this.ponderEnded = false;
+		this.ponderResult = null;
+		this.ponderChoice = submitChoice(new BoardGame(ponderedBoardGame), null, true);
+	}
+
+	/**
+	 * Start the clock of a search: a pondering search has no limit until the ponder hit.
+	 * 
+	 * @param nbCellsRemaining
+	 *            The number of empty cells.
+	 * @param ponder
+	 *            True if the searched position is the pondered position.
+	 */
+	private synchronized void startClock(int nbCellsRemaining, boolean ponder)
+	{
+		if (ponder && !this.ponderHit)
+		{
+			this.progressListener = null;
+			this.searchers[0].setProgressListener(null);
+			this.timeManager.startPonder();
+		}
+		else
+		{
+			this.timeManager.startMove(nbCellsRemaining);
+		}
+
+		if (ponder)
+		{
+			this.ponderStarted = true;
+		}
+	}
+
+	/**
+	 * Get the next choice.
 	 * 
 	 * @param boardGame
 	 *            The board game.
-	 * @param alpha
-	 *            The alpha value.
-	 * @param beta
-	 *            The beta value.
-	 * @param depth
-	 *            The depth.
-	 * @return The min value.
+	 * @param ponder
+	 *            True if the board game is the pondered position.
+	 * @return The next choice (null if there is no legal move).
 	 */
-	private double minValue(BoardGame boardGame, double alpha, double beta, int depth)
+	private Position getNextChoice(BoardGame boardGame, boolean ponder)
 	{
-		if (depth >= this.maxDepth || !isTimerOk() || boardGame.gameOver())
+		final int nbCellsRemaining = boardGame.getNbCellsRemaining();
+		final long legalMoves = boardGame.getLegalMoves(this.ownRepresentation);
+		this.predictedReply = TranspositionTable.NO_MOVE;
+		if (legalMoves == 0)
 		{
-			return evaluate(boardGame);
+			return null;
 		}
 
-		BoardGame boardGameAfterNextMove = new BoardGame(boardGame);
+		// The event is only created if the flight recorder API is available, so that its classes are never loaded otherwise.
+		final SearchEvent searchEvent = (FlightRecorder.isAvailable() ? new SearchEvent() : null);
+		if (searchEvent != null)
+		{
+			searchEvent.begin();
+		}
 
-		if (!boardGame.playerCanPlay(this.opponentRepresentation))
+		if ((this.openingBook != null) && !this.analysis)
 		{
-			return maxValue(boardGame, alpha, beta, depth + 1);
+			final Cell opponentRepresentation = (this.ownRepresentation == Cell.BLACK_PAWN ? Cell.WHITE_PAWN : Cell.BLACK_PAWN);
+			final int bookSquare = this.openingBook.getMove(boardGame.getPawns(this.ownRepresentation), boardGame.getPawns(opponentRepresentation), this.bookSelection, this.random);
+			if (bookSquare != OpeningBook.NO_MOVE)
+			{
+				notifyBookMove(bookSquare);
+				commitSearchEvent(searchEvent, nbCellsRemaining, true, AbortReason.NONE);
+				return new Position(BitBoard.getX(bookSquare), BitBoard.getY(bookSquare));
+			}
 		}
 
-		Position position = null;
+		startClock(nbCellsRemaining, ponder);
+		this.transpositionTable.newSearch();
+		for (Searcher searcher : this.searchers)
+		{
+			searcher.prepare();
+		}
+		stopIfCancelled();
 
-		for (int x = 0; x < SIZE; x++)
+		int bestSquare = Long.numberOfTrailingZeros(legalMoves);
+		final boolean endgame = (nbCellsRemaining <= this.endgameEmpties);
+		final boolean searched = (this.analysis || (Long.bitCount(legalMoves) > 1));
+		AbortReason abortReason = AbortReason.NONE;
+		if (searched)
 		{
-			for (int y = 0; y < SIZE; y++)
+			final int lastDepth = Math.min(this.maxDepth, nbCellsRemaining);
+			final int searchedSquare = (endgame ? solveEndgame(boardGame, nbCellsRemaining, lastDepth) : search(boardGame, lastDepth));
+			if (searchedSquare != TranspositionTable.NO_MOVE)
 			{
-				position = new Position(x, y);
+				bestSquare = searchedSquare;
+			}
 
-				try
-				{
-					boardGameAfterNextMove.markCellAI(position, this.opponentRepresentation);
-					beta = Math.min(beta, maxValue(boardGameAfterNextMove, alpha, beta, depth + 1));
-				}
-				catch (BoardGameException e)
-				{
-					// Do nothing.
-				}
+			abortReason = (endgame ? this.endgameSolver.getAbortReason() : this.searchers[0].getAbortReason());
+		}
 
-				if (beta <= alpha)
-				{
-					break;
-				}
+		this.timeManager.endMove();
 
-				boardGameAfterNextMove.resetBoardGame(boardGame.getBoardGame());
-			}
+		final int principalVariationLength = this.searchers[0].getPrincipalVariation(this.principalVariation);
+		if ((principalVariationLength >= 2) && (this.principalVariation[0] == bestSquare) && (this.principalVariation[1] != Searcher.PASS))
+		{
+			this.predictedReply = this.principalVariation[1];
 		}
 
-		return beta;
+		notifySearchedMove(bestSquare, principalVariationLength, endgame && searched);
+		commitSearchEvent(searchEvent, nbCellsRemaining, false, abortReason);
+
+		return new Position(BitBoard.getX(bestSquare), BitBoard.getY(bestSquare));
 	}
 
 	/**
-	 * Check if the timer is OK.
+	 * Search the best move with all the searchers.
 	 * 
-	 * @return True or False.
+	 * @param boardGame
+	 *            The board game.
+	 * @param lastDepth
+	 *            The depth of the last iteration.
+	 * @return The best move square, or {@link TranspositionTable#NO_MOVE} if no iteration has been completed.
 	 */
-	private boolean isTimerOk()
+	private int search(BoardGame boardGame, int lastDepth)
 	{
-		return (System.currentTimeMillis() - this.startTime) < ABORT_TIME_THRESHOLD;
+		final List<Future<Integer>> helpersResults = new ArrayList<Future<Integer>>();
+		for (int index = 1; index < this.searchers.length; index++)
+		{
+			final Searcher helper = this.searchers[index];
+			final BoardGame helperBoardGame = new BoardGame(boardGame);
+			final int firstDepth = 1 + (index & 1);
+			helpersResults.add(this.helpersExecutor.submit(() -> helper.search(helperBoardGame, firstDepth, lastDepth)));
+		}
+
+		try
+		{
+			return this.searchers[0].search(boardGame, 1, lastDepth);
+		}
+		finally
+		{
+			// The helpers ignore the budgets: they are stopped even if the main search fails.
+			stopHelpers(helpersResults);
+		}
 	}
 
 	/**
-	 * Evaluate the board game.
+	 * Solve the endgame. A shallow search is run first, so that a move is known if the solve is aborted.
 	 * 
 	 * @param boardGame
 	 *            The board game.
-	 * @return The evaluation.
+	 * @param nbCellsRemaining
+	 *            The number of empty cells.
+	 * @param lastDepth
+	 *            The depth of the last iteration of the shallow search.
+	 * @return The best move square, or {@link TranspositionTable#NO_MOVE} if neither the search nor the solve has been completed.
+	 */
+	private int solveEndgame(BoardGame boardGame, int nbCellsRemaining, int lastDepth)
+	{
+		final int searchedSquare = this.searchers[0].search(boardGame, 1, Math.min(ENDGAME_FALLBACK_DEPTH, lastDepth));
+
+		this.endgameSolver.prepare();
+		stopIfCancelled();
+		final int solvedSquare = this.endgameSolver.solve(boardGame, this.ownRepresentation, nbCellsRemaining <= this.endgameEmpties - EXACT_ENDGAME_OFFSET);
+		final IProgressListener progressListener = this.progressListener;
+		if ((progressListener != null) && (solvedSquare != TranspositionTable.NO_MOVE))
+		{
+			progressListener.notifyProgress(nbCellsRemaining, new Position(BitBoard.getX(solvedSquare), BitBoard.getY(solvedSquare)), this.endgameSolver.getScore());
+		}
+
+		final ISearchListener searchListener = this.searchListener;
+		if ((searchListener != null) && (solvedSquare != TranspositionTable.NO_MOVE))
+		{
+			this.principalVariation[0] = solvedSquare;
+			this.moveStatistics.update(nbCellsRemaining, this.endgameSolver.getScore(), getEndgameScoreType(), 1, this.principalVariation, 1,
+					this.searchers[0].getNbNodes() + this.endgameSolver.getNbNodes(), this.searchers[0].getNbTranspositionHits(), this.searchers[0].getNbCutoffs(), this.timeManager.getElapsedTime(),
+					this.timeManager.isPondering());
+			searchListener.notifyIteration(this.moveStatistics);
+		}
+
+		return (solvedSquare != TranspositionTable.NO_MOVE ? solvedSquare : searchedSquare);
+	}
+
+	/**
+	 * Commit the flight recorder event of the search of a move, if it is enabled. The statistics of the move must have been updated.
+	 * 
+	 * @param searchEvent
+	 *            The search event, begun at the start of the search (null if the flight recorder API is not available).
+	 * @param nbCellsRemaining
+	 *            The number of empty cells.
+	 * @param bookMove
+	 *            True if the move has been found in the opening book.
+	 * @param abortReason
+	 *            The reason why the search has ended before its last iteration.
+	 */
+	private void commitSearchEvent(SearchEvent searchEvent, int nbCellsRemaining, boolean bookMove, AbortReason abortReason)
+	{
+		if (searchEvent == null)
+		{
+			return;
+		}
+
+		searchEvent.end();
+		if (!searchEvent.shouldCommit())
+		{
+			return;
+		}
+
+		searchEvent.player = this.ownRepresentation.name();
+		searchEvent.nbEmptyCells = nbCellsRemaining;
+		searchEvent.move = BitBoard.getNotation(this.moveStatistics.getPrincipalVariationMove(0));
+		searchEvent.depth = this.moveStatistics.getDepth();
+		searchEvent.nbNodes = this.moveStatistics.getNbNodes();
+		searchEvent.score = this.moveStatistics.getScore();
+		searchEvent.timeBudget = (bookMove ? 0 : this.timeManager.getMoveBudget());
+		searchEvent.abortReason = abortReason.name();
+		searchEvent.bookMove = bookMove;
+		searchEvent.pondering = this.moveStatistics.isPondering();
+		searchEvent.commit();
+	}
+
+	/**
+	 * Get the type of the score of the last endgame solve.
+	 * 
+	 * @return The score type.
+	 */
+	private ScoreType getEndgameScoreType()
+	{
+		return (this.endgameSolver.isExact() ? ScoreType.EXACT : ScoreType.WIN_LOSS_DRAW);
+	}
+
+	/**
+	 * Update the statistics of a book move, and notify the search listener.
+	 * 
+	 * @param bookSquare
+	 *            The square of the book move.
+	 */
+	private void notifyBookMove(int bookSquare)
+	{
+		this.principalVariation[0] = bookSquare;
+		this.moveStatistics.update(0, 0, ScoreType.NONE, 1, this.principalVariation, 1, 0, 0, 0, 0, false);
+
+		final ISearchListener searchListener = this.searchListener;
+		if (searchListener != null)
+		{
+			searchListener.notifyMove(this.moveStatistics);
+		}
+	}
+
+	/**
+	 * Update the summary of the search of a move, counted by all the searchers (and by the endgame solver), and notify the search listener.
+	 * 
+	 * @param bestSquare
+	 *            The chosen move square.
+	 * @param principalVariationLength
+	 *            The length of the principal variation of the main searcher.
+	 * @param endgame
+	 *            True if the endgame has been solved (or its solve has been aborted).
+	 */
+	private void notifySearchedMove(int bestSquare, int principalVariationLength, boolean endgame)
+	{
+		long nbNodes = 0;
+		long nbTranspositionHits = 0;
+		long nbCutoffs = 0;
+		for (Searcher searcher : this.searchers)
+		{
+			nbNodes += searcher.getNbNodes();
+			nbTranspositionHits += searcher.getNbTranspositionHits();
+			nbCutoffs += searcher.getNbCutoffs();
+		}
+
+		int depth = this.searchers[0].getCompletedDepth();
+		int score = this.searchers[0].getCompletedScore();
+		ScoreType scoreType = (depth > 0 ? ScoreType.EVALUATION : ScoreType.NONE);
+		int nbUnitsByDisc = this.searchers[0].getEvaluator().getNbUnitsByDisc();
+		if (endgame)
+		{
+			nbNodes += this.endgameSolver.getNbNodes();
+			if (!this.endgameSolver.isAborted())
+			{
+				depth = this.endgameSolver.getNbEmptyCells();
+				score = this.endgameSolver.getScore();
+				scoreType = getEndgameScoreType();
+				nbUnitsByDisc = 1;
+			}
+		}
+
+		int length = principalVariationLength;
+		if ((length == 0) || (this.principalVariation[0] != bestSquare))
+		{
+			this.principalVariation[0] = bestSquare;
+			length = 1;
+		}
+
+		this.moveStatistics.update(depth, score, scoreType, nbUnitsByDisc, this.principalVariation, length, nbNodes, nbTranspositionHits, nbCutoffs, this.timeManager.getElapsedTime(),
+				this.timeManager.isPondering());
+
+		final ISearchListener searchListener = this.searchListener;
+		if (searchListener != null)
+		{
+			searchListener.notifyMove(this.moveStatistics);
+		}
+	}
+
+	/**
+	 * Stop the helper searchers and wait for them.
+	 * 
+	 * @param helpersResults
+	 *            The results of the helper searchers.
+	 */
+	private void stopHelpers(List<Future<Integer>> helpersResults)
+	{
+		for (int index = 1; index < this.searchers.length; index++)
+		{
+			this.searchers[index].stop();
+		}
+
+		for (Future<Integer> helperResult : helpersResults)
+		{
+			try
+			{
+				helperResult.get();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			catch (ExecutionException e)
+			{
+				throw new IllegalStateException("A search helper failed", e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Ask the running search to stop as soon as possible: the best move found so far is chosen.
+	 */
+	public void stop()
+	{
+		for (Searcher searcher : this.searchers)
+		{
+			searcher.stop();
+		}
+
+		if (this.endgameSolver != null)
+		{
+			this.endgameSolver.stop();
+		}
+	}
+
+	/**
+	 * Stop the search if the asynchronous choice being searched has been cancelled (the cancellation may have come before the search was prepared).
+	 */
+	private void stopIfCancelled()
+	{
+		final Future<Position> choice = this.runningChoice;
+		if ((choice != null) && choice.isCancelled())
+		{
+			stop();
+		}
+	}
+
+	/**
+	 * Shut the engine and search helper threads down. The computer player must not be used anymore.
+	 */
+	public void shutdown()
+	{
+		stopPondering();
+		this.engineExecutor.shutdownNow();
+		if (this.helpersExecutor != null)
+		{
+			this.helpersExecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Get the transposition table.
+	 * 
+	 * @return The transposition table.
+	 */
+	public TranspositionTable getTranspositionTable()
+	{
+		return this.transpositionTable;
+	}
+
+	/**
+	 * Get the endgame solver, giving the statistics of the last solved position.
+	 * 
+	 * @return The endgame solver (null if the endgame is never solved).
+	 */
+	public EndgameSolver getEndgameSolver()
+	{
+		return this.endgameSolver;
+	}
+
+	/**
+	 * Get the opening book.
+	 * 
+	 * @return The opening book (null if there is none).
+	 */
+	public OpeningBook getOpeningBook()
+	{
+		return this.openingBook;
+	}
+
+	/**
+	 * Get the move ordering of the main searcher.
+	 * 
+	 * @return The move ordering.
+	 */
+	public MoveOrdering getMoveOrdering()
+	{
+		return this.searchers[0].getMoveOrdering();
+	}
+
+	/**
+	 * Get the number of nodes searched for the last move, by all the searchers.
+	 * 
+	 * @return The number of nodes.
+	 */
+	public long getNbNodes()
+	{
+		long nbNodes = 0;
+		for (Searcher searcher : this.searchers)
+		{
+			nbNodes += searcher.getNbNodes();
+		}
+
+		return nbNodes;
+	}
+
+	/**
+	 * Get the depth of the last completed iteration of the main searcher for the last move.
+	 * 
+	 * @return The depth.
+	 */
+	public int getCompletedDepth()
+	{
+		return this.searchers[0].getCompletedDepth();
+	}
+
+	/**
+	 * Get the score of the last completed iteration of the main searcher for the last move.
+	 * 
+	 * @return The score, from the point of view of the computer player.
+	 */
+	public int getScore()
+	{
+		return this.searchers[0].getCompletedScore();
+	}
+
+	/**
+	 * Get the principal variation of the last completed iteration of the main searcher for the last move.
+	 * 
+	 * @return The moves squares (x * 8 + y), {@link Searcher#PASS} for a pass.
+	 */
+	public int[] getPrincipalVariation()
+	{
+		final int[] moves = new int[MoveOrdering.MAX_PLY];
+		return Arrays.copyOf(moves, this.searchers[0].getPrincipalVariation(moves));
+	}
+
+	/**
+	 * Get the number of search threads.
+	 * 
+	 * @return The number of search threads.
 	 */
-	private double evaluate(BoardGame boardGame)
+	public int getNbThreads()
 	{
-		return boardGame.getNbPointsByPawn(this.ownRepresentation) - boardGame.getNbPointsByPawn(this.opponentRepresentation);
+		return this.searchers.length;
 	}
 
 	/**
@@ -0,0 +1,123 @@
+package fr.polytech.reversi.model.players;
+
+/**
+ * This enumeration represents the difficulty of a computer player, as a search budget (Easy, Normal, Hard).
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public enum Difficulty
+{
+	/**
+	 * The easy difficulty.
+	 */
+	EASY(2, 2000, 30000, 1000, 0),
+
+	/**
+	 * The normal difficulty.
+	 */
+	NORMAL(8, 200000, 60000, 3000, 14),
+
+	/**
+	 * The hard difficulty.
+	 */
+	HARD(60, 0, 300000, 10000, 20);
+
+	/**
+	 * The max depth.
+	 */
+	private final int maxDepth;
+
+	/**
+	 * The max number of nodes searched by move (0 if unlimited).
+	 */
+	private final long maxNodes;
+
+	/**
+	 * The game time in milliseconds.
+	 */
+	private final long gameTime;
+
+	/**
+	 * The max time of a move in milliseconds.
+	 */
+	private final long maxMoveTime;
+
+	/**
+	 * The number of empty cells from which the endgame is solved (0 if never).
+	 */
+	private final int endgameEmpties;
+
+	/**
+	 * Private constructor.
+	 * 
+	 * @param maxDepth
+	 *            The max depth.
+	 * @param maxNodes
+	 *            The max number of nodes searched by move (0 if unlimited).
+	 * @param gameTime
+	 *            The game time in milliseconds.
+	 * @param maxMoveTime
+	 *            The max time of a move in milliseconds.
+	 * @param endgameEmpties
+	 *            The number of empty cells from which the endgame is solved (0 if never).
+	 */
+	private Difficulty(int maxDepth, long maxNodes, long gameTime, long maxMoveTime, int endgameEmpties)
+	{
+		this.maxDepth = maxDepth;
+		this.maxNodes = maxNodes;
+		this.gameTime = gameTime;
+		this.maxMoveTime = maxMoveTime;
+		this.endgameEmpties = endgameEmpties;
+	}
+
+	/**
+	 * Get the max depth.
+	 * 
+	 * @return The max depth.
+	 */
+	public int getMaxDepth()
+	{
+		return this.maxDepth;
+	}
+
+	/**
+	 * Get the max number of nodes searched by move.
+	 * 
+	 * @return The max number of nodes (0 if unlimited).
+	 */
+	public long getMaxNodes()
+	{
+		return this.maxNodes;
+	}
+
+	/**
+	 * Get the game time.
+	 * 
+	 * @return The game time in milliseconds.
+	 */
+	public long getGameTime()
+	{
+		return this.gameTime;
+	}
+
+	/**
+	 * Get the max time of a move.
+	 * 
+	 * @return The max time of a move in milliseconds.
+	 */
+	public long getMaxMoveTime()
+	{
+		return this.maxMoveTime;
+	}
+
+	/**
+	 * Get the number of empty cells from which the endgame is solved.
+	 * 
+	 * @return The number of empty cells (0 if never).
+	 */
+	public int getEndgameEmpties()
+	{
+		return this.endgameEmpties;
+	}
+}
\ No newline at end of file
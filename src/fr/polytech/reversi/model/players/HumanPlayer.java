@@ -1,5 +1,7 @@
 package fr.polytech.reversi.model.players;
 
+import java.util.concurrent.CompletableFuture;
+
 import fr.polytech.reversi.model.boardgame.BoardGame;
 import fr.polytech.reversi.model.boardgame.Cell;
 import fr.polytech.reversi.model.boardgame.Position;
@@ -37,6 +39,26 @@ public class HumanPlayer implements IPlayer
 		return null;
 	}
 
+	/**
+	 * @see fr.polytech.reversi.model.players.IPlayer#getNextChoiceAsync(fr.polytech.reversi.model.boardgame.BoardGame, fr.polytech.reversi.model.players.IProgressListener)
+	 */
+	@Override
+	public CompletableFuture<Position> getNextChoiceAsync(BoardGame boardGame, IProgressListener progressListener)
+	{
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * A human player does not search, the listener is never notified.
+	 * 
+	 * @see fr.polytech.reversi.model.players.IPlayer#setSearchListener(fr.polytech.reversi.model.players.ISearchListener)
+	 */
+	@Override
+	public void setSearchListener(ISearchListener searchListener)
+	{
+		// Nothing.
+	}
+
 	/**
 	 * @see fr.polytech.reversi.model.players.IPlayer#getPlayerType()
 	 */
@@ -1,5 +1,7 @@
 package fr.polytech.reversi.model.players;
 
+import java.util.concurrent.CompletableFuture;
+
 import fr.polytech.reversi.model.boardgame.BoardGame;
 import fr.polytech.reversi.model.boardgame.Cell;
 import fr.polytech.reversi.model.boardgame.Position;
@@ -22,6 +24,25 @@ public interface IPlayer
 	 */
 	public Position getNextChoice(BoardGame boardGame);
 
+	/**
+	 * Get the next choice without blocking the calling thread. Cancelling the returned future stops the search as soon as possible.
+	 * 
+	 * @param boardGame
+	 *            The board game (it is copied before returning).
+	 * @param progressListener
+	 *            The listener of the search progress (null if none).
+	 * @return The future next choice (null for a human player, whose choice comes from the view).
+	 */
+	public CompletableFuture<Position> getNextChoiceAsync(BoardGame boardGame, IProgressListener progressListener);
+
+	/**
+	 * Set the listener of the statistics of the searches of the next choices.
+	 * 
+	 * @param searchListener
+	 *            The listener (null if none).
+	 */
+	public void setSearchListener(ISearchListener searchListener);
+
 	/**
 	 * Get the player type.
 	 * 
@@ -0,0 +1,24 @@
+package fr.polytech.reversi.model.players;
+
+import fr.polytech.reversi.model.boardgame.Position;
+
+/**
+ * This interface represents a listener of the progress of a player thinking of its next choice.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public interface IProgressListener
+{
+	/**
+	 * Notify the progress of the search of the next choice. It is called from the search thread.
+	 * 
+	 * @param depth
+	 *            The depth of the last completed iteration (the number of empty cells once the endgame is solved).
+	 * @param bestMove
+	 *            The best move found so far.
+	 * @param score
+	 *            The score of the best move, from the point of view of the player (the disc differential once the endgame is solved).
+	 */
+	public void notifyProgress(int depth, Position bestMove, int score);
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package fr.polytech.reversi.model.players;
+
+import fr.polytech.reversi.model.players.search.SearchStatistics;
+
+/**
+ * This interface represents a listener of the statistics of the searches of a player. It is called from the search thread, with statistics which are refilled for each notification: they must be
+ * read during the call, and copied to be kept.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public interface ISearchListener
+{
+	/**
+	 * Notify the statistics of a completed iteration of the main searcher (or of the endgame solve).
+	 * 
+	 * @param statistics
+	 *            The statistics of the iteration, counted from the start of the search of the move.
+	 */
+	public void notifyIteration(SearchStatistics statistics);
+
+	/**
+	 * Notify the summary of the search of a move, once the move is chosen.
+	 * 
+	 * @param statistics
+	 *            The statistics of the whole search, counted by all the searchers.
+	 */
+	public void notifyMove(SearchStatistics statistics);
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package fr.polytech.reversi.model.players.book;
+
+/**
+ * This enumeration represents the way a move is selected among the book moves of a position (Best, Weighted random).
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public enum BookSelection
+{
+	/**
+	 * The move with the best results.
+	 */
+	BEST,
+
+	/**
+	 * A random move, weighted by its number of games.
+	 */
+	WEIGHTED_RANDOM;
+}
\ No newline at end of file
@@ -0,0 +1,297 @@
+package fr.polytech.reversi.model.players.book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.Zobrist;
+
+/**
+ * This class represents an opening book, read from a memory-mapped file: the entries are never copied to the heap.
+ *
+ * The file starts with a header (magic number, version, max number of plies, number of entries), followed by the entries sorted by key. An entry describes the position reached by a book move: its
+ * symmetry-canonical hash (the opponent of the player who played the move being to play), its number of games and its score (2 points by win and 1 by draw of the player who played the move).
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class OpeningBook
+{
+	/**
+	 * The missing move.
+	 */
+	public static final int NO_MOVE = -1;
+
+	/**
+	 * The magic number of the book files ("RVBK").
+	 */
+	public static final int MAGIC = 0x5256424B;
+
+	/**
+	 * The version of the book files.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The size of the header in bytes.
+	 */
+	public static final int HEADER_SIZE = 16;
+
+	/**
+	 * The size of an entry in bytes (key, number of games and score).
+	 */
+	public static final int ENTRY_SIZE = 16;
+
+	/**
+	 * The score of a win.
+	 */
+	public static final int WIN_SCORE = 2;
+
+	/**
+	 * The score of a draw.
+	 */
+	public static final int DRAW_SCORE = 1;
+
+	/**
+	 * The offset of the max number of plies in the header.
+	 */
+	private static final int MAX_PLIES_OFFSET = 8;
+
+	/**
+	 * The offset of the number of entries in the header.
+	 */
+	private static final int NB_ENTRIES_OFFSET = 12;
+
+	/**
+	 * The offset of the number of games in an entry.
+	 */
+	private static final int NB_GAMES_OFFSET = 8;
+
+	/**
+	 * The offset of the score in an entry.
+	 */
+	private static final int SCORE_OFFSET = 12;
+
+	/**
+	 * The number of pawns of the start position.
+	 */
+	private static final int NB_START_PAWNS = 4;
+
+	/**
+	 * The mapped file.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * The max number of plies of the book.
+	 */
+	private final int maxPlies;
+
+	/**
+	 * The number of entries.
+	 */
+	private final int nbEntries;
+
+	/**
+	 * Load an opening book.
+	 * 
+	 * @param path
+	 *            The path of the book file.
+	 * @throws IOException
+	 *             If the file can not be read or is not a valid book file.
+	 */
+	public OpeningBook(Path path) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			if ((channel.size() < HEADER_SIZE) || (channel.size() > Integer.MAX_VALUE))
+			{
+				throw new IOException(String.format("Invalid opening book size (%d bytes)", channel.size()));
+			}
+
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if ((this.buffer.getInt(0) != MAGIC) || (this.buffer.getInt(4) != VERSION))
+		{
+			throw new IOException(String.format("Invalid opening book header (%s)", path));
+		}
+
+		this.maxPlies = this.buffer.getInt(MAX_PLIES_OFFSET);
+		this.nbEntries = this.buffer.getInt(NB_ENTRIES_OFFSET);
+		if (HEADER_SIZE + (long) this.nbEntries * ENTRY_SIZE != this.buffer.capacity())
+		{
+			throw new IOException(String.format("Truncated opening book (%s)", path));
+		}
+	}
+
+	/**
+	 * Get a book move.
+	 * 
+	 * @param playerPawns
+	 *            The pawns of the player to play.
+	 * @param opponentPawns
+	 *            The pawns of the opponent.
+	 * @param selection
+	 *            The selection of the move.
+	 * @param random
+	 *            The random generator (used by a weighted random selection).
+	 * @return The move square, or {@link #NO_MOVE} if the position is not in the book.
+	 */
+	public int getMove(long playerPawns, long opponentPawns, BookSelection selection, Random random)
+	{
+		if (Long.bitCount(playerPawns | opponentPawns) - NB_START_PAWNS >= this.maxPlies)
+		{
+			return NO_MOVE;
+		}
+
+		final long legalMoves = BitBoard.getLegalMoves(playerPawns, opponentPawns);
+		long remainingMoves = legalMoves;
+		long totalGames = 0;
+		double bestRating = -1;
+		int bestSquare = NO_MOVE;
+		int square;
+		int index;
+		long flips;
+
+		while (remainingMoves != 0)
+		{
+			square = Long.numberOfTrailingZeros(remainingMoves);
+			remainingMoves &= remainingMoves - 1;
+
+			flips = BitBoard.getFlips(square, playerPawns, opponentPawns);
+			index = find(Zobrist.getCanonicalHash(opponentPawns & ~flips, playerPawns | flips | (1L << square)));
+			if (index < 0)
+			{
+				continue;
+			}
+
+			final int nbGames = getNbGames(index);
+			if (selection == BookSelection.WEIGHTED_RANDOM)
+			{
+				// Reservoir sampling: each move is kept with a probability proportional to its number of games.
+				totalGames += nbGames;
+				if (random.nextDouble() * totalGames < nbGames)
+				{
+					bestSquare = square;
+				}
+			}
+			else
+			{
+				// The mean score is smoothed, so that a move played once and won does not prevail over a move played a lot.
+				final double rating = (getScore(index) + (double) DRAW_SCORE) / (nbGames + 1);
+				if (rating > bestRating)
+				{
+					bestRating = rating;
+					bestSquare = square;
+				}
+			}
+		}
+
+		return bestSquare;
+	}
+
+	/**
+	 * Find an entry (binary search).
+	 * 
+	 * @param key
+	 *            The key.
+	 * @return The index of the entry, or -1 if it is missing.
+	 */
+	public int find(long key)
+	{
+		int low = 0;
+		int high = this.nbEntries - 1;
+		int middle;
+		long middleKey;
+
+		while (low <= high)
+		{
+			middle = (low + high) >>> 1;
+			middleKey = getKey(middle);
+			if (middleKey < key)
+			{
+				low = middle + 1;
+			}
+			else if (middleKey > key)
+			{
+				high = middle - 1;
+			}
+			else
+			{
+				return middle;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Get the key of an entry.
+	 * 
+	 * @param index
+	 *            The index of the entry.
+	 * @return The key.
+	 */
+	public long getKey(int index)
+	{
+		return this.buffer.getLong(HEADER_SIZE + index * ENTRY_SIZE);
+	}
+
+	/**
+	 * Get the number of games of an entry.
+	 * 
+	 * @param index
+	 *            The index of the entry.
+	 * @return The number of games.
+	 */
+	public int getNbGames(int index)
+	{
+		return this.buffer.getInt(HEADER_SIZE + index * ENTRY_SIZE + NB_GAMES_OFFSET);
+	}
+
+	/**
+	 * Get the score of an entry.
+	 * 
+	 * @param index
+	 *            The index of the entry.
+	 * @return The score.
+	 */
+	public int getScore(int index)
+	{
+		return this.buffer.getInt(HEADER_SIZE + index * ENTRY_SIZE + SCORE_OFFSET);
+	}
+
+	/**
+	 * Get the max number of plies.
+	 * 
+	 * @return The max number of plies.
+	 */
+	public int getMaxPlies()
+	{
+		return this.maxPlies;
+	}
+
+	/**
+	 * Get the number of entries.
+	 * 
+	 * @return The number of entries.
+	 */
+	public int getNbEntries()
+	{
+		return this.nbEntries;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return String.format("OpeningBook [entries=%d, maxPlies=%d]", this.nbEntries, this.maxPlies);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,188 @@
+package fr.polytech.reversi.model.players.book;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.Zobrist;
+
+/**
+ * This class builds an opening book from complete games and existing books, then writes it in the format read by {@link OpeningBook}.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class OpeningBookBuilder
+{
+	/**
+	 * The max number of plies of the book.
+	 */
+	private int maxPlies;
+
+	/**
+	 * The entries (number of games and score), by key.
+	 */
+	private final Map<Long, int[]> entries;
+
+	/**
+	 * Create an opening book builder.
+	 * 
+	 * @param maxPlies
+	 *            The max number of plies of the book (the moves of the games beyond it are ignored).
+	 */
+	public OpeningBookBuilder(int maxPlies)
+	{
+		if (maxPlies <= 0)
+		{
+			throw new IllegalArgumentException(String.format("Invalid number of book plies (%d)", maxPlies));
+		}
+
+		this.maxPlies = maxPlies;
+		this.entries = new HashMap<Long, int[]>();
+	}
+
+	/**
+	 * Add a game, black playing first. The passes are not part of the moves, they are deduced from the positions.
+	 * 
+	 * @param moves
+	 *            The moves squares.
+	 * @return True if the game has been added, False if a move is illegal or the game is not over.
+	 */
+	public boolean addGame(int[] moves)
+	{
+		long blackPawns = BitBoard.START_BLACK_PAWNS;
+		long whitePawns = BitBoard.START_WHITE_PAWNS;
+		boolean blackToPlay = true;
+		final long[] keys = new long[Math.min(moves.length, this.maxPlies)];
+		final boolean[] playedByBlack = new boolean[keys.length];
+		long playerPawns;
+		long opponentPawns;
+		long flips;
+
+		for (int ply = 0; ply < moves.length; ply++)
+		{
+			if (BitBoard.getLegalMoves(blackToPlay ? blackPawns : whitePawns, blackToPlay ? whitePawns : blackPawns) == 0)
+			{
+				blackToPlay = !blackToPlay;
+			}
+
+			playerPawns = (blackToPlay ? blackPawns : whitePawns);
+			opponentPawns = (blackToPlay ? whitePawns : blackPawns);
+			if ((moves[ply] < 0) || (moves[ply] >= BitBoard.NB_CELLS) || ((BitBoard.getLegalMoves(playerPawns, opponentPawns) & (1L << moves[ply])) == 0))
+			{
+				return false;
+			}
+
+			flips = BitBoard.getFlips(moves[ply], playerPawns, opponentPawns);
+			playerPawns |= flips | (1L << moves[ply]);
+			opponentPawns &= ~flips;
+
+			if (ply < keys.length)
+			{
+				keys[ply] = Zobrist.getCanonicalHash(opponentPawns, playerPawns);
+				playedByBlack[ply] = blackToPlay;
+			}
+
+			blackPawns = (blackToPlay ? playerPawns : opponentPawns);
+			whitePawns = (blackToPlay ? opponentPawns : playerPawns);
+			blackToPlay = !blackToPlay;
+		}
+
+		if ((BitBoard.getLegalMoves(blackPawns, whitePawns) != 0) || (BitBoard.getLegalMoves(whitePawns, blackPawns) != 0))
+		{
+			return false;
+		}
+
+		final int differential = Long.bitCount(blackPawns) - Long.bitCount(whitePawns);
+		for (int ply = 0; ply < keys.length; ply++)
+		{
+			final int playerDifferential = (playedByBlack[ply] ? differential : -differential);
+			add(keys[ply], 1, (playerDifferential > 0 ? OpeningBook.WIN_SCORE : (playerDifferential == 0 ? OpeningBook.DRAW_SCORE : 0)));
+		}
+
+		return true;
+	}
+
+	/**
+	 * Merge an opening book: the number of games and the scores of its entries are added.
+	 * 
+	 * @param openingBook
+	 *            The opening book.
+	 */
+	public void merge(OpeningBook openingBook)
+	{
+		this.maxPlies = Math.max(this.maxPlies, openingBook.getMaxPlies());
+		for (int index = 0; index < openingBook.getNbEntries(); index++)
+		{
+			add(openingBook.getKey(index), openingBook.getNbGames(index), openingBook.getScore(index));
+		}
+	}
+
+	/**
+	 * Add games to an entry.
+	 * 
+	 * @param key
+	 *            The key.
+	 * @param nbGames
+	 *            The number of games.
+	 * @param score
+	 *            The score.
+	 */
+	private void add(long key, int nbGames, int score)
+	{
+		final int[] entry = this.entries.computeIfAbsent(key, k -> new int[2]);
+		entry[0] += nbGames;
+		entry[1] += score;
+	}
+
+	/**
+	 * Write the opening book.
+	 * 
+	 * @param path
+	 *            The path of the book file.
+	 * @throws IOException
+	 *             If the file can not be written.
+	 */
+	public void write(Path path) throws IOException
+	{
+		final long[] keys = new long[this.entries.size()];
+		int index = 0;
+		for (Long key : this.entries.keySet())
+		{
+			keys[index++] = key;
+		}
+		Arrays.sort(keys);
+
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path))))
+		{
+			output.writeInt(OpeningBook.MAGIC);
+			output.writeInt(OpeningBook.VERSION);
+			output.writeInt(this.maxPlies);
+			output.writeInt(keys.length);
+
+			for (long key : keys)
+			{
+				final int[] entry = this.entries.get(key);
+				output.writeLong(key);
+				output.writeInt(entry[0]);
+				output.writeInt(entry[1]);
+			}
+		}
+	}
+
+	/**
+	 * Get the number of entries.
+	 * 
+	 * @return The number of entries.
+	 */
+	public int getNbEntries()
+	{
+		return this.entries.size();
+	}
+}
\ No newline at end of file
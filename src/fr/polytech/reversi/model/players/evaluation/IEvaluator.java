@@ -0,0 +1,33 @@
+package fr.polytech.reversi.model.players.evaluation;
+
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+
+/**
+ * This interface represents the evaluation of the positions reached by the search of a computer player.
+ *
+ * An evaluator is shared by all the search threads, so it must be stateless.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public interface IEvaluator
+{
+	/**
+	 * Evaluate the board game.
+	 * 
+	 * @param boardGame
+	 *            The board game.
+	 * @param playerPawn
+	 *            The pawn of the player to play.
+	 * @return The evaluation, from the point of view of the player to play.
+	 */
+	public int evaluate(BoardGame boardGame, Cell playerPawn);
+
+	/**
+	 * Get the number of units of the evaluations worth a disc, so that they can be compared to disc differentials.
+	 * 
+	 * @return The number of units.
+	 */
+	public int getNbUnitsByDisc();
+}
\ No newline at end of file
@@ -0,0 +1,192 @@
+package fr.polytech.reversi.model.players.evaluation;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.boardgame.Patterns;
+
+/**
+ * This class represents the pattern evaluation: the sum of the weights of the configurations of all the pattern instances, looked up by their ternary codes in the tables of the game phase.
+ *
+ * The weights are read from a file made of a header (magic number, version, number of phases) followed by the weights (16 bits signed integers) by phase, pattern kind and configuration. They give the
+ * expected final disc differential of black, in hundredths of disc.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class PatternEvaluator implements IEvaluator
+{
+	/**
+	 * The magic number of the weights files ("RVPW").
+	 */
+	public static final int MAGIC = 0x52565057;
+
+	/**
+	 * The version of the weights files.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The size of the header in bytes.
+	 */
+	private static final int HEADER_SIZE = 12;
+
+	/**
+	 * The number of plies of a game.
+	 */
+	private static final int NB_PLIES = BitBoard.NB_CELLS - 4;
+
+	/**
+	 * The number of units of the weights worth a disc (they are given in hundredths of disc).
+	 */
+	private static final int NB_UNITS_BY_DISC = 100;
+
+	/**
+	 * The weights, by phase, pattern kind and configuration.
+	 */
+	private final short[][][] weights;
+
+	/**
+	 * Load a pattern evaluator.
+	 * 
+	 * @param path
+	 *            The path of the weights file.
+	 * @throws IOException
+	 *             If the file can not be read or is not a valid weights file.
+	 */
+	public PatternEvaluator(Path path) throws IOException
+	{
+		final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+		if (buffer.remaining() < HEADER_SIZE)
+		{
+			throw new IOException(String.format("Invalid pattern weights size (%d bytes)", buffer.remaining()));
+		}
+
+		if ((buffer.getInt() != MAGIC) || (buffer.getInt() != VERSION))
+		{
+			throw new IOException(String.format("Invalid pattern weights header (%s)", path));
+		}
+
+		final int nbPhases = buffer.getInt();
+		if ((nbPhases <= 0) || (buffer.remaining() != (long) nbPhases * getNbWeightsByPhase() * Short.BYTES))
+		{
+			throw new IOException(String.format("Truncated pattern weights (%s)", path));
+		}
+
+		final ShortBuffer weightsBuffer = buffer.asShortBuffer();
+		this.weights = new short[nbPhases][Patterns.NB_KINDS][];
+		for (int phase = 0; phase < nbPhases; phase++)
+		{
+			for (int kind = 0; kind < Patterns.NB_KINDS; kind++)
+			{
+				this.weights[phase][kind] = new short[Patterns.getNbConfigurations(kind)];
+				weightsBuffer.get(this.weights[phase][kind]);
+			}
+		}
+	}
+
+	/**
+	 * @see fr.polytech.reversi.model.players.evaluation.IEvaluator#evaluate(fr.polytech.reversi.model.boardgame.BoardGame, fr.polytech.reversi.model.boardgame.Cell)
+	 */
+	@Override
+	public int evaluate(BoardGame boardGame, Cell playerPawn)
+	{
+		final short[][] phaseWeights = this.weights[getPhase(boardGame.getNbCellsRemaining(), this.weights.length)];
+		int evaluation = 0;
+
+		for (int instance = 0; instance < Patterns.NB_INSTANCES; instance++)
+		{
+			evaluation += phaseWeights[Patterns.getKind(instance)][boardGame.getPatternCode(instance)];
+		}
+
+		return (playerPawn == Cell.BLACK_PAWN ? evaluation : -evaluation);
+	}
+
+	/**
+	 * @see fr.polytech.reversi.model.players.evaluation.IEvaluator#getNbUnitsByDisc()
+	 */
+	@Override
+	public int getNbUnitsByDisc()
+	{
+		return NB_UNITS_BY_DISC;
+	}
+
+	/**
+	 * Get the game phase of a position.
+	 * 
+	 * @param nbCellsRemaining
+	 *            The number of empty cells.
+	 * @param nbPhases
+	 *            The number of phases.
+	 * @return The phase.
+	 */
+	public static int getPhase(int nbCellsRemaining, int nbPhases)
+	{
+		return Math.min(nbPhases - 1, (NB_PLIES - nbCellsRemaining) * nbPhases / NB_PLIES);
+	}
+
+	/**
+	 * Get the number of weights of a phase.
+	 * 
+	 * @return The number of weights.
+	 */
+	private static int getNbWeightsByPhase()
+	{
+		int nbWeights = 0;
+		for (int kind = 0; kind < Patterns.NB_KINDS; kind++)
+		{
+			nbWeights += Patterns.getNbConfigurations(kind);
+		}
+
+		return nbWeights;
+	}
+
+	/**
+	 * Write a weights file.
+	 * 
+	 * @param path
+	 *            The path of the weights file.
+	 * @param weights
+	 *            The weights, by phase, pattern kind and configuration.
+	 * @throws IOException
+	 *             If the file can not be written.
+	 */
+	public static void write(Path path, short[][][] weights) throws IOException
+	{
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path))))
+		{
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(weights.length);
+
+			for (short[][] phaseWeights : weights)
+			{
+				for (short[] kindWeights : phaseWeights)
+				{
+					for (short weight : kindWeights)
+					{
+						output.writeShort(weight);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the number of phases.
+	 * 
+	 * @return The number of phases.
+	 */
+	public int getNbPhases()
+	{
+		return this.weights.length;
+	}
+}
\ No newline at end of file
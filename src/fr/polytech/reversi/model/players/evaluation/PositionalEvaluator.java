@@ -0,0 +1,37 @@
+package fr.polytech.reversi.model.players.evaluation;
+
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+
+/**
+ * This class represents the positional evaluation: the difference of the points of the cells held by each player, according to the evaluation board of the board game.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class PositionalEvaluator implements IEvaluator
+{
+	/**
+	 * The number of points worth a disc: the points of an ordinary cell of the evaluation board.
+	 */
+	private static final int NB_POINTS_BY_DISC = 5;
+
+	/**
+	 * @see fr.polytech.reversi.model.players.evaluation.IEvaluator#evaluate(fr.polytech.reversi.model.boardgame.BoardGame, fr.polytech.reversi.model.boardgame.Cell)
+	 */
+	@Override
+	public int evaluate(BoardGame boardGame, Cell playerPawn)
+	{
+		final Cell opponentPawn = (playerPawn == Cell.BLACK_PAWN ? Cell.WHITE_PAWN : Cell.BLACK_PAWN);
+		return boardGame.getNbPointsByPawn(playerPawn) - boardGame.getNbPointsByPawn(opponentPawn);
+	}
+
+	/**
+	 * @see fr.polytech.reversi.model.players.evaluation.IEvaluator#getNbUnitsByDisc()
+	 */
+	@Override
+	public int getNbUnitsByDisc()
+	{
+		return NB_POINTS_BY_DISC;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package fr.polytech.reversi.model.players.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * This class represents the flight recorder event of the search of a move by a computer player, from the start of its clock to its choice.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+@Name("fr.polytech.reversi.Search")
+@Label("Engine Search")
+@Category("Reversi")
+@Description("The search of a move by a computer player")
+public class SearchEvent extends Event
+{
+	/**
+	 * The pawn of the computer player.
+	 */
+	@Label("Player")
+	public String player;
+
+	/**
+	 * The number of empty cells.
+	 */
+	@Label("Empty Cells")
+	public int nbEmptyCells;
+
+	/**
+	 * The chosen move, in the usual notation.
+	 */
+	@Label("Move")
+	public String move;
+
+	/**
+	 * The depth of the last completed iteration (the number of empty cells once the endgame is solved).
+	 */
+	@Label("Depth")
+	public int depth;
+
+	/**
+	 * The number of nodes searched by all the searchers.
+	 */
+	@Label("Nodes")
+	public long nbNodes;
+
+	/**
+	 * The score of the chosen move, from the point of view of the computer player.
+	 */
+	@Label("Score")
+	public int score;
+
+	/**
+	 * The time budget of the move.
+	 */
+	@Label("Time Budget")
+	@Timespan(Timespan.MILLISECONDS)
+	public long timeBudget;
+
+	/**
+	 * The reason why the search has ended before its last iteration.
+	 */
+	@Label("Abort Reason")
+	public String abortReason;
+
+	/**
+	 * True if the move has been found in the opening book.
+	 */
+	@Label("Book Move")
+	public boolean bookMove;
+
+	/**
+	 * True if the search has run on the opponent's time, the opponent not having played yet.
+	 */
+	@Label("Pondering")
+	public boolean pondering;
+}
\ No newline at end of file
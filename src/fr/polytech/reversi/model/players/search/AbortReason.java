@@ -0,0 +1,30 @@
+package fr.polytech.reversi.model.players.search;
+
+/**
+ * This enumeration represents the reason why a search has ended before its last iteration (None, Stopped, Time, Nodes).
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public enum AbortReason
+{
+	/**
+	 * The search has not been aborted.
+	 */
+	NONE,
+
+	/**
+	 * The search has been asked to stop.
+	 */
+	STOPPED,
+
+	/**
+	 * The time budget of the move has been spent.
+	 */
+	TIME,
+
+	/**
+	 * The nodes budget of the move has been spent.
+	 */
+	NODES;
+}
\ No newline at end of file
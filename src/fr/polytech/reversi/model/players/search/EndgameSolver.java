@@ -0,0 +1,701 @@
+package fr.polytech.reversi.model.players.search;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.boardgame.Zobrist;
+
+/**
+ * This class represents the endgame solver of a computer player: it searches the game to its end and computes the exact final disc differential, or only the win/loss/draw result.
+ *
+ * The solver works on the bitboards only (no board game updates). The moves are tried fastest first (the ones leaving the fewest moves to the opponent) far from the end, then by parity (the empty cells
+ * of the quadrants with an odd number of empty cells first). The last empty cells are solved by dedicated routines which skip the move generation.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class EndgameSolver
+{
+	/**
+	 * The win score of a win/loss/draw solve.
+	 */
+	public static final int WIN = 1;
+
+	/**
+	 * The draw score of a win/loss/draw solve.
+	 */
+	public static final int DRAW = 0;
+
+	/**
+	 * The loss score of a win/loss/draw solve.
+	 */
+	public static final int LOSS = -1;
+
+	/**
+	 * The infinite score (greater than any disc differential).
+	 */
+	private static final int INFINITY = BitBoard.NB_CELLS + 1;
+
+	/**
+	 * The mask of the number of nodes between two checks of the time budget.
+	 */
+	private static final long NODES_POLLING_MASK = 0x3FFF; // 16384 nodes
+
+	/**
+	 * The max number of empty cells solved by the dedicated routines.
+	 */
+	private static final int SHALLOW_MAX_EMPTIES = 4;
+
+	/**
+	 * The min number of empty cells to order the moves fastest first (below, they are only ordered by parity).
+	 */
+	private static final int FASTEST_FIRST_MIN_EMPTIES = 7;
+
+	/**
+	 * The min number of empty cells to use the transposition table.
+	 */
+	private static final int TRANSPOSITION_MIN_EMPTIES = 10;
+
+	/**
+	 * The mask of the corners.
+	 */
+	private static final long CORNERS = 0x8100000000000081L;
+
+	/**
+	 * The masks of the quadrants (parity regions).
+	 */
+	private static final long[] QUADRANTS = { 0x000000000F0F0F0FL, 0x00000000F0F0F0F0L, 0x0F0F0F0F00000000L, 0xF0F0F0F000000000L };
+
+	/**
+	 * The score of the transposition table move.
+	 */
+	private static final int TRANSPOSITION_MOVE_SCORE = 1 << 30;
+
+	/**
+	 * The score of a move in a quadrant with an odd number of empty cells.
+	 */
+	private static final int ODD_PARITY_SCORE = 1 << 8;
+
+	/**
+	 * The score of a corner move.
+	 */
+	private static final int CORNER_SCORE = 1 << 7;
+
+	/**
+	 * The shift of the mobility score, so that it prevails over the parity and corner scores.
+	 */
+	private static final int MOBILITY_SHIFT = 10;
+
+	/**
+	 * The time manager.
+	 */
+	private final TimeManager timeManager;
+
+	/**
+	 * The transposition table (the solver does not share the one of the searchers, their scores being evaluations).
+	 */
+	private final TranspositionTable transpositionTable;
+
+	/**
+	 * The ordered moves, by number of empty cells.
+	 */
+	private final int[][] moves;
+
+	/**
+	 * The scores of the ordered moves, by number of empty cells.
+	 */
+	private final int[][] scores;
+
+	/**
+	 * True if the solver has been asked to stop.
+	 */
+	private volatile boolean stopped;
+
+	/**
+	 * True if the solve of the current position has been aborted.
+	 */
+	private boolean aborted;
+
+	/**
+	 * The number of nodes searched for the current position.
+	 */
+	private long nbNodes;
+
+	/**
+	 * The number of empty cells of the last solved position.
+	 */
+	private int nbEmptyCells;
+
+	/**
+	 * True if the last position has been solved exactly (False for a win/loss/draw solve).
+	 */
+	private boolean exact;
+
+	/**
+	 * The score of the last solved position.
+	 */
+	private int score;
+
+	/**
+	 * The solve time of the last solved position (in milliseconds).
+	 */
+	private long solveTime;
+
+	/**
+	 * Create an endgame solver.
+	 * 
+	 * @param timeManager
+	 *            The time manager.
+	 * @param transpositionTableSize
+	 *            The transposition table size (in MB).
+	 */
+	public EndgameSolver(TimeManager timeManager, int transpositionTableSize)
+	{
+		this.timeManager = timeManager;
+		this.transpositionTable = new TranspositionTable(transpositionTableSize);
+		this.moves = new int[BitBoard.NB_CELLS + 1][BitBoard.NB_CELLS];
+		this.scores = new int[BitBoard.NB_CELLS + 1][BitBoard.NB_CELLS];
+	}
+
+	/**
+	 * Prepare the solver for a new move. It must be called before {@link #solve(BoardGame, Cell, boolean)} and before the solver may be stopped.
+	 */
+	public void prepare()
+	{
+		this.stopped = false;
+		this.aborted = false;
+		this.nbNodes = 0;
+	}
+
+	/**
+	 * Ask the solver to stop as soon as possible.
+	 */
+	public void stop()
+	{
+		this.stopped = true;
+	}
+
+	/**
+	 * Solve a position.
+	 * 
+	 * @param boardGame
+	 *            The board game.
+	 * @param playerPawn
+	 *            The pawn of the player to play (who must have a legal move).
+	 * @param exact
+	 *            True to compute the exact disc differential, False to only compute the win/loss/draw result.
+	 * @return The best move square, or {@link TranspositionTable#NO_MOVE} if the solve has been aborted.
+	 */
+	public int solve(BoardGame boardGame, Cell playerPawn, boolean exact)
+	{
+		final long startTime = System.currentTimeMillis();
+		final long playerPawns = boardGame.getPawns(playerPawn);
+		final long opponentPawns = boardGame.getPawns(playerPawn == Cell.BLACK_PAWN ? Cell.WHITE_PAWN : Cell.BLACK_PAWN);
+		final int empties = boardGame.getNbCellsRemaining();
+		final int beta = (exact ? INFINITY : WIN);
+		int alpha = (exact ? -INFINITY : LOSS);
+		int bestScore = -INFINITY;
+		int bestSquare = TranspositionTable.NO_MOVE;
+		int score;
+		int square;
+		long flips;
+		long move;
+
+		this.transpositionTable.newSearch();
+		final long entry = this.transpositionTable.probe(Zobrist.getHash(playerPawns, opponentPawns));
+		final int nbMoves = orderMoves(playerPawns, opponentPawns, BitBoard.getLegalMoves(playerPawns, opponentPawns), getTranspositionMove(entry), empties);
+
+		for (int index = 0; index < nbMoves; index++)
+		{
+			square = this.moves[empties][index];
+			move = 1L << square;
+			flips = BitBoard.getFlips(square, playerPawns, opponentPawns);
+
+			if (index == 0)
+			{
+				score = -solve(opponentPawns & ~flips, playerPawns | flips | move, -beta, -alpha, false, empties - 1);
+			}
+			else
+			{
+				score = -solve(opponentPawns & ~flips, playerPawns | flips | move, -alpha - 1, -alpha, false, empties - 1);
+				if ((score > alpha) && (score < beta))
+				{
+					score = -solve(opponentPawns & ~flips, playerPawns | flips | move, -beta, -alpha, false, empties - 1);
+				}
+			}
+
+			if (this.aborted)
+			{
+				return TranspositionTable.NO_MOVE;
+			}
+
+			if (score > bestScore)
+			{
+				bestScore = score;
+				bestSquare = square;
+				alpha = Math.max(alpha, score);
+			}
+
+			if (alpha >= beta)
+			{
+				break;
+			}
+		}
+
+		this.nbEmptyCells = empties;
+		this.exact = exact;
+		this.score = (exact ? bestScore : Integer.signum(bestScore));
+		this.solveTime = System.currentTimeMillis() - startTime;
+
+		return bestSquare;
+	}
+
+	/**
+	 * Solve a position (fail-soft negamax with null-window re-searches).
+	 * 
+	 * @param playerPawns
+	 *            The pawns of the player to play.
+	 * @param opponentPawns
+	 *            The pawns of the opponent.
+	 * @param alpha
+	 *            The alpha value.
+	 * @param beta
+	 *            The beta value.
+	 * @param passed
+	 *            True if the opponent has just passed.
+	 * @param empties
+	 *            The number of empty cells.
+	 * @return The final disc differential, from the point of view of the player to play.
+	 */
+	private int solve(long playerPawns, long opponentPawns, int alpha, int beta, boolean passed, int empties)
+	{
+		if (empties == 0)
+		{
+			this.nbNodes++;
+			return Long.bitCount(playerPawns) - Long.bitCount(opponentPawns);
+		}
+
+		if (empties <= SHALLOW_MAX_EMPTIES)
+		{
+			return solveShallow(playerPawns, opponentPawns, alpha, beta, passed, empties);
+		}
+
+		if (isSolveAborted())
+		{
+			return 0;
+		}
+
+		final long legalMoves = BitBoard.getLegalMoves(playerPawns, opponentPawns);
+		if (legalMoves == 0)
+		{
+			if (passed)
+			{
+				return getFinalScore(playerPawns, opponentPawns, empties);
+			}
+
+			return -solve(opponentPawns, playerPawns, -beta, -alpha, true, empties);
+		}
+
+		final boolean useTransposition = empties >= TRANSPOSITION_MIN_EMPTIES;
+		final long key = (useTransposition ? Zobrist.getHash(playerPawns, opponentPawns) : 0L);
+		final long entry = (useTransposition ? this.transpositionTable.probe(key) : TranspositionTable.NO_ENTRY);
+		if (entry != TranspositionTable.NO_ENTRY)
+		{
+			final int entryScore = TranspositionTable.getScore(entry);
+			switch (TranspositionTable.getBound(entry))
+			{
+				case TranspositionTable.EXACT:
+					return entryScore;
+				case TranspositionTable.LOWER_BOUND:
+					alpha = Math.max(alpha, entryScore);
+					break;
+				default:
+					beta = Math.min(beta, entryScore);
+					break;
+			}
+
+			if (alpha >= beta)
+			{
+				return entryScore;
+			}
+		}
+
+		final int originalAlpha = alpha;
+		final int nbMoves = orderMoves(playerPawns, opponentPawns, legalMoves, getTranspositionMove(entry), empties);
+		int bestScore = -INFINITY;
+		int bestSquare = TranspositionTable.NO_MOVE;
+		int score;
+		int square;
+		long flips;
+		long move;
+
+		for (int index = 0; index < nbMoves; index++)
+		{
+			square = this.moves[empties][index];
+			move = 1L << square;
+			flips = BitBoard.getFlips(square, playerPawns, opponentPawns);
+
+			if (index == 0)
+			{
+				score = -solve(opponentPawns & ~flips, playerPawns | flips | move, -beta, -alpha, false, empties - 1);
+			}
+			else
+			{
+				score = -solve(opponentPawns & ~flips, playerPawns | flips | move, -alpha - 1, -alpha, false, empties - 1);
+				if ((score > alpha) && (score < beta))
+				{
+					score = -solve(opponentPawns & ~flips, playerPawns | flips | move, -beta, -alpha, false, empties - 1);
+				}
+			}
+
+			if (score > bestScore)
+			{
+				bestScore = score;
+				bestSquare = square;
+				alpha = Math.max(alpha, score);
+			}
+
+			if (alpha >= beta)
+			{
+				break;
+			}
+		}
+
+		if (useTransposition && !this.aborted)
+		{
+			final int bound = (bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND : (bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT));
+			this.transpositionTable.store(key, empties, bound, bestScore, bestSquare);
+		}
+
+		return bestScore;
+	}
+
+	/**
+	 * Solve a position with a few empty cells (at most {@link #SHALLOW_MAX_EMPTIES}): the empty cells are directly tried, those of the odd quadrants first.
+	 * 
+	 * @param playerPawns
+	 *            The pawns of the player to play.
+	 * @param opponentPawns
+	 *            The pawns of the opponent.
+	 * @param alpha
+	 *            The alpha value.
+	 * @param beta
+	 *            The beta value.
+	 * @param passed
+	 *            True if the opponent has just passed.
+	 * @param empties
+	 *            The number of empty cells.
+	 * @return The final disc differential, from the point of view of the player to play.
+	 */
+	private int solveShallow(long playerPawns, long opponentPawns, int alpha, int beta, boolean passed, int empties)
+	{
+		final long emptyCells = ~(playerPawns | opponentPawns);
+		if (empties == 1)
+		{
+			return solveLastEmpty(playerPawns, opponentPawns, Long.numberOfTrailingZeros(emptyCells));
+		}
+
+		this.nbNodes++;
+
+		final long oddEmptyCells = emptyCells & getOddQuadrants(emptyCells);
+		int bestScore = -INFINITY;
+		int score;
+		int square;
+		long remainingCells;
+		long flips;
+
+		for (int parity = 0; parity < 2; parity++)
+		{
+			remainingCells = (parity == 0 ? oddEmptyCells : emptyCells & ~oddEmptyCells);
+			while (remainingCells != 0)
+			{
+				square = Long.numberOfTrailingZeros(remainingCells);
+				remainingCells &= remainingCells - 1;
+
+				flips = BitBoard.getFlips(square, playerPawns, opponentPawns);
+				if (flips == 0)
+				{
+					continue;
+				}
+
+				score = -solveShallow(opponentPawns & ~flips, playerPawns | flips | (1L << square), -beta, -alpha, false, empties - 1);
+				if (score > bestScore)
+				{
+					bestScore = score;
+					if (score > alpha)
+					{
+						alpha = score;
+						if (alpha >= beta)
+						{
+							return bestScore;
+						}
+					}
+				}
+			}
+		}
+
+		if (bestScore == -INFINITY)
+		{
+			if (passed)
+			{
+				return getFinalScore(playerPawns, opponentPawns, empties);
+			}
+
+			return -solveShallow(opponentPawns, playerPawns, -beta, -alpha, true, empties);
+		}
+
+		return bestScore;
+	}
+
+	/**
+	 * Solve a position with a single empty cell.
+	 * 
+	 * @param playerPawns
+	 *            The pawns of the player to play.
+	 * @param opponentPawns
+	 *            The pawns of the opponent.
+	 * @param square
+	 *            The square of the empty cell.
+	 * @return The final disc differential, from the point of view of the player to play.
+	 */
+	private int solveLastEmpty(long playerPawns, long opponentPawns, int square)
+	{
+		this.nbNodes++;
+
+		long flips = BitBoard.getFlips(square, playerPawns, opponentPawns);
+		if (flips != 0)
+		{
+			return 2 * (Long.bitCount(playerPawns | flips) + 1) - BitBoard.NB_CELLS;
+		}
+
+		flips = BitBoard.getFlips(square, opponentPawns, playerPawns);
+		if (flips != 0)
+		{
+			return BitBoard.NB_CELLS - 2 * (Long.bitCount(opponentPawns | flips) + 1);
+		}
+
+		return getFinalScore(playerPawns, opponentPawns, 1);
+	}
+
+	/**
+	 * Order the legal moves of a node. Far from the end, the moves are sorted by opponent mobility, then by parity and corners.
+	 * 
+	 * @param playerPawns
+	 *            The pawns of the player to play.
+	 * @param opponentPawns
+	 *            The pawns of the opponent.
+	 * @param legalMoves
+	 *            The legal moves bitboard.
+	 * @param transpositionMove
+	 *            The transposition table move, or {@link TranspositionTable#NO_MOVE}.
+	 * @param empties
+	 *            The number of empty cells.
+	 * @return The number of moves.
+	 */
+	private int orderMoves(long playerPawns, long opponentPawns, long legalMoves, int transpositionMove, int empties)
+	{
+		final int[] nodeMoves = this.moves[empties];
+		final int[] nodeScores = this.scores[empties];
+		final long oddQuadrants = getOddQuadrants(~(playerPawns | opponentPawns));
+		final boolean fastestFirst = empties >= FASTEST_FIRST_MIN_EMPTIES;
+
+		long remainingMoves = legalMoves;
+		int nbMoves = 0;
+		int square;
+		int score;
+		long move;
+		long flips;
+		long opponentMoves;
+
+		while (remainingMoves != 0)
+		{
+			square = Long.numberOfTrailingZeros(remainingMoves);
+			remainingMoves &= remainingMoves - 1;
+			move = 1L << square;
+
+			if (square == transpositionMove)
+			{
+				score = TRANSPOSITION_MOVE_SCORE;
+			}
+			else
+			{
+				score = ((move & oddQuadrants) != 0 ? ODD_PARITY_SCORE : 0) + ((move & CORNERS) != 0 ? CORNER_SCORE : 0);
+				if (fastestFirst)
+				{
+					flips = BitBoard.getFlips(square, playerPawns, opponentPawns);
+					opponentMoves = BitBoard.getLegalMoves(opponentPawns & ~flips, playerPawns | flips | move);
+					score += (BitBoard.NB_CELLS - Long.bitCount(opponentMoves) - Long.bitCount(opponentMoves & CORNERS)) << MOBILITY_SHIFT;
+				}
+			}
+
+			int index = nbMoves;
+			while ((index > 0) && (nodeScores[index - 1] < score))
+			{
+				nodeMoves[index] = nodeMoves[index - 1];
+				nodeScores[index] = nodeScores[index - 1];
+				index--;
+			}
+
+			nodeMoves[index] = square;
+			nodeScores[index] = score;
+			nbMoves++;
+		}
+
+		return nbMoves;
+	}
+
+	/**
+	 * Get the quadrants holding an odd number of empty cells.
+	 * 
+	 * @param emptyCells
+	 *            The empty cells.
+	 * @return The mask of the odd quadrants.
+	 */
+	private static long getOddQuadrants(long emptyCells)
+	{
+		long oddQuadrants = 0L;
+		for (long quadrant : QUADRANTS)
+		{
+			if ((Long.bitCount(emptyCells & quadrant) & 1) != 0)
+			{
+				oddQuadrants |= quadrant;
+			}
+		}
+
+		return oddQuadrants;
+	}
+
+	/**
+	 * Get the final score of a position where no player can play: the empty cells go to the winner. It is the scale of the exact solves (see {@link ScoreType#EXACT}).
+	 * 
+	 * @param playerPawns
+	 *            The pawns of the player to play.
+	 * @param opponentPawns
+	 *            The pawns of the opponent.
+	 * @param empties
+	 *            The number of empty cells.
+	 * @return The final disc differential, from the point of view of the player to play.
+	 */
+	public static int getFinalScore(long playerPawns, long opponentPawns, int empties)
+	{
+		final int differential = Long.bitCount(playerPawns) - Long.bitCount(opponentPawns);
+		return (differential > 0 ? differential + empties : (differential < 0 ? differential - empties : 0));
+	}
+
+	/**
+	 * Get the move of a transposition table entry.
+	 * 
+	 * @param entry
+	 *            The transposition table entry.
+	 * @return The move square, or {@link TranspositionTable#NO_MOVE}.
+	 */
+	private static int getTranspositionMove(long entry)
+	{
+		return (entry == TranspositionTable.NO_ENTRY ? TranspositionTable.NO_MOVE : TranspositionTable.getMove(entry));
+	}
+
+	/**
+	 * Count a node and check if the solve has to be aborted. The stop request and the time budget are only checked every 16384 nodes.
+	 * 
+	 * @return True or False.
+	 */
+	private boolean isSolveAborted()
+	{
+		if (!this.aborted && ((++this.nbNodes & NODES_POLLING_MASK) == 0))
+		{
+			this.aborted = this.stopped || this.timeManager.isTimeUp();
+		}
+
+		return this.aborted;
+	}
+
+	/**
+	 * Check if the solve of the current position has been aborted.
+	 * 
+	 * @return True or False.
+	 */
+	public boolean isAborted()
+	{
+		return this.aborted;
+	}
+
+	/**
+	 * Get the reason why the solve of the current position has been aborted.
+	 * 
+	 * @return The abort reason ({@link AbortReason#NONE} if the solve has been completed).
+	 */
+	public AbortReason getAbortReason()
+	{
+		return (this.aborted ? (this.stopped ? AbortReason.STOPPED : AbortReason.TIME) : AbortReason.NONE);
+	}
+
+	/**
+	 * Get the number of nodes searched for the current position.
+	 * 
+	 * @return The number of nodes.
+	 */
+	public long getNbNodes()
+	{
+		return this.nbNodes;
+	}
+
+	/**
+	 * Get the number of empty cells of the last solved position.
+	 * 
+	 * @return The number of empty cells.
+	 */
+	public int getNbEmptyCells()
+	{
+		return this.nbEmptyCells;
+	}
+
+	/**
+	 * Check if the last position has been solved exactly.
+	 * 
+	 * @return True for an exact solve, False for a win/loss/draw solve.
+	 */
+	public boolean isExact()
+	{
+		return this.exact;
+	}
+
+	/**
+	 * Get the score of the last solved position.
+	 * 
+	 * @return The final disc differential for an exact solve, else {@link #WIN}, {@link #DRAW} or {@link #LOSS}, from the point of view of the player to play.
+	 */
+	public int getScore()
+	{
+		return this.score;
+	}
+
+	/**
+	 * Get the solve time of the last solved position.
+	 * 
+	 * @return The solve time in milliseconds.
+	 */
+	public long getSolveTime()
+	{
+		return this.solveTime;
+	}
+
+	/**
+	 * Get the transposition table.
+	 * 
+	 * @return The transposition table.
+	 */
+	public TranspositionTable getTranspositionTable()
+	{
+		return this.transpositionTable;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return String.format("EndgameSolver [empties=%d, %s=%+d, nodes=%d, time=%d ms, knodes/s=%d]", this.nbEmptyCells, (this.exact ? "score" : "wld"), this.score, this.nbNodes, this.solveTime,
+				this.nbNodes / Math.max(1, this.solveTime));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,317 @@
+package fr.polytech.reversi.model.players.search;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+
+/**
+ * This class represents the move ordering of the search.
+ *
+ * The moves of a node are tried in this order: the transposition table move, the killer moves of the ply, then the other moves sorted by opponent mobility (near the root) and history heuristic.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class MoveOrdering
+{
+	/**
+	 * The max number of plies.
+	 */
+	public static final int MAX_PLY = 64;
+
+	/**
+	 * The number of killer moves by ply.
+	 */
+	private static final int NB_KILLERS = 2;
+
+	/**
+	 * The score of the transposition table move.
+	 */
+	private static final int TRANSPOSITION_MOVE_SCORE = 1 << 30;
+
+	/**
+	 * The score of the first killer move (the second one gets the half).
+	 */
+	private static final int KILLER_MOVE_SCORE = 1 << 29;
+
+	/**
+	 * The min remaining depth to estimate the opponent mobility after each move.
+	 */
+	private static final int MOBILITY_MIN_DEPTH = 3;
+
+	/**
+	 * The shift of the mobility score, so that it prevails over the history score.
+	 */
+	private static final int MOBILITY_SHIFT = 20;
+
+	/**
+	 * The max history score, before all the history scores are halved.
+	 */
+	private static final int MAX_HISTORY_SCORE = (1 << MOBILITY_SHIFT) - 1;
+
+	/**
+	 * The ordered moves, by ply.
+	 */
+	private final int[][] moves;
+
+	/**
+	 * The scores of the ordered moves, by ply.
+	 */
+	private final int[][] scores;
+
+	/**
+	 * The killer moves, by ply.
+	 */
+	private final int[][] killers;
+
+	/**
+	 * The history scores, by player (black then white) and square.
+	 */
+	private final int[][] history;
+
+	/**
+	 * The number of nodes cut off.
+	 */
+	private long nbCutoffs;
+
+	/**
+	 * The number of nodes cut off by their first move.
+	 */
+	private long nbFirstMoveCutoffs;
+
+	/**
+	 * Create a move ordering.
+	 */
+	public MoveOrdering()
+	{
+		this.moves = new int[MAX_PLY][BitBoard.NB_CELLS];
+		this.scores = new int[MAX_PLY][BitBoard.NB_CELLS];
+		this.killers = new int[MAX_PLY][NB_KILLERS];
+		this.history = new int[2][BitBoard.NB_CELLS];
+		clearKillers();
+	}
+
+	/**
+	 * Start a new search: the killer moves are cleared and the history scores are aged.
+	 */
+	public void newSearch()
+	{
+		clearKillers();
+		ageHistory();
+	}
+
+	/**
+	 * Clear the killer moves.
+	 */
+	private void clearKillers()
+	{
+		for (int ply = 0; ply < MAX_PLY; ply++)
+		{
+			for (int index = 0; index < NB_KILLERS; index++)
+			{
+				this.killers[ply][index] = TranspositionTable.NO_MOVE;
+			}
+		}
+	}
+
+	/**
+	 * Age the history scores (halve them).
+	 */
+	private void ageHistory()
+	{
+		for (int player = 0; player < this.history.length; player++)
+		{
+			for (int square = 0; square < BitBoard.NB_CELLS; square++)
+			{
+				this.history[player][square] >>= 1;
+			}
+		}
+	}
+
+	/**
+	 * Order the legal moves of a node. The ordered moves are then available through {@link #getMove(int, int)}.
+	 * 
+	 * @param boardGame
+	 *            The board game.
+	 * @param playerPawn
+	 *            The player pawn.
+	 * @param legalMoves
+	 *            The legal moves bitboard.
+	 * @param transpositionMove
+	 *            The transposition table move, or {@link TranspositionTable#NO_MOVE}.
+	 * @param ply
+	 *            The ply.
+	 * @param depth
+	 *            The remaining depth.
+	 * @return The number of moves.
+	 */
+	public int orderMoves(BoardGame boardGame, Cell playerPawn, long legalMoves, int transpositionMove, int ply, int depth)
+	{
+		final int[] plyMoves = this.moves[ply];
+		final int[] plyScores = this.scores[ply];
+		final int[] plyKillers = this.killers[ply];
+		final int[] playerHistory = this.history[getPlayerIndex(playerPawn)];
+		final long playerPawns = boardGame.getPawns(playerPawn);
+		final long opponentPawns = boardGame.getPawns(playerPawn == Cell.BLACK_PAWN ? Cell.WHITE_PAWN : Cell.BLACK_PAWN);
+		final boolean useMobility = depth >= MOBILITY_MIN_DEPTH;
+
+		long remainingMoves = legalMoves;
+		int nbMoves = 0;
+		int square;
+		int score;
+		long flips;
+
+		while (remainingMoves != 0)
+		{
+			square = Long.numberOfTrailingZeros(remainingMoves);
+			remainingMoves &= remainingMoves - 1;
+
+			if (square == transpositionMove)
+			{
+				score = TRANSPOSITION_MOVE_SCORE;
+			}
+			else if (square == plyKillers[0])
+			{
+				score = KILLER_MOVE_SCORE;
+			}
+			else if (square == plyKillers[1])
+			{
+				score = KILLER_MOVE_SCORE >> 1;
+			}
+			else
+			{
+				score = playerHistory[square];
+				if (useMobility)
+				{
+					flips = BitBoard.getFlips(square, playerPawns, opponentPawns);
+					score += (BitBoard.NB_CELLS - Long.bitCount(BitBoard.getLegalMoves(opponentPawns & ~flips, playerPawns | flips | (1L << square)))) << MOBILITY_SHIFT;
+				}
+			}
+
+			insert(plyMoves, plyScores, nbMoves, square, score);
+			nbMoves++;
+		}
+
+		return nbMoves;
+	}
+
+	/**
+	 * Insert a move in the sorted moves (insertion sort, by decreasing score).
+	 * 
+	 * @param plyMoves
+	 *            The moves.
+	 * @param plyScores
+	 *            The scores.
+	 * @param nbMoves
+	 *            The number of moves already sorted.
+	 * @param square
+	 *            The move square.
+	 * @param score
+	 *            The move score.
+	 */
+	private static void insert(int[] plyMoves, int[] plyScores, int nbMoves, int square, int score)
+	{
+		int index = nbMoves;
+		while ((index > 0) && (plyScores[index - 1] < score))
+		{
+			plyMoves[index] = plyMoves[index - 1];
+			plyScores[index] = plyScores[index - 1];
+			index--;
+		}
+
+		plyMoves[index] = square;
+		plyScores[index] = score;
+	}
+
+	/**
+	 * Get an ordered move.
+	 * 
+	 * @param ply
+	 *            The ply.
+	 * @param index
+	 *            The index of the move.
+	 * @return The move square.
+	 */
+	public int getMove(int ply, int index)
+	{
+		return this.moves[ply][index];
+	}
+
+	/**
+	 * Notify that a move cut a node off: it becomes a killer move of the ply and its history score is increased.
+	 * 
+	 * @param playerPawn
+	 *            The player pawn.
+	 * @param square
+	 *            The move square.
+	 * @param ply
+	 *            The ply.
+	 * @param depth
+	 *            The remaining depth.
+	 * @param index
+	 *            The index of the move in the ordered moves.
+	 */
+	public void notifyCutoff(Cell playerPawn, int square, int ply, int depth, int index)
+	{
+		this.nbCutoffs++;
+		if (index == 0)
+		{
+			this.nbFirstMoveCutoffs++;
+		}
+
+		final int[] plyKillers = this.killers[ply];
+		if (plyKillers[0] != square)
+		{
+			plyKillers[1] = plyKillers[0];
+			plyKillers[0] = square;
+		}
+
+		final int[] playerHistory = this.history[getPlayerIndex(playerPawn)];
+		playerHistory[square] += depth * depth;
+		if (playerHistory[square] > MAX_HISTORY_SCORE)
+		{
+			ageHistory();
+		}
+	}
+
+	/**
+	 * Get the index of a player in the history scores.
+	 * 
+	 * @param playerPawn
+	 *            The player pawn.
+	 * @return The index.
+	 */
+	private static int getPlayerIndex(Cell playerPawn)
+	{
+		return (playerPawn == Cell.BLACK_PAWN ? 0 : 1);
+	}
+
+	/**
+	 * Get the number of nodes cut off.
+	 * 
+	 * @return The number of nodes cut off.
+	 */
+	public long getNbCutoffs()
+	{
+		return this.nbCutoffs;
+	}
+
+	/**
+	 * Get the first move cutoff rate.
+	 * 
+	 * @return The ratio of the nodes cut off by their first move (between 0 and 1).
+	 */
+	public double getFirstMoveCutoffRate()
+	{
+		return (this.nbCutoffs == 0 ? 0.0 : (double) this.nbFirstMoveCutoffs / this.nbCutoffs);
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return String.format("MoveOrdering [cutoffs=%d, firstMoveCutoffs=%.1f%%]", this.nbCutoffs, getFirstMoveCutoffRate() * 100);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package fr.polytech.reversi.model.players.search;
+
+/**
+ * This enumeration represents the kind of the score of a search (None, Evaluation, Exact, Win/Loss/Draw), which gives its unit.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public enum ScoreType
+{
+	/**
+	 * No search has given the score: the move has been found in the opening book, or it was the only legal move.
+	 */
+	NONE,
+
+	/**
+	 * The score is an evaluation, in the units of the evaluator (see {@link fr.polytech.reversi.model.players.evaluation.IEvaluator#getNbUnitsByDisc()}).
+	 */
+	EVALUATION,
+
+	/**
+	 * The score is the exact final disc differential, the empty cells going to the winner.
+	 */
+	EXACT,
+
+	/**
+	 * The score is the result of the game only: 1 for a win, 0 for a draw and -1 for a loss.
+	 */
+	WIN_LOSS_DRAW;
+}
\ No newline at end of file
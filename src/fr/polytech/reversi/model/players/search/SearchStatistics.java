@@ -0,0 +1,284 @@
+package fr.polytech.reversi.model.players.search;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+
+/**
+ * This class represents the statistics of a search: of an iteration, or of the whole search of a move. An instance is owned by the search and refilled each time it is notified, so that collecting
+ * the statistics does not allocate anything.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class SearchStatistics
+{
+	/**
+	 * The notation of a pass in the principal variation.
+	 */
+	private static final String PASS_NOTATION = "--";
+
+	/**
+	 * The smallest final disc differential of a won game: the empty cells go to the winner, so the differential is even.
+	 */
+	private static final int WIN_MARGIN = 2;
+
+	/**
+	 * The depth.
+	 */
+	private int depth;
+
+	/**
+	 * The score.
+	 */
+	private int score;
+
+	/**
+	 * The type of the score.
+	 */
+	private ScoreType scoreType;
+
+	/**
+	 * The number of units of the evaluations worth a disc.
+	 */
+	private int nbUnitsByDisc;
+
+	/**
+	 * The principal variation.
+	 */
+	private final int[] principalVariation;
+
+	/**
+	 * The length of the principal variation.
+	 */
+	private int principalVariationLength;
+
+	/**
+	 * The number of nodes.
+	 */
+	private long nbNodes;
+
+	/**
+	 * The number of transposition table probes which found an entry.
+	 */
+	private long nbTranspositionHits;
+
+	/**
+	 * The number of beta cutoffs.
+	 */
+	private long nbCutoffs;
+
+	/**
+	 * The elapsed time in milliseconds.
+	 */
+	private long elapsedTime;
+
+	/**
+	 * True if the search has run on the opponent's time, the opponent not having played yet.
+	 */
+	private boolean pondering;
+
+	/**
+	 * Create search statistics.
+	 */
+	public SearchStatistics()
+	{
+		this.principalVariation = new int[MoveOrdering.MAX_PLY + 1];
+		this.scoreType = ScoreType.NONE;
+		this.nbUnitsByDisc = 1;
+	}
+
+	/**
+	 * Update the statistics.
+	 * 
+	 * @param depth
+	 *            The depth (the number of empty cells once the endgame is solved, 0 for a book move).
+	 * @param score
+	 *            The score, from the point of view of the searching player.
+	 * @param scoreType
+	 *            The type of the score.
+	 * @param nbUnitsByDisc
+	 *            The number of units of the evaluations worth a disc (see {@link fr.polytech.reversi.model.players.evaluation.IEvaluator#getNbUnitsByDisc()}).
+	 * @param principalVariation
+	 *            The principal variation (moves squares or {@link Searcher#PASS}), copied.
+	 * @param principalVariationLength
+	 *            The length of the principal variation.
+	 * @param nbNodes
+	 *            The number of nodes.
+	 * @param nbTranspositionHits
+	 *            The number of transposition table probes which found an entry.
+	 * @param nbCutoffs
+	 *            The number of beta cutoffs.
+	 * @param elapsedTime
+	 *            The elapsed time in milliseconds.
+	 * @param pondering
+	 *            True if the search has run on the opponent's time, the opponent not having played yet.
+	 */
+	public void update(int depth, int score, ScoreType scoreType, int nbUnitsByDisc, int[] principalVariation, int principalVariationLength, long nbNodes, long nbTranspositionHits, long nbCutoffs,
+			long elapsedTime, boolean pondering)
+	{
+		this.depth = depth;
+		this.score = score;
+		this.scoreType = scoreType;
+		this.nbUnitsByDisc = nbUnitsByDisc;
+		this.principalVariationLength = Math.min(principalVariationLength, this.principalVariation.length);
+		System.arraycopy(principalVariation, 0, this.principalVariation, 0, this.principalVariationLength);
+		this.nbNodes = nbNodes;
+		this.nbTranspositionHits = nbTranspositionHits;
+		this.nbCutoffs = nbCutoffs;
+		this.elapsedTime = elapsedTime;
+		this.pondering = pondering;
+	}
+
+	/**
+	 * Get the depth.
+	 * 
+	 * @return The depth (the number of empty cells once the endgame is solved, 0 for a book move).
+	 */
+	public int getDepth()
+	{
+		return this.depth;
+	}
+
+	/**
+	 * Get the score.
+	 * 
+	 * @return The score, from the point of view of the searching player, in the unit of its type.
+	 */
+	public int getScore()
+	{
+		return this.score;
+	}
+
+	/**
+	 * Get the type of the score.
+	 * 
+	 * @return The type of the score.
+	 */
+	public ScoreType getScoreType()
+	{
+		return this.scoreType;
+	}
+
+	/**
+	 * Get the score in discs, so that the scores of all the types can be compared: an evaluation is converted with the scale of its evaluator (without the {@link Searcher#WIN_SCORE} of a game over
+	 * position), and a win/loss/draw result counts as the smallest margin of a win.
+	 * 
+	 * @return The score in discs, from the point of view of the searching player (0 if no search has given it).
+	 */
+	public double getDiscScore()
+	{
+		switch (this.scoreType)
+		{
+			case EVALUATION:
+				return (double) (Math.abs(this.score) >= Searcher.WIN_SCORE ? this.score - Integer.signum(this.score) * Searcher.WIN_SCORE : this.score) / this.nbUnitsByDisc;
+			case EXACT:
+				return this.score;
+			case WIN_LOSS_DRAW:
+				return this.score * WIN_MARGIN;
+			default:
+				return 0;
+		}
+	}
+
+	/**
+	 * Get the length of the principal variation.
+	 * 
+	 * @return The length.
+	 */
+	public int getPrincipalVariationLength()
+	{
+		return this.principalVariationLength;
+	}
+
+	/**
+	 * Get a move of the principal variation.
+	 * 
+	 * @param index
+	 *            The index of the move (0 for the best move).
+	 * @return The move square, or {@link Searcher#PASS}.
+	 */
+	public int getPrincipalVariationMove(int index)
+	{
+		if ((index < 0) || (index >= this.principalVariationLength))
+		{
+			throw new IndexOutOfBoundsException(String.format("Invalid principal variation index (%d)", index));
+		}
+
+		return this.principalVariation[index];
+	}
+
+	/**
+	 * Get the number of nodes.
+	 * 
+	 * @return The number of nodes.
+	 */
+	public long getNbNodes()
+	{
+		return this.nbNodes;
+	}
+
+	/**
+	 * Get the number of nodes by second.
+	 * 
+	 * @return The number of nodes by second.
+	 */
+	public long getNodesPerSecond()
+	{
+		return this.nbNodes * 1000 / Math.max(1, this.elapsedTime);
+	}
+
+	/**
+	 * Get the number of transposition table probes which found an entry.
+	 * 
+	 * @return The number of hits.
+	 */
+	public long getNbTranspositionHits()
+	{
+		return this.nbTranspositionHits;
+	}
+
+	/**
+	 * Get the number of beta cutoffs.
+	 * 
+	 * @return The number of cutoffs.
+	 */
+	public long getNbCutoffs()
+	{
+		return this.nbCutoffs;
+	}
+
+	/**
+	 * Get the elapsed time.
+	 * 
+	 * @return The elapsed time in milliseconds.
+	 */
+	public long getElapsedTime()
+	{
+		return this.elapsedTime;
+	}
+
+	/**
+	 * Check if the search has run on the opponent's time, the opponent not having played yet.
+	 * 
+	 * @return True or False.
+	 */
+	public boolean isPondering()
+	{
+		return this.pondering;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder principalVariation = new StringBuilder();
+		for (int index = 0; index < this.principalVariationLength; index++)
+		{
+			principalVariation.append(this.principalVariation[index] == Searcher.PASS ? PASS_NOTATION : BitBoard.getNotation(this.principalVariation[index]));
+		}
+
+		return String.format("SearchStatistics [depth=%d, score=%d (%s), pv=%s, nodes=%d, nps=%d, ttHits=%d, cutoffs=%d, time=%dms%s]", this.depth, this.score, this.scoreType, principalVariation, this.nbNodes,
+				getNodesPerSecond(), this.nbTranspositionHits, this.nbCutoffs, this.elapsedTime, (this.pondering ? ", pondering" : ""));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,679 @@
+package fr.polytech.reversi.model.players.search;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.boardgame.Position;
+import fr.polytech.reversi.model.players.IProgressListener;
+import fr.polytech.reversi.model.players.ISearchListener;
+import fr.polytech.reversi.model.players.evaluation.IEvaluator;
+import fr.polytech.reversi.model.players.evaluation.PositionalEvaluator;
+
+/**
+ * This class represents a principal variation searcher of a computer player (negamax with null-window re-searches and aspiration windows).
+ *
+ * A searcher owns its search state (move ordering, principal variation, counters), so that several searchers can run in parallel on their own board game copies while sharing the transposition table
+ * and the time manager.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class Searcher
+{
+	/**
+	 * The infinite score.
+	 */
+	public static final int INFINITY = 1000000;
+
+	/**
+	 * The score of a won position where the game is over, before its final disc differential (in evaluation units) is added: it is greater than any evaluation, so that a won game is always
+	 * preferred to an evaluated position and a lost game always avoided.
+	 */
+	public static final int WIN_SCORE = 100000;
+
+	/**
+	 * The pass move, as it appears in the principal variation.
+	 */
+	public static final int PASS = -1;
+
+	/**
+	 * The mask of the number of nodes between two checks of the time and nodes budgets.
+	 */
+	private static final long NODES_POLLING_MASK = 0x3FF; // 1024 nodes
+
+	/**
+	 * The initial half width of the aspiration window.
+	 */
+	private static final int ASPIRATION_WINDOW = 20;
+
+	/**
+	 * The own representation.
+	 */
+	private final Cell ownRepresentation;
+
+	/**
+	 * The opponent representation.
+	 */
+	private final Cell opponentRepresentation;
+
+	/**
+	 * The max number of nodes searched by move (0 if unlimited).
+	 */
+	private final long maxNodes;
+
+	/**
+	 * The time manager.
+	 */
+	private final TimeManager timeManager;
+
+	/**
+	 * The transposition table.
+	 */
+	private final TranspositionTable transpositionTable;
+
+	/**
+	 * The move ordering.
+	 */
+	private final MoveOrdering moveOrdering;
+
+	/**
+	 * The evaluator.
+	 */
+	private IEvaluator evaluator;
+
+	/**
+	 * The listener of the search progress (null if none).
+	 */
+	private volatile IProgressListener progressListener;
+
+	/**
+	 * The listener of the search statistics (null if none).
+	 */
+	private volatile ISearchListener searchListener;
+
+	/**
+	 * The statistics of the last completed iteration.
+	 */
+	private final SearchStatistics iterationStatistics;
+
+	/**
+	 * True if the searcher is a helper: it ignores the time and nodes budgets and only stops when it is asked to.
+	 */
+	private final boolean helper;
+
+	/**
+	 * The principal variations, by ply (triangular table).
+	 */
+	private final int[][] principalVariations;
+
+	/**
+	 * The lengths of the principal variations, by ply.
+	 */
+	private final int[] principalVariationLengths;
+
+	/**
+	 * The principal variation of the last completed iteration.
+	 */
+	private final int[] completedPrincipalVariation;
+
+	/**
+	 * The length of the principal variation of the last completed iteration.
+	 */
+	private int completedPrincipalVariationLength;
+
+	/**
+	 * True if the searcher has been asked to stop.
+	 */
+	private volatile boolean stopped;
+
+	/**
+	 * The depth of the current iteration.
+	 */
+	private int searchDepth;
+
+	/**
+	 * The number of nodes searched for the current move.
+	 */
+	private long nbNodes;
+
+	/**
+	 * The number of transposition table probes which found an entry for the current move.
+	 */
+	private long nbTranspositionHits;
+
+	/**
+	 * The number of beta cutoffs of the move ordering before the current move.
+	 */
+	private long previousNbCutoffs;
+
+	/**
+	 * True if the search of the current move has been aborted.
+	 */
+	private boolean aborted;
+
+	/**
+	 * The reason why the search of the current move has ended before its last iteration.
+	 */
+	private AbortReason abortReason;
+
+	/**
+	 * The depth of the last completed iteration.
+	 */
+	private int completedDepth;
+
+	/**
+	 * The score of the last completed iteration.
+	 */
+	private int completedScore;
+
+	/**
+	 * Create a searcher.
+	 * 
+	 * @param ownRepresentation
+	 *            The own representation.
+	 * @param maxNodes
+	 *            The max number of nodes searched by move (0 if unlimited).
+	 * @param timeManager
+	 *            The time manager.
+	 * @param transpositionTable
+	 *            The transposition table.
+	 * @param helper
+	 *            True if the searcher is a helper.
+	 */
+	public Searcher(Cell ownRepresentation, long maxNodes, TimeManager timeManager, TranspositionTable transpositionTable, boolean helper)
+	{
+		this.ownRepresentation = ownRepresentation;
+		this.opponentRepresentation = (ownRepresentation == Cell.BLACK_PAWN ? Cell.WHITE_PAWN : Cell.BLACK_PAWN);
+		this.maxNodes = (helper ? 0 : maxNodes);
+		this.timeManager = timeManager;
+		this.transpositionTable = transpositionTable;
+		this.moveOrdering = new MoveOrdering();
+		this.evaluator = new PositionalEvaluator();
+		this.helper = helper;
+		this.principalVariations = new int[MoveOrdering.MAX_PLY + 1][MoveOrdering.MAX_PLY + 1];
+		this.principalVariationLengths = new int[MoveOrdering.MAX_PLY + 1];
+		this.completedPrincipalVariation = new int[MoveOrdering.MAX_PLY + 1];
+		this.iterationStatistics = new SearchStatistics();
+	}
+
+	/**
+	 * Set the evaluator. It must not be called while a search is running.
+	 * 
+	 * @param evaluator
+	 *            The evaluator.
+	 */
+	public void setEvaluator(IEvaluator evaluator)
+	{
+		this.evaluator = evaluator;
+	}
+
+	/**
+	 * Get the evaluator.
+	 * 
+	 * @return The evaluator.
+	 */
+	public IEvaluator getEvaluator()
+	{
+		return this.evaluator;
+	}
+
+	/**
+	 * Set the listener of the search progress, notified at the end of each completed iteration. It may be called while a search is running.
+	 * 
+	 * @param progressListener
+	 *            The listener (null if none).
+	 */
+	public void setProgressListener(IProgressListener progressListener)
+	{
+		this.progressListener = progressListener;
+	}
+
+	/**
+	 * Set the listener of the search statistics, notified at the end of each completed iteration. It may be called while a search is running.
+	 * 
+	 * @param searchListener
+	 *            The listener (null if none).
+	 */
+	public void setSearchListener(ISearchListener searchListener)
+	{
+		this.searchListener = searchListener;
+	}
+
+	/**
+	 * Prepare the searcher for a new move. It must be called before {@link #search(BoardGame, int, int)} and before the searcher may be stopped.
+	 */
+	public void prepare()
+	{
+		this.stopped = false;
+		this.nbNodes = 0;
+		this.nbTranspositionHits = 0;
+		this.previousNbCutoffs = this.moveOrdering.getNbCutoffs();
+		this.aborted = false;
+		this.abortReason = AbortReason.NONE;
+		this.completedDepth = 0;
+		this.completedScore = 0;
+		this.completedPrincipalVariationLength = 0;
+		this.moveOrdering.newSearch();
+	}
+
+	/**
+	 * Ask the searcher to stop as soon as possible.
+	 */
+	public void stop()
+	{
+		this.stopped = true;
+	}
+
+	/**
+	 * Search the best move by iterative deepening. Each iteration but the first one starts with an aspiration window around the score of the previous one.
+	 * 
+	 * @param boardGame
+	 *            The board game (the own player is to play).
+	 * @param firstDepth
+	 *            The depth of the first iteration.
+	 * @param maxDepth
+	 *            The depth of the last iteration.
+	 * @return The best move square of the last completed iteration, or {@link TranspositionTable#NO_MOVE} if no iteration has been completed.
+	 */
+	public int search(BoardGame boardGame, int firstDepth, int maxDepth)
+	{
+		int bestSquare = TranspositionTable.NO_MOVE;
+		int score;
+		int alpha;
+		int beta;
+		int window;
+
+		for (this.searchDepth = firstDepth; this.searchDepth <= Math.min(maxDepth, MoveOrdering.MAX_PLY); this.searchDepth++)
+		{
+			window = ASPIRATION_WINDOW;
+			alpha = (this.completedDepth > 0 ? this.completedScore - window : -INFINITY);
+			beta = (this.completedDepth > 0 ? this.completedScore + window : INFINITY);
+
+			while (true)
+			{
+				score = principalVariationSearch(boardGame, this.ownRepresentation, this.opponentRepresentation, alpha, beta, 0);
+				if (this.aborted)
+				{
+					break;
+				}
+
+				if (score <= alpha)
+				{
+					alpha = Math.max(-INFINITY, alpha - window);
+				}
+				else if (score >= beta)
+				{
+					beta = Math.min(INFINITY, beta + window);
+				}
+				else
+				{
+					break;
+				}
+
+				window *= 2;
+			}
+
+			if (this.aborted)
+			{
+				break;
+			}
+
+			bestSquare = this.principalVariations[0][0];
+			this.completedDepth = this.searchDepth;
+			this.completedScore = score;
+			this.completedPrincipalVariationLength = this.principalVariationLengths[0];
+			System.arraycopy(this.principalVariations[0], 0, this.completedPrincipalVariation, 0, this.completedPrincipalVariationLength);
+
+			final IProgressListener listener = this.progressListener;
+			if ((listener != null) && (bestSquare != PASS))
+			{
+				listener.notifyProgress(this.completedDepth, new Position(BitBoard.getX(bestSquare), BitBoard.getY(bestSquare)), score);
+			}
+
+			final ISearchListener statisticsListener = this.searchListener;
+			if (statisticsListener != null)
+			{
+				this.iterationStatistics.update(this.completedDepth, score, ScoreType.EVALUATION, this.evaluator.getNbUnitsByDisc(), this.completedPrincipalVariation,
+						this.completedPrincipalVariationLength, this.nbNodes, this.nbTranspositionHits, getNbCutoffs(), this.timeManager.getElapsedTime(), this.timeManager.isPondering());
+				statisticsListener.notifyIteration(this.iterationStatistics);
+			}
+
+			if (!this.helper && !this.timeManager.canStartIteration())
+			{
+				if (this.searchDepth < Math.min(maxDepth, MoveOrdering.MAX_PLY))
+				{
+					this.abortReason = AbortReason.TIME;
+				}
+				break;
+			}
+		}
+
+		return bestSquare;
+	}
+
+	/**
+	 * Search a position (fail-soft negamax): the first move is searched with the full window, the other ones with a null window and are only re-searched if they beat alpha.
+	 * 
+	 * @param boardGame
+	 *            The board game.
+	 * @param playerPawn
+	 *            The pawn of the player to play.
+	 * @param opponentPawn
+	 *            The pawn of the opponent.
+	 * @param alpha
+	 *            The alpha value.
+	 * @param beta
+	 *            The beta value.
+	 * @param ply
+	 *            The ply.
+	 * @return The score, from the point of view of the player to play.
+	 */
+	private int principalVariationSearch(BoardGame boardGame, Cell playerPawn, Cell opponentPawn, int alpha, int beta, int ply)
+	{
+		this.principalVariationLengths[ply] = ply;
+
+		if ((ply >= this.searchDepth) || isSearchAborted())
+		{
+			return (boardGame.gameOver() ? getGameOverScore(boardGame, playerPawn, opponentPawn) : this.evaluator.evaluate(boardGame, playerPawn));
+		}
+
+		final long legalMoves = boardGame.getLegalMoves(playerPawn);
+		if (legalMoves == 0)
+		{
+			if (boardGame.getLegalMoves(opponentPawn) == 0)
+			{
+				return getGameOverScore(boardGame, playerPawn, opponentPawn);
+			}
+
+			final int score = -principalVariationSearch(boardGame, opponentPawn, playerPawn, -beta, -alpha, ply + 1);
+			updatePrincipalVariation(ply, PASS);
+			return score;
+		}
+
+		final long key = boardGame.getHash(playerPawn);
+		final long entry = this.transpositionTable.probe(key);
+		if (entry != TranspositionTable.NO_ENTRY)
+		{
+			this.nbTranspositionHits++;
+		}
+
+		if ((ply > 0) && (beta - alpha == 1) && isTranspositionCutoff(entry, alpha, beta, ply))
+		{
+			return TranspositionTable.getScore(entry);
+		}
+
+		final int originalAlpha = alpha;
+		final int nbMoves = this.moveOrdering.orderMoves(boardGame, playerPawn, legalMoves, getTranspositionMove(entry), ply, this.searchDepth - ply);
+		int bestScore = -INFINITY;
+		int bestSquare = TranspositionTable.NO_MOVE;
+		int score;
+		int square;
+
+		for (int index = 0; index < nbMoves; index++)
+		{
+			square = this.moveOrdering.getMove(ply, index);
+
+			boardGame.makeMove(square, playerPawn);
+			if (index == 0)
+			{
+				score = -principalVariationSearch(boardGame, opponentPawn, playerPawn, -beta, -alpha, ply + 1);
+			}
+			else
+			{
+				score = -principalVariationSearch(boardGame, opponentPawn, playerPawn, -alpha - 1, -alpha, ply + 1);
+				if ((score > alpha) && (score < beta))
+				{
+					score = -principalVariationSearch(boardGame, opponentPawn, playerPawn, -beta, -alpha, ply + 1);
+				}
+			}
+			boardGame.unmakeMove();
+
+			if (score > bestScore)
+			{
+				bestScore = score;
+				bestSquare = square;
+
+				if (score > alpha)
+				{
+					alpha = score;
+					updatePrincipalVariation(ply, square);
+				}
+			}
+
+			if (alpha >= beta)
+			{
+				this.moveOrdering.notifyCutoff(playerPawn, square, ply, this.searchDepth - ply, index);
+				break;
+			}
+		}
+
+		store(key, ply, bestScore, originalAlpha, beta, bestSquare);
+
+		return bestScore;
+	}
+
+	/**
+	 * Get the score of a position where the game is over: the final disc differential (the empty cells going to the winner) in evaluation units, beyond {@link #WIN_SCORE} for a won or lost game.
+	 * 
+	 * @param boardGame
+	 *            The board game.
+	 * @param playerPawn
+	 *            The pawn of the player to play.
+	 * @param opponentPawn
+	 *            The pawn of the opponent.
+	 * @return The score, from the point of view of the player to play.
+	 */
+	private int getGameOverScore(BoardGame boardGame, Cell playerPawn, Cell opponentPawn)
+	{
+		final int finalScore = EndgameSolver.getFinalScore(boardGame.getPawns(playerPawn), boardGame.getPawns(opponentPawn), boardGame.getNbCellsRemaining());
+		return (Integer.signum(finalScore) * WIN_SCORE) + (finalScore * this.evaluator.getNbUnitsByDisc());
+	}
+
+	/**
+	 * Update the principal variation of a ply with a move followed by the principal variation of the next ply.
+	 * 
+	 * @param ply
+	 *            The ply.
+	 * @param move
+	 *            The move square, or {@link #PASS}.
+	 */
+	private void updatePrincipalVariation(int ply, int move)
+	{
+		final int[] principalVariation = this.principalVariations[ply];
+		final int nextLength = this.principalVariationLengths[ply + 1];
+
+		principalVariation[ply] = move;
+		System.arraycopy(this.principalVariations[ply + 1], ply + 1, principalVariation, ply + 1, nextLength - ply - 1);
+		this.principalVariationLengths[ply] = Math.max(ply + 1, nextLength);
+	}
+
+	/**
+	 * Check if a transposition table entry is enough to cut the search off.
+	 * 
+	 * @param entry
+	 *            The transposition table entry.
+	 * @param alpha
+	 *            The alpha value.
+	 * @param beta
+	 *            The beta value.
+	 * @param ply
+	 *            The ply.
+	 * @return True or False.
+	 */
+	private boolean isTranspositionCutoff(long entry, int alpha, int beta, int ply)
+	{
+		if ((entry == TranspositionTable.NO_ENTRY) || (TranspositionTable.getDepth(entry) < this.searchDepth - ply))
+		{
+			return false;
+		}
+
+		final int score = TranspositionTable.getScore(entry);
+		switch (TranspositionTable.getBound(entry))
+		{
+			case TranspositionTable.EXACT:
+				return true;
+			case TranspositionTable.LOWER_BOUND:
+				return score >= beta;
+			default:
+				return score <= alpha;
+		}
+	}
+
+	/**
+	 * Get the move of a transposition table entry.
+	 * 
+	 * @param entry
+	 *            The transposition table entry.
+	 * @return The move square, or {@link TranspositionTable#NO_MOVE}.
+	 */
+	private static int getTranspositionMove(long entry)
+	{
+		return (entry == TranspositionTable.NO_ENTRY ? TranspositionTable.NO_MOVE : TranspositionTable.getMove(entry));
+	}
+
+	/**
+	 * Store a search result in the transposition table, unless the search has been aborted.
+	 * 
+	 * @param key
+	 *            The position key.
+	 * @param ply
+	 *            The ply.
+	 * @param score
+	 *            The best score.
+	 * @param alpha
+	 *            The alpha value when the node was entered.
+	 * @param beta
+	 *            The beta value when the node was entered.
+	 * @param square
+	 *            The best move square.
+	 */
+	private void store(long key, int ply, int score, int alpha, int beta, int square)
+	{
+		if (this.aborted)
+		{
+			return;
+		}
+
+		final int bound = (score <= alpha ? TranspositionTable.UPPER_BOUND : (score >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT));
+		this.transpositionTable.store(key, this.searchDepth - ply, bound, score, square);
+	}
+
+	/**
+	 * Count a node and check if the search has to be aborted. The stop request and the time and nodes budgets are only checked every 1024 nodes.
+	 * 
+	 * @return True or False.
+	 */
+	private boolean isSearchAborted()
+	{
+		if (!this.aborted && ((++this.nbNodes & NODES_POLLING_MASK) == 0))
+		{
+			this.abortReason = checkBudgets();
+			this.aborted = (this.abortReason != AbortReason.NONE);
+		}
+
+		return this.aborted;
+	}
+
+	/**
+	 * Check the stop request and the time and nodes budgets (a helper only checks the stop request).
+	 * 
+	 * @return The reason why the search has to be aborted, {@link AbortReason#NONE} if it can go on.
+	 */
+	private AbortReason checkBudgets()
+	{
+		if (this.stopped)
+		{
+			return AbortReason.STOPPED;
+		}
+
+		if (!this.helper && this.timeManager.isTimeUp())
+		{
+			return AbortReason.TIME;
+		}
+
+		return ((this.maxNodes > 0) && (this.nbNodes >= this.maxNodes) ? AbortReason.NODES : AbortReason.NONE);
+	}
+
+	/**
+	 * Get the move ordering.
+	 * 
+	 * @return The move ordering.
+	 */
+	public MoveOrdering getMoveOrdering()
+	{
+		return this.moveOrdering;
+	}
+
+	/**
+	 * Get the number of nodes searched for the current move.
+	 * 
+	 * @return The number of nodes.
+	 */
+	public long getNbNodes()
+	{
+		return this.nbNodes;
+	}
+
+	/**
+	 * Get the number of transposition table probes which found an entry for the current move.
+	 * 
+	 * @return The number of hits.
+	 */
+	public long getNbTranspositionHits()
+	{
+		return this.nbTranspositionHits;
+	}
+
+	/**
+	 * Get the number of beta cutoffs for the current move.
+	 * 
+	 * @return The number of cutoffs.
+	 */
+	public long getNbCutoffs()
+	{
+		return this.moveOrdering.getNbCutoffs() - this.previousNbCutoffs;
+	}
+
+	/**
+	 * Get the reason why the search of the current move has ended before its last iteration.
+	 * 
+	 * @return The abort reason ({@link AbortReason#NONE} if the search has reached its last iteration).
+	 */
+	public AbortReason getAbortReason()
+	{
+		return this.abortReason;
+	}
+
+	/**
+	 * Get the depth of the last completed iteration.
+	 * 
+	 * @return The depth (0 if no iteration has been completed).
+	 */
+	public int getCompletedDepth()
+	{
+		return this.completedDepth;
+	}
+
+	/**
+	 * Get the score of the last completed iteration.
+	 * 
+	 * @return The score, from the point of view of the own player.
+	 */
+	public int getCompletedScore()
+	{
+		return this.completedScore;
+	}
+
+	/**
+	 * Get the principal variation of the last completed iteration.
+	 * 
+	 * @param moves
+	 *            The array receiving the moves (squares or {@link #PASS}), at least {@link MoveOrdering#MAX_PLY} long.
+	 * @return The length of the principal variation.
+	 */
+	public int getPrincipalVariation(int[] moves)
+	{
+		System.arraycopy(this.completedPrincipalVariation, 0, moves, 0, this.completedPrincipalVariationLength);
+		return this.completedPrincipalVariationLength;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,212 @@
+package fr.polytech.reversi.model.players.search;
+
+/**
+ * This class represents the time manager of a computer player.
+ *
+ * It shares the remaining game time between the moves still to play, according to the number of empty cells, and gives each move a soft limit (do not start a new iteration) and a hard limit (abort the
+ * search).
+ *
+ * While pondering (searching on the opponent's time), there is no limit. On a ponder hit, the move gets its usual limits, counted from the start of the pondering, so that the search ends at once or soon:
+ * only the time elapsed since the ponder hit is removed from the game time.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class TimeManager
+{
+	/**
+	 * The time kept aside to never run out of game time.
+	 */
+	private static final long SAFETY_MARGIN = 100; // 0.1 second
+
+	/**
+	 * The minimum budget of a move.
+	 */
+	private static final long MIN_MOVE_BUDGET = 10; // 0.01 second
+
+	/**
+	 * The game time (0 if there is no game clock).
+	 */
+	private final long gameTime;
+
+	/**
+	 * The max time of a move.
+	 */
+	private final long maxMoveTime;
+
+	/**
+	 * The remaining game time.
+	 */
+	private long remainingTime;
+
+	/**
+	 * The start time of the current move (the time of the ponder hit for a pondered move).
+	 */
+	private volatile long startTime;
+
+	/**
+	 * The start time of the search of the current move (the start time of the pondering for a pondered move).
+	 */
+	private volatile long searchStartTime;
+
+	/**
+	 * The budget of the current move.
+	 */
+	private volatile long moveBudget;
+
+	/**
+	 * The hard limit of the current move.
+	 */
+	private volatile long hardLimit;
+
+	/**
+	 * True if the search is pondering.
+	 */
+	private volatile boolean pondering;
+
+	/**
+	 * Create a time manager.
+	 * 
+	 * @param gameTime
+	 *            The game time in milliseconds (0 if there is no game clock).
+	 * @param maxMoveTime
+	 *            The max time of a move in milliseconds.
+	 */
+	public TimeManager(long gameTime, long maxMoveTime)
+	{
+		this.gameTime = gameTime;
+		this.maxMoveTime = maxMoveTime;
+		this.remainingTime = gameTime;
+	}
+
+	/**
+	 * Start a move: compute its budget from the remaining game time and the number of empty cells.
+	 * 
+	 * @param nbEmptyCells
+	 *            The number of empty cells.
+	 */
+	public void startMove(int nbEmptyCells)
+	{
+		this.startTime = System.currentTimeMillis();
+		this.searchStartTime = this.startTime;
+		computeBudget(nbEmptyCells);
+		this.pondering = false;
+	}
+
+	/**
+	 * Start pondering: the search has no limit until the ponder hit.
+	 */
+	public void startPonder()
+	{
+		this.startTime = System.currentTimeMillis();
+		this.searchStartTime = this.startTime;
+		this.pondering = true;
+	}
+
+	/**
+	 * Convert the pondering into the search of a move, the opponent having played the predicted move.
+	 * 
+	 * @param nbEmptyCells
+	 *            The number of empty cells.
+	 */
+	public void ponderHit(int nbEmptyCells)
+	{
+		this.startTime = System.currentTimeMillis();
+		computeBudget(nbEmptyCells);
+		this.pondering = false;
+	}
+
+	/**
+	 * Compute the budget and the hard limit of a move.
+	 * 
+	 * @param nbEmptyCells
+	 *            The number of empty cells.
+	 */
+	private void computeBudget(int nbEmptyCells)
+	{
+		if (this.gameTime > 0)
+		{
+			final long availableTime = Math.max(0, this.remainingTime - SAFETY_MARGIN);
+			final int nbMovesToPlay = Math.max(1, (nbEmptyCells + 1) / 2);
+
+			this.moveBudget = Math.max(MIN_MOVE_BUDGET, Math.min(this.maxMoveTime, availableTime / nbMovesToPlay));
+			this.hardLimit = Math.max(this.moveBudget, Math.min(this.maxMoveTime, Math.min(2 * this.moveBudget, availableTime / 2)));
+		}
+		else
+		{
+			this.moveBudget = this.maxMoveTime;
+			this.hardLimit = this.maxMoveTime;
+		}
+	}
+
+	/**
+	 * End a move: its elapsed time is removed from the remaining game time (nothing if the pondering has not been hit).
+	 */
+	public void endMove()
+	{
+		if ((this.gameTime > 0) && !this.pondering)
+		{
+			this.remainingTime = Math.max(0, this.remainingTime - getElapsedTime());
+		}
+	}
+
+	/**
+	 * Check if a new iteration can be started (less than half of the budget has been used, the next iteration being usually longer than all the previous ones).
+	 * 
+	 * @return True or False.
+	 */
+	public boolean canStartIteration()
+	{
+		return this.pondering || (System.currentTimeMillis() - this.searchStartTime < this.moveBudget / 2);
+	}
+
+	/**
+	 * Check if the hard limit of the move is reached.
+	 * 
+	 * @return True or False.
+	 */
+	public boolean isTimeUp()
+	{
+		return !this.pondering && (System.currentTimeMillis() - this.searchStartTime >= this.hardLimit);
+	}
+
+	/**
+	 * Get the elapsed time of the current move.
+	 * 
+	 * @return The elapsed time in milliseconds.
+	 */
+	public long getElapsedTime()
+	{
+		return System.currentTimeMillis() - this.startTime;
+	}
+
+	/**
+	 * Get the budget of the current move.
+	 * 
+	 * @return The budget in milliseconds.
+	 */
+	public long getMoveBudget()
+	{
+		return this.moveBudget;
+	}
+
+	/**
+	 * Get the remaining game time.
+	 * 
+	 * @return The remaining game time in milliseconds (0 if there is no game clock).
+	 */
+	public long getRemainingTime()
+	{
+		return this.remainingTime;
+	}
+
+	/**
+	 * Check if the search is pondering.
+	 * 
+	 * @return True or False.
+	 */
+	public boolean isPondering()
+	{
+		return this.pondering;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,322 @@
+package fr.polytech.reversi.model.players.search;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class represents a fixed-size transposition table, using a replace-by-depth scheme.
+ *
+ * Each entry is made of two longs: the key (xored with the data) and the packed data (score, depth, bound, move and generation). The data of a missing entry is {@link #NO_ENTRY}.
+ *
+ * The table can be shared by several search threads without locking: an entry torn by concurrent writes does not match its key anymore and is simply seen as missing.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class TranspositionTable
+{
+	/**
+	 * The missing entry.
+	 */
+	public static final long NO_ENTRY = 0L;
+
+	/**
+	 * The exact bound.
+	 */
+	public static final int EXACT = 0;
+
+	/**
+	 * The lower bound (the score is at least the stored one).
+	 */
+	public static final int LOWER_BOUND = 1;
+
+	/**
+	 * The upper bound (the score is at most the stored one).
+	 */
+	public static final int UPPER_BOUND = 2;
+
+	/**
+	 * The missing move.
+	 */
+	public static final int NO_MOVE = 64;
+
+	/**
+	 * The size of an entry in bytes.
+	 */
+	private static final int ENTRY_SIZE = 16;
+
+	/**
+	 * The number of bytes in a MB.
+	 */
+	private static final long BYTES_PER_MB = 1024L * 1024L;
+
+	/**
+	 * The maximum number of entries.
+	 */
+	private static final int MAX_NB_ENTRIES = 1 << 30;
+
+	/**
+	 * The number of entries sampled to compute the fill rate.
+	 */
+	private static final int FILL_SAMPLE_SIZE = 1000;
+
+	/**
+	 * The shift of the depth in the data.
+	 */
+	private static final int DEPTH_SHIFT = 32;
+
+	/**
+	 * The shift of the bound in the data.
+	 */
+	private static final int BOUND_SHIFT = 40;
+
+	/**
+	 * The shift of the move in the data.
+	 */
+	private static final int MOVE_SHIFT = 42;
+
+	/**
+	 * The shift of the generation in the data.
+	 */
+	private static final int GENERATION_SHIFT = 49;
+
+	/**
+	 * The flag set on every stored data, so that it never equals {@link #NO_ENTRY}.
+	 */
+	private static final long VALID_FLAG = 1L << 63;
+
+	/**
+	 * The keys (xored with the data).
+	 */
+	private final long[] keys;
+
+	/**
+	 * The data.
+	 */
+	private final long[] data;
+
+	/**
+	 * The index mask.
+	 */
+	private final int mask;
+
+	/**
+	 * The current generation.
+	 */
+	private int generation;
+
+	/**
+	 * The number of probes.
+	 */
+	private final LongAdder nbProbes;
+
+	/**
+	 * The number of hits.
+	 */
+	private final LongAdder nbHits;
+
+	/**
+	 * Create a transposition table.
+	 * 
+	 * @param size
+	 *            The size in MB.
+	 */
+	public TranspositionTable(int size)
+	{
+		if (size <= 0)
+		{
+			throw new IllegalArgumentException(String.format("Invalid transposition table size (%d MB)", size));
+		}
+
+		final int nbEntries = Integer.highestOneBit((int) Math.min(MAX_NB_ENTRIES, size * BYTES_PER_MB / ENTRY_SIZE));
+		this.keys = new long[nbEntries];
+		this.data = new long[nbEntries];
+		this.mask = nbEntries - 1;
+		this.nbProbes = new LongAdder();
+		this.nbHits = new LongAdder();
+	}
+
+	/**
+	 * Start a new search: the entries of the previous searches become replaceable. It must not be called while a search is running.
+	 */
+	public void newSearch()
+	{
+		this.generation = (this.generation + 1) & 0xFF;
+	}
+
+	/**
+	 * Clear the table and its statistics.
+	 */
+	public void clear()
+	{
+		for (int index = 0; index < this.data.length; index++)
+		{
+			this.keys[index] = 0L;
+			this.data[index] = NO_ENTRY;
+		}
+
+		this.nbProbes.reset();
+		this.nbHits.reset();
+	}
+
+	/**
+	 * Probe the table.
+	 * 
+	 * @param key
+	 *            The position key.
+	 * @return The data of the entry, or {@link #NO_ENTRY}.
+	 */
+	public long probe(long key)
+	{
+		final int index = (int) key & this.mask;
+		final long entryData = this.data[index];
+
+		this.nbProbes.increment();
+		if ((entryData != NO_ENTRY) && ((this.keys[index] ^ entryData) == key))
+		{
+			this.nbHits.increment();
+			return entryData;
+		}
+
+		return NO_ENTRY;
+	}
+
+	/**
+	 * Store an entry, unless a deeper entry of the current search is already there.
+	 * 
+	 * @param key
+	 *            The position key.
+	 * @param depth
+	 *            The remaining depth of the search.
+	 * @param bound
+	 *            The bound type.
+	 * @param score
+	 *            The score.
+	 * @param move
+	 *            The best move square, or {@link #NO_MOVE}.
+	 */
+	public void store(long key, int depth, int bound, int score, int move)
+	{
+		final int index = (int) key & this.mask;
+		final long entryData = this.data[index];
+
+		if ((entryData != NO_ENTRY) && ((this.keys[index] ^ entryData) != key) && (getGeneration(entryData) == this.generation) && (getDepth(entryData) > depth))
+		{
+			return;
+		}
+
+		final long newData = VALID_FLAG | ((long) this.generation << GENERATION_SHIFT) | ((long) move << MOVE_SHIFT) | ((long) bound << BOUND_SHIFT) | ((long) depth << DEPTH_SHIFT) | (score & 0xFFFFFFFFL);
+		this.keys[index] = key ^ newData;
+		this.data[index] = newData;
+	}
+
+	/**
+	 * Get the score of an entry.
+	 * 
+	 * @param entryData
+	 *            The entry data.
+	 * @return The score.
+	 */
+	public static int getScore(long entryData)
+	{
+		return (int) entryData;
+	}
+
+	/**
+	 * Get the depth of an entry.
+	 * 
+	 * @param entryData
+	 *            The entry data.
+	 * @return The remaining depth.
+	 */
+	public static int getDepth(long entryData)
+	{
+		return (int) (entryData >>> DEPTH_SHIFT) & 0xFF;
+	}
+
+	/**
+	 * Get the bound type of an entry.
+	 * 
+	 * @param entryData
+	 *            The entry data.
+	 * @return The bound type.
+	 */
+	public static int getBound(long entryData)
+	{
+		return (int) (entryData >>> BOUND_SHIFT) & 0x3;
+	}
+
+	/**
+	 * Get the best move of an entry.
+	 * 
+	 * @param entryData
+	 *            The entry data.
+	 * @return The best move square, or {@link #NO_MOVE}.
+	 */
+	public static int getMove(long entryData)
+	{
+		return (int) (entryData >>> MOVE_SHIFT) & 0x7F;
+	}
+
+	/**
+	 * Get the generation of an entry.
+	 * 
+	 * @param entryData
+	 *            The entry data.
+	 * @return The generation.
+	 */
+	private static int getGeneration(long entryData)
+	{
+		return (int) (entryData >>> GENERATION_SHIFT) & 0xFF;
+	}
+
+	/**
+	 * Get the number of entries.
+	 * 
+	 * @return The number of entries.
+	 */
+	public int getNbEntries()
+	{
+		return this.data.length;
+	}
+
+	/**
+	 * Get the fill rate, estimated on the first entries.
+	 * 
+	 * @return The ratio of used entries (between 0 and 1).
+	 */
+	public double getFillRate()
+	{
+		final int nbSampledEntries = Math.min(FILL_SAMPLE_SIZE, this.data.length);
+		int nbUsedEntries = 0;
+
+		for (int index = 0; index < nbSampledEntries; index++)
+		{
+			if (this.data[index] != NO_ENTRY)
+			{
+				nbUsedEntries++;
+			}
+		}
+
+		return (double) nbUsedEntries / nbSampledEntries;
+	}
+
+	/**
+	 * Get the hit rate.
+	 * 
+	 * @return The ratio of probes which found their entry (between 0 and 1).
+	 */
+	public double getHitRate()
+	{
+		final long probes = this.nbProbes.sum();
+		return (probes == 0 ? 0.0 : (double) this.nbHits.sum() / probes);
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return String.format("TranspositionTable [entries=%d, fill=%.1f%%, probes=%d, hits=%.1f%%]", this.data.length, getFillRate() * 100, this.nbProbes.sum(), getHitRate() * 100);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,448 @@
+package fr.polytech.reversi.tools;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.boardgame.records.GameRecord;
+import fr.polytech.reversi.model.boardgame.records.GameRecordReader;
+import fr.polytech.reversi.model.players.ComputerPlayer;
+import fr.polytech.reversi.model.players.HumanPlayer;
+import fr.polytech.reversi.model.players.ISearchListener;
+import fr.polytech.reversi.model.players.search.EndgameSolver;
+import fr.polytech.reversi.model.players.search.ScoreType;
+import fr.polytech.reversi.model.players.search.SearchStatistics;
+import fr.polytech.reversi.model.players.search.Searcher;
+import fr.polytech.reversi.view.NullView;
+
+/**
+ * This class analyzes a batch of positions with a computer player configuration (see {@link PlayerConfiguration}), its depth, node or time budget limiting each search.
+ *
+ * The positions are read from a text file (a position by line, as the moves leading to it in the usual notation; the empty lines and the lines starting with '#' are ignored), or from a binary game
+ * records file (every position of its games where a move was played). They are analyzed on a fixed pool of threads, each one with its own computer players, and the results are written in the order
+ * of the positions: best move, score in discs from the point of view of the player to play, score type (see {@link ScoreType}), depth, principal variation, number of nodes and time in
+ * milliseconds. The computer players analyse the positions (see {@link ComputerPlayer#setAnalysis(boolean)}), so that the opening book is ignored and a single legal move is still searched; the
+ * score and the depth of a search stopped before its first iteration are written as "-". The number of positions read ahead of the results written is bounded, so that the memory used does not
+ * depend on the number of positions.
+ *
+ * Usage: AnalyzePositions &lt;positions&gt; &lt;results&gt; [player configuration] [threads]
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class AnalyzePositions
+{
+	/**
+	 * The default player configuration.
+	 */
+	private static final String DEFAULT_CONFIGURATION = "depth=10";
+
+	/**
+	 * The number of positions which may be read ahead of the results written, by analysis thread.
+	 */
+	private static final int NB_PENDING_POSITIONS_BY_THREAD = 4;
+
+	/**
+	 * The prefix of the comment lines.
+	 */
+	private static final String COMMENT_PREFIX = "#";
+
+	/**
+	 * The notation of the start position and of a missing move.
+	 */
+	private static final String NONE_NOTATION = "-";
+
+	/**
+	 * The notation of a pass in a principal variation.
+	 */
+	private static final String PASS_NOTATION = "pa";
+
+	/**
+	 * The result of the end of the positions, once they have all been read.
+	 */
+	private static final Future<String> END_OF_POSITIONS = CompletableFuture.completedFuture(null);
+
+	/**
+	 * The number of positions between two progress messages.
+	 */
+	private static final long PROGRESS_INTERVAL = 10000;
+
+	/**
+	 * Private constructor.
+	 */
+	private AnalyzePositions()
+	{
+	}
+
+	/**
+	 * The entry of the tool.
+	 * 
+	 * @param args
+	 *            The arguments.
+	 * @throws IOException
+	 *             If a file can not be read or written, or if the weights or the opening book of the configuration can not be loaded.
+	 * @throws InterruptedException
+	 *             If the analysis is interrupted.
+	 * @throws ExecutionException
+	 *             If the analysis of a position or the reading of the positions has failed.
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException, ExecutionException
+	{
+		if (args.length < 2)
+		{
+			System.err.println("Usage: AnalyzePositions <positions> <results> [player configuration] [threads]");
+			System.exit(1);
+		}
+
+		final Path positionsPath = Paths.get(args[0]);
+		final PlayerConfiguration configuration = new PlayerConfiguration(args.length > 2 ? args[2] : DEFAULT_CONFIGURATION);
+		final int nbThreads = (args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors());
+		final List<Analyzer> analyzers = new ArrayList<Analyzer>();
+		final ThreadLocal<Analyzer> threadAnalyzer = ThreadLocal.withInitial(() ->
+		{
+			final Analyzer analyzer = new Analyzer(configuration);
+			synchronized (analyzers)
+			{
+				analyzers.add(analyzer);
+			}
+			return analyzer;
+		});
+
+		final BlockingQueue<Future<String>> results = new ArrayBlockingQueue<Future<String>>(nbThreads * NB_PENDING_POSITIONS_BY_THREAD);
+		final ExecutorService analysisExecutor = Executors.newFixedThreadPool(nbThreads);
+		final ExecutorService readingExecutor = Executors.newSingleThreadExecutor();
+		final long startTime = System.nanoTime();
+		long nbPositions = 0;
+
+		try
+		{
+			// The positions are read and submitted on their own thread, blocked while too many results are pending, and the results are written in order on this thread.
+			final Future<?> reading = readingExecutor.submit(() ->
+			{
+				try
+				{
+					readPositions(positionsPath, (position, moves) -> results.put(analysisExecutor.submit(() -> threadAnalyzer.get().analyze(position, moves))));
+				}
+				finally
+				{
+					results.put(END_OF_POSITIONS);
+				}
+				return null;
+			});
+
+			try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8))
+			{
+				writer.write(String.format("%s position best score type depth pv nodes time", COMMENT_PREFIX));
+				writer.newLine();
+
+				Future<String> result;
+				while ((result = results.take()) != END_OF_POSITIONS)
+				{
+					writer.write(result.get());
+					writer.newLine();
+					if (++nbPositions % PROGRESS_INTERVAL == 0)
+					{
+						System.err.println(String.format("%d positions analyzed", nbPositions));
+					}
+				}
+			}
+
+			reading.get();
+		}
+		finally
+		{
+			readingExecutor.shutdownNow();
+			analysisExecutor.shutdownNow();
+			synchronized (analyzers)
+			{
+				for (Analyzer analyzer : analyzers)
+				{
+					analyzer.shutdown();
+				}
+			}
+		}
+
+		final long time = System.nanoTime() - startTime;
+		System.out.println(String.format("%d positions analyzed in %d ms with %d threads (%.1f positions/s)", nbPositions, time / 1000000, nbThreads, nbPositions * 1e9 / Math.max(1, time)));
+	}
+
+	/**
+	 * Read the positions of a text or binary game records file, in turn.
+	 * 
+	 * @param path
+	 *            The path of the file.
+	 * @param consumer
+	 *            The consumer of the positions.
+	 * @throws IOException
+	 *             If the file can not be read or is corrupted.
+	 * @throws InterruptedException
+	 *             If the reading is interrupted.
+	 */
+	private static void readPositions(Path path, IPositionConsumer consumer) throws IOException, InterruptedException
+	{
+		if (GameRecordReader.isGameRecordsFile(path))
+		{
+			try (GameRecordReader reader = new GameRecordReader(path))
+			{
+				GameRecord gameRecord;
+				while ((gameRecord = reader.read()) != null)
+				{
+					final int[] moves = new int[gameRecord.getNbMoves()];
+					for (int index = 0; index < moves.length; index++)
+					{
+						consumer.accept(getNotation(moves, index), Arrays.copyOf(moves, index));
+						moves[index] = gameRecord.getMove(index);
+					}
+				}
+			}
+		}
+		else
+		{
+			try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8))
+			{
+				String line;
+				while ((line = reader.readLine()) != null)
+				{
+					line = line.trim();
+					if (!line.isEmpty() && !line.startsWith(COMMENT_PREFIX))
+					{
+						consumer.accept(line, NONE_NOTATION.equals(line) ? new int[0] : BitBoard.parseMoves(line));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the notation of moves.
+	 * 
+	 * @param moves
+	 *            The moves squares ({@link Searcher#PASS} for a pass).
+	 * @param length
+	 *            The number of moves.
+	 * @return The notation, or {@link #NONE_NOTATION} if there is no move.
+	 */
+	private static String getNotation(int[] moves, int length)
+	{
+		if (length == 0)
+		{
+			return NONE_NOTATION;
+		}
+
+		final StringBuilder notation = new StringBuilder();
+		for (int index = 0; index < length; index++)
+		{
+			notation.append(moves[index] == Searcher.PASS ? PASS_NOTATION : BitBoard.getNotation(moves[index]));
+		}
+
+		return notation.toString();
+	}
+
+	/**
+	 * This interface represents a consumer of the positions read.
+	 */
+	private interface IPositionConsumer
+	{
+		/**
+		 * Accept a position.
+		 * 
+		 * @param position
+		 *            The notation of the position.
+		 * @param moves
+		 *            The moves squares leading to the position (null for an invalid position).
+		 * @throws InterruptedException
+		 *             If the consumer is interrupted while waiting.
+		 */
+		public void accept(String position, int[] moves) throws InterruptedException;
+	}
+
+	/**
+	 * This class analyzes positions on a single thread, with its own board game and computer players.
+	 */
+	private static final class Analyzer implements ISearchListener
+	{
+		/**
+		 * The player configuration.
+		 */
+		private final PlayerConfiguration configuration;
+
+		/**
+		 * The computer players, by color of the player to play (black then white), created once needed.
+		 */
+		private final ComputerPlayer[] players;
+
+		/**
+		 * The board game of the analyzed position, whose players are human players.
+		 */
+		private final BoardGame boardGame;
+
+		/**
+		 * The principal variation of the last search.
+		 */
+		private final int[] principalVariation;
+
+		/**
+		 * The length of the principal variation of the last search.
+		 */
+		private int principalVariationLength;
+
+		/**
+		 * The score of the last search (in discs).
+		 */
+		private double score;
+
+		/**
+		 * The score type of the last search.
+		 */
+		private ScoreType scoreType;
+
+		/**
+		 * The depth of the last search.
+		 */
+		private int depth;
+
+		/**
+		 * The number of nodes of the last search.
+		 */
+		private long nbNodes;
+
+		/**
+		 * The elapsed time of the last search in milliseconds.
+		 */
+		private long elapsedTime;
+
+		/**
+		 * Create an analyzer.
+		 * 
+		 * @param configuration
+		 *            The player configuration.
+		 */
+		private Analyzer(PlayerConfiguration configuration)
+		{
+			this.configuration = configuration;
+			this.players = new ComputerPlayer[2];
+			this.boardGame = new BoardGame(BitBoard.SIZE, BitBoard.SIZE, new HumanPlayer(Cell.BLACK_PAWN), new HumanPlayer(Cell.WHITE_PAWN), new NullView());
+			this.principalVariation = new int[BitBoard.NB_CELLS + 1];
+		}
+
+		/**
+		 * Analyze a position.
+		 * 
+		 * @param position
+		 *            The notation of the position.
+		 * @param moves
+		 *            The moves squares leading to the position (null for an invalid position).
+		 * @return The result line.
+		 */
+		private String analyze(String position, int[] moves)
+		{
+			if (moves == null)
+			{
+				return String.format("%s invalid", position);
+			}
+
+			try
+			{
+				this.boardGame.init(moves);
+			}
+			catch (IllegalArgumentException e)
+			{
+				return String.format("%s invalid", position);
+			}
+
+			final Cell playerPawn = this.boardGame.getCurrentPlayer().getCellRepresentation();
+			if (this.boardGame.gameOver())
+			{
+				final Cell opponentPawn = (playerPawn == Cell.BLACK_PAWN ? Cell.WHITE_PAWN : Cell.BLACK_PAWN);
+				final int finalScore = EndgameSolver.getFinalScore(this.boardGame.getPawns(playerPawn), this.boardGame.getPawns(opponentPawn), this.boardGame.getNbCellsRemaining());
+				return String.format(Locale.ROOT, "%s %s %.2f %s 0 %s 0 0", position, NONE_NOTATION, (double) finalScore, getTypeNotation(ScoreType.EXACT), NONE_NOTATION);
+			}
+
+			final int index = (playerPawn == Cell.BLACK_PAWN ? 0 : 1);
+			if (this.players[index] == null)
+			{
+				this.players[index] = this.configuration.createPlayer(playerPawn);
+				this.players[index].setSearchListener(this);
+				this.players[index].setAnalysis(true);
+			}
+
+			this.players[index].getNextChoice(this.boardGame);
+			final boolean scored = (this.scoreType != ScoreType.NONE);
+			return String.format(Locale.ROOT, "%s %s %s %s %s %s %d %d", position, getNotation(this.principalVariation, Math.min(1, this.principalVariationLength)),
+					(scored ? String.format(Locale.ROOT, "%.2f", this.score) : NONE_NOTATION), getTypeNotation(this.scoreType), (scored ? Integer.toString(this.depth) : NONE_NOTATION),
+					getNotation(this.principalVariation, this.principalVariationLength), this.nbNodes, this.elapsedTime);
+		}
+
+		/**
+		 * Get the notation of a score type.
+		 * 
+		 * @param scoreType
+		 *            The score type.
+		 * @return The notation ("evaluation", "exact", "win_loss_draw", or {@link #NONE_NOTATION}).
+		 */
+		private static String getTypeNotation(ScoreType scoreType)
+		{
+			return (scoreType == ScoreType.NONE ? NONE_NOTATION : scoreType.name().toLowerCase(Locale.ROOT));
+		}
+
+		/**
+		 * @see fr.polytech.reversi.model.players.ISearchListener#notifyIteration(fr.polytech.reversi.model.players.search.SearchStatistics)
+		 */
+		@Override
+		public void notifyIteration(SearchStatistics statistics)
+		{
+			// Only the summary of the search is written.
+		}
+
+		/**
+		 * @see fr.polytech.reversi.model.players.ISearchListener#notifyMove(fr.polytech.reversi.model.players.search.SearchStatistics)
+		 */
+		@Override
+		public void notifyMove(SearchStatistics statistics)
+		{
+			this.principalVariationLength = Math.min(statistics.getPrincipalVariationLength(), this.principalVariation.length);
+			for (int index = 0; index < this.principalVariationLength; index++)
+			{
+				this.principalVariation[index] = statistics.getPrincipalVariationMove(index);
+			}
+
+			this.score = statistics.getDiscScore();
+			this.scoreType = statistics.getScoreType();
+			this.depth = statistics.getDepth();
+			this.nbNodes = statistics.getNbNodes();
+			this.elapsedTime = statistics.getElapsedTime();
+		}
+
+		/**
+		 * Shut the computer players down.
+		 */
+		private void shutdown()
+		{
+			for (ComputerPlayer player : this.players)
+			{
+				if (player != null)
+				{
+					player.shutdown();
+				}
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,311 @@
+package fr.polytech.reversi.tools;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.players.ComputerPlayer;
+import fr.polytech.reversi.model.players.evaluation.IEvaluator;
+import fr.polytech.reversi.model.players.evaluation.PatternEvaluator;
+import fr.polytech.reversi.model.players.evaluation.PositionalEvaluator;
+import fr.polytech.reversi.model.players.search.TimeManager;
+
+/**
+ * This class measures the hot paths of the board game and of the search on reproducible positions of the opening, the middle game and the endgame: move generation, moves, game state checks,
+ * evaluation, and fixed depth search speed.
+ *
+ * Each benchmark is warmed up, then measured over several timed iterations; the memory allocated by the measuring thread is given by operation (by node for the search), so that an allocation in a
+ * hot path shows up at once.
+ *
+ * Usage: BoardBenchmark [positions by phase] [search depth] [pattern weights]
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class BoardBenchmark
+{
+	/**
+	 * The seed of the positions.
+	 */
+	private static final long SEED = 42L;
+
+	/**
+	 * The names of the game phases.
+	 */
+	private static final String[] PHASES_NAMES = new String[] { "opening", "middle", "endgame" };
+
+	/**
+	 * The number of random moves played to create a position, by game phase.
+	 */
+	private static final int[] PHASES_NB_MOVES = new int[] { 8, 28, 44 };
+
+	/**
+	 * The number of warmup iterations.
+	 */
+	private static final int NB_WARMUP_ITERATIONS = 5;
+
+	/**
+	 * The number of measured iterations.
+	 */
+	private static final int NB_MEASURED_ITERATIONS = 5;
+
+	/**
+	 * The duration of an iteration in nanoseconds.
+	 */
+	private static final long ITERATION_TIME = 200000000L;
+
+	/**
+	 * The transposition table size (in MB).
+	 */
+	private static final int TRANSPOSITION_TABLE_SIZE = 16;
+
+	/**
+	 * The max time of a move (never reached, the depth limits the search).
+	 */
+	private static final long MAX_MOVE_TIME = Long.MAX_VALUE / 4;
+
+	/**
+	 * The thread management, measuring the allocated memory.
+	 */
+	private static final com.sun.management.ThreadMXBean THREAD_MANAGEMENT = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	/**
+	 * The sink of the results of the operations, so that they are not optimized away.
+	 */
+	private static volatile long sink;
+
+	/**
+	 * Private constructor.
+	 */
+	private BoardBenchmark()
+	{
+	}
+
+	/**
+	 * The entry of the benchmark.
+	 * 
+	 * @param args
+	 *            The arguments.
+	 * @throws IOException
+	 *             If the pattern weights can not be loaded.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		final int nbPositions = (args.length > 0 ? Integer.parseInt(args[0]) : 64);
+		final int depth = (args.length > 1 ? Integer.parseInt(args[1]) : 8);
+		final IEvaluator patternEvaluator = (args.length > 2 ? new PatternEvaluator(Paths.get(args[2])) : null);
+		final IEvaluator positionalEvaluator = new PositionalEvaluator();
+		final int[] squares = new int[BitBoard.NB_CELLS];
+		THREAD_MANAGEMENT.setThreadAllocatedMemoryEnabled(true);
+
+		final Random random = new Random(SEED);
+		final BoardGame[][] phasesPositions = new BoardGame[PHASES_NAMES.length][];
+		for (int phase = 0; phase < PHASES_NAMES.length; phase++)
+		{
+			phasesPositions[phase] = createPositions(random, nbPositions, PHASES_NB_MOVES[phase]);
+		}
+
+		System.out.println(String.format("%-28s %-8s %12s %10s %12s", "benchmark", "phase", "ns/op", "error", "bytes/op"));
+		for (int phase = 0; phase < PHASES_NAMES.length; phase++)
+		{
+			final BoardGame[] positions = phasesPositions[phase];
+			measure("getLegalMoves (bitboard)", PHASES_NAMES[phase], positions, boardGame -> boardGame.getLegalMoves(getPlayerPawn(boardGame)));
+			measure("getLegalMoves (squares)", PHASES_NAMES[phase], positions, boardGame -> boardGame.getLegalMoves(getPlayerPawn(boardGame), squares));
+			measure("makeMove + unmakeMove", PHASES_NAMES[phase], positions, BoardBenchmark::makeAndUnmakeMove);
+			measure("playerCanPlay", PHASES_NAMES[phase], positions, boardGame -> (boardGame.playerCanPlay(getPlayerPawn(boardGame)) ? 1 : 0));
+			measure("gameOver", PHASES_NAMES[phase], positions, boardGame -> (boardGame.gameOver() ? 1 : 0));
+			measure("evaluate (positional)", PHASES_NAMES[phase], positions, boardGame -> positionalEvaluator.evaluate(boardGame, getPlayerPawn(boardGame)));
+			if (patternEvaluator != null)
+			{
+				measure("evaluate (patterns)", PHASES_NAMES[phase], positions, boardGame -> patternEvaluator.evaluate(boardGame, getPlayerPawn(boardGame)));
+			}
+		}
+
+		// Warm the JIT compiler up with the first phase, so that the search of the opening is not penalized.
+		search(phasesPositions[0], depth, patternEvaluator, new long[3]);
+
+		System.out.println();
+		System.out.println(String.format("%-8s %8s %14s %12s %12s %12s", "phase", "depth", "nodes", "time (ms)", "knodes/s", "bytes/node"));
+		final long[] measures = new long[3];
+		for (int phase = 0; phase < PHASES_NAMES.length; phase++)
+		{
+			search(phasesPositions[phase], depth, patternEvaluator, measures);
+			System.out.println(String.format("%-8s %8d %14d %12d %12d %12.3f", PHASES_NAMES[phase], depth, measures[0], measures[1] / 1000000, measures[0] * 1000000 / Math.max(1, measures[1]),
+					(double) measures[2] / Math.max(1, measures[0])));
+		}
+	}
+
+	/**
+	 * Create reproducible positions where the player to play has a legal move.
+	 * 
+	 * @param random
+	 *            The random generator.
+	 * @param nbPositions
+	 *            The number of positions.
+	 * @param nbMoves
+	 *            The number of random moves played to create a position.
+	 * @return The positions.
+	 */
+	private static BoardGame[] createPositions(Random random, int nbPositions, int nbMoves)
+	{
+		final BoardGame[] positions = new BoardGame[nbPositions];
+		for (int index = 0; index < nbPositions;)
+		{
+			final BoardGame position = RandomPositions.create(random, nbMoves);
+			if (position.playerCanPlay(getPlayerPawn(position)))
+			{
+				positions[index++] = position;
+			}
+		}
+
+		return positions;
+	}
+
+	/**
+	 * Get the pawn of the player to play.
+	 * 
+	 * @param boardGame
+	 *            The board game.
+	 * @return The pawn.
+	 */
+	private static Cell getPlayerPawn(BoardGame boardGame)
+	{
+		return boardGame.getCurrentPlayer().getCellRepresentation();
+	}
+
+	/**
+	 * Make and unmake the first legal move of the player to play.
+	 * 
+	 * @param boardGame
+	 *            The board game.
+	 * @return The hash of the position reached.
+	 */
+	private static long makeAndUnmakeMove(BoardGame boardGame)
+	{
+		final Cell playerPawn = getPlayerPawn(boardGame);
+		boardGame.makeMove(Long.numberOfTrailingZeros(boardGame.getCurrentLegalMoves()), playerPawn);
+		final long hash = boardGame.getHash(playerPawn);
+		boardGame.unmakeMove();
+		return hash;
+	}
+
+	/**
+	 * Measure an operation: it is applied to all the positions in turn for a fixed time, over warmup iterations first and then measured iterations.
+	 * 
+	 * @param name
+	 *            The name of the benchmark.
+	 * @param phase
+	 *            The name of the game phase.
+	 * @param positions
+	 *            The positions.
+	 * @param operation
+	 *            The operation, whose result is sunk.
+	 */
+	private static void measure(String name, String phase, BoardGame[] positions, ToLongFunction<BoardGame> operation)
+	{
+		for (int iteration = 0; iteration < NB_WARMUP_ITERATIONS; iteration++)
+		{
+			runIteration(positions, operation, new long[2]);
+		}
+
+		final double[] iterationsTimes = new double[NB_MEASURED_ITERATIONS];
+		final long[] iterationMeasures = new long[2];
+		final long threadId = Thread.currentThread().getId();
+		final long allocatedBytes = THREAD_MANAGEMENT.getThreadAllocatedBytes(threadId);
+		long nbOperations = 0;
+		double meanTime = 0;
+
+		for (int iteration = 0; iteration < NB_MEASURED_ITERATIONS; iteration++)
+		{
+			runIteration(positions, operation, iterationMeasures);
+			nbOperations += iterationMeasures[0];
+			iterationsTimes[iteration] = (double) iterationMeasures[1] / iterationMeasures[0];
+			meanTime += iterationsTimes[iteration] / NB_MEASURED_ITERATIONS;
+		}
+
+		final double bytesByOperation = (double) (THREAD_MANAGEMENT.getThreadAllocatedBytes(threadId) - allocatedBytes) / nbOperations;
+		double variance = 0;
+		for (double iterationTime : iterationsTimes)
+		{
+			variance += (iterationTime - meanTime) * (iterationTime - meanTime) / NB_MEASURED_ITERATIONS;
+		}
+
+		System.out.println(String.format("%-28s %-8s %12.2f %10.2f %12.3f", name, phase, meanTime, Math.sqrt(variance), bytesByOperation));
+	}
+
+	/**
+	 * Run an iteration of a benchmark.
+	 * 
+	 * @param positions
+	 *            The positions.
+	 * @param operation
+	 *            The operation.
+	 * @param measures
+	 *            The array receiving the number of operations and the time in nanoseconds.
+	 */
+	private static void runIteration(BoardGame[] positions, ToLongFunction<BoardGame> operation, long[] measures)
+	{
+		final long startTime = System.nanoTime();
+		long nbOperations = 0;
+		long time;
+		long result = 0;
+
+		do
+		{
+			for (BoardGame position : positions)
+			{
+				result += operation.applyAsLong(position);
+			}
+			nbOperations += positions.length;
+			time = System.nanoTime() - startTime;
+		}
+		while (time < ITERATION_TIME);
+
+		sink = result;
+		measures[0] = nbOperations;
+		measures[1] = time;
+	}
+
+	/**
+	 * Search all the positions to a fixed depth.
+	 * 
+	 * @param positions
+	 *            The positions.
+	 * @param depth
+	 *            The depth.
+	 * @param evaluator
+	 *            The evaluator (null for the positional evaluation).
+	 * @param measures
+	 *            The array receiving the total number of nodes, the total time in nanoseconds and the memory allocated in bytes.
+	 */
+	private static void search(BoardGame[] positions, int depth, IEvaluator evaluator, long[] measures)
+	{
+		final long threadId = Thread.currentThread().getId();
+		measures[0] = 0;
+		measures[1] = 0;
+		measures[2] = 0;
+
+		for (BoardGame position : positions)
+		{
+			final ComputerPlayer computerPlayer = new ComputerPlayer(getPlayerPawn(position), depth, 0, new TimeManager(0, MAX_MOVE_TIME), TRANSPOSITION_TABLE_SIZE, 1, 0);
+			if (evaluator != null)
+			{
+				computerPlayer.setEvaluator(evaluator);
+			}
+
+			final BoardGame searchedPosition = new BoardGame(position);
+			final long allocatedBytes = THREAD_MANAGEMENT.getThreadAllocatedBytes(threadId);
+			final long startTime = System.nanoTime();
+			computerPlayer.getNextChoice(searchedPosition);
+			measures[1] += System.nanoTime() - startTime;
+			measures[2] += THREAD_MANAGEMENT.getThreadAllocatedBytes(threadId) - allocatedBytes;
+			measures[0] += computerPlayer.getNbNodes();
+			computerPlayer.shutdown();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,179 @@
+package fr.polytech.reversi.tools;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.records.GameRecord;
+import fr.polytech.reversi.model.boardgame.records.GameRecordReader;
+import fr.polytech.reversi.model.boardgame.records.GameRecordWriter;
+import fr.polytech.reversi.model.players.book.OpeningBook;
+import fr.polytech.reversi.model.players.book.OpeningBookBuilder;
+
+/**
+ * This class builds an opening book from game records and merges existing books into it.
+ *
+ * A game record file holds a game by line, as its moves in the usual notation ("f5d6c3d3c4..."), black playing first. The empty lines and the lines starting with '#' are ignored. A book file and a
+ * binary game records file (see {@link GameRecordWriter}) are recognized by their magic numbers.
+ *
+ * Usage: BuildOpeningBook &lt;output book&gt; &lt;max plies&gt; &lt;game records or books&gt;...
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class BuildOpeningBook
+{
+	/**
+	 * The comment prefix of the game record files.
+	 */
+	private static final String COMMENT_PREFIX = "#";
+
+	/**
+	 * Private constructor.
+	 */
+	private BuildOpeningBook()
+	{
+	}
+
+	/**
+	 * The entry of the tool.
+	 * 
+	 * @param args
+	 *            The arguments.
+	 * @throws IOException
+	 *             If a file can not be read or written.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length < 3)
+		{
+			System.err.println("Usage: BuildOpeningBook <output book> <max plies> <game records or books>...");
+			System.exit(1);
+		}
+
+		final OpeningBookBuilder builder = new OpeningBookBuilder(Integer.parseInt(args[1]));
+		for (int index = 2; index < args.length; index++)
+		{
+			final Path path = Paths.get(args[index]);
+			if (isOpeningBook(path))
+			{
+				final OpeningBook openingBook = new OpeningBook(path);
+				builder.merge(openingBook);
+				System.out.println(String.format("%s: %d entries merged", path, openingBook.getNbEntries()));
+			}
+			else if (GameRecordReader.isGameRecordsFile(path))
+			{
+				addGameRecords(builder, path);
+			}
+			else
+			{
+				addGames(builder, path);
+			}
+		}
+
+		builder.write(Paths.get(args[0]));
+		System.out.println(String.format("%s: %d entries written", args[0], builder.getNbEntries()));
+	}
+
+	/**
+	 * Check if a file is an opening book.
+	 * 
+	 * @param path
+	 *            The path of the file.
+	 * @return True or False.
+	 * @throws IOException
+	 *             If the file can not be read.
+	 */
+	private static boolean isOpeningBook(Path path) throws IOException
+	{
+		if (Files.size(path) < Integer.BYTES)
+		{
+			return false;
+		}
+
+		try (DataInputStream input = new DataInputStream(Files.newInputStream(path)))
+		{
+			return input.readInt() == OpeningBook.MAGIC;
+		}
+	}
+
+	/**
+	 * Add the games of a game record file.
+	 * 
+	 * @param builder
+	 *            The opening book builder.
+	 * @param path
+	 *            The path of the game record file.
+	 * @throws IOException
+	 *             If the file can not be read.
+	 */
+	private static void addGames(OpeningBookBuilder builder, Path path) throws IOException
+	{
+		int nbGames = 0;
+		int nbLine = 0;
+		String line;
+
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8))
+		{
+			while ((line = reader.readLine()) != null)
+			{
+				nbLine++;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith(COMMENT_PREFIX))
+				{
+					continue;
+				}
+
+				final int[] moves = BitBoard.parseMoves(line);
+				if ((moves != null) && builder.addGame(moves))
+				{
+					nbGames++;
+				}
+				else
+				{
+					System.err.println(String.format("%s:%d: invalid or unfinished game ignored", path, nbLine));
+				}
+			}
+		}
+
+		System.out.println(String.format("%s: %d games added", path, nbGames));
+	}
+
+	/**
+	 * Add the games of a binary game records file.
+	 * 
+	 * @param builder
+	 *            The opening book builder.
+	 * @param path
+	 *            The path of the game records file.
+	 * @throws IOException
+	 *             If the file can not be read or is corrupted.
+	 */
+	private static void addGameRecords(OpeningBookBuilder builder, Path path) throws IOException
+	{
+		int nbGames = 0;
+		GameRecord gameRecord;
+
+		try (GameRecordReader reader = new GameRecordReader(path))
+		{
+			while ((gameRecord = reader.read()) != null)
+			{
+				if (builder.addGame(gameRecord.getMoves()))
+				{
+					nbGames++;
+				}
+				else
+				{
+					System.err.println(String.format("%s: game %d: invalid or unfinished game ignored", path, reader.getNbGames()));
+				}
+			}
+		}
+
+		System.out.println(String.format("%s: %d games added", path, nbGames));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,168 @@
+package fr.polytech.reversi.tools;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.boardgame.records.GameRecordReader;
+import fr.polytech.reversi.model.boardgame.records.PositionDatabase;
+import fr.polytech.reversi.model.players.HumanPlayer;
+import fr.polytech.reversi.view.NullView;
+
+/**
+ * This class builds a position database from binary game records files (see {@link PositionDatabase}): the positions of their games are added to the database, which is created if it does not
+ * exist.
+ *
+ * The query mode looks up the position reached by some moves, and the positions reached by each of its legal moves, and prints their statistics from the point of view of the player to play.
+ *
+ * Usage: BuildPositionDatabase &lt;database&gt; &lt;capacity&gt; &lt;game records&gt;... | BuildPositionDatabase query &lt;database&gt; [moves]
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class BuildPositionDatabase
+{
+	/**
+	 * The argument of the query mode.
+	 */
+	private static final String QUERY_MODE = "query";
+
+	/**
+	 * Private constructor.
+	 */
+	private BuildPositionDatabase()
+	{
+	}
+
+	/**
+	 * The entry of the tool.
+	 * 
+	 * @param args
+	 *            The arguments.
+	 * @throws IOException
+	 *             If a file can not be read or written.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		if ((args.length >= 2) && QUERY_MODE.equals(args[0]))
+		{
+			query(args[1], (args.length > 2 ? args[2] : ""));
+		}
+		else if (args.length >= 3)
+		{
+			build(args[0], Integer.parseInt(args[1]), args);
+		}
+		else
+		{
+			System.err.println("Usage: BuildPositionDatabase <database> <capacity> <game records>... | BuildPositionDatabase query <database> [moves]");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Add the games of game records files to a database.
+	 * 
+	 * @param fileName
+	 *            The name of the database file.
+	 * @param capacity
+	 *            The capacity of the database, if it is created.
+	 * @param args
+	 *            The arguments, the names of the game records files starting at the third one.
+	 * @throws IOException
+	 *             If a file can not be read or written.
+	 */
+	private static void build(String fileName, int capacity, String[] args) throws IOException
+	{
+		try (PositionDatabase database = new PositionDatabase(Paths.get(fileName), capacity))
+		{
+			for (int index = 2; index < args.length; index++)
+			{
+				final long startTime = System.nanoTime();
+				try (GameRecordReader reader = new GameRecordReader(Paths.get(args[index])))
+				{
+					final long nbGames = database.load(reader);
+					final long time = System.nanoTime() - startTime;
+					System.out.println(String.format("%s: %d games added in %d ms (%d games/s)", args[index], nbGames, time / 1000000, nbGames * 1000000000 / Math.max(1, time)));
+				}
+			}
+
+			System.out.println(database);
+		}
+	}
+
+	/**
+	 * Look a position and its moves up.
+	 * 
+	 * @param fileName
+	 *            The name of the database file.
+	 * @param moves
+	 *            The moves leading to the position.
+	 * @throws IOException
+	 *             If the database can not be read.
+	 */
+	private static void query(String fileName, String moves) throws IOException
+	{
+		final int[] squares = BitBoard.parseMoves(moves);
+		if (squares == null)
+		{
+			throw new IllegalArgumentException(String.format("Invalid moves (%s)", moves));
+		}
+
+		final BoardGame boardGame = new BoardGame(BitBoard.SIZE, BitBoard.SIZE, new HumanPlayer(Cell.BLACK_PAWN), new HumanPlayer(Cell.WHITE_PAWN), new NullView());
+		boardGame.init(squares);
+
+		try (PositionDatabase database = new PositionDatabase(Paths.get(fileName)))
+		{
+			System.out.println(database);
+			System.out.println(String.format("%-8s %10s %8s %8s %8s", "move", "visits", "wins", "draws", "best"));
+			final Cell playerPawn = boardGame.getCurrentPlayer().getCellRepresentation();
+			final Cell opponentPawn = (playerPawn == Cell.BLACK_PAWN ? Cell.WHITE_PAWN : Cell.BLACK_PAWN);
+			printEntry(database, "-", database.find(boardGame, playerPawn), false);
+
+			long legalMoves = boardGame.getCurrentLegalMoves();
+			while (legalMoves != 0)
+			{
+				final int square = Long.numberOfTrailingZeros(legalMoves);
+				boardGame.makeMove(square, playerPawn);
+				if (boardGame.playerCanPlay(opponentPawn))
+				{
+					printEntry(database, BitBoard.getNotation(square), database.find(boardGame.getPawns(opponentPawn), boardGame.getPawns(playerPawn)), true);
+				}
+				else
+				{
+					printEntry(database, BitBoard.getNotation(square), database.find(boardGame.getPawns(playerPawn), boardGame.getPawns(opponentPawn)), false);
+				}
+				boardGame.unmakeMove();
+				legalMoves &= legalMoves - 1;
+			}
+		}
+	}
+
+	/**
+	 * Print the statistics of an entry.
+	 * 
+	 * @param database
+	 *            The database.
+	 * @param move
+	 *            The notation of the move.
+	 * @param index
+	 *            The index of the entry.
+	 * @param opponentToPlay
+	 *            True if the opponent of the player to play is to play in the position of the entry (its statistics are then reversed).
+	 */
+	private static void printEntry(PositionDatabase database, String move, int index, boolean opponentToPlay)
+	{
+		if (index == PositionDatabase.NO_ENTRY)
+		{
+			System.out.println(String.format("%-8s %10s", move, "unknown"));
+			return;
+		}
+
+		final int visits = database.getVisits(index);
+		final int wins = (opponentToPlay ? visits - database.getWins(index) - database.getDraws(index) : database.getWins(index));
+		final String best = (opponentToPlay ? "-" : String.format("%+d", database.getBestScore(index)));
+		System.out.println(String.format("%-8s %10d %8d %8d %8s", move, visits, wins, database.getDraws(index), best));
+	}
+}
\ No newline at end of file
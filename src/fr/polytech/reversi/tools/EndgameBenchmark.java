@@ -0,0 +1,85 @@
+package fr.polytech.reversi.tools;
+
+import java.util.Random;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.players.search.EndgameSolver;
+import fr.polytech.reversi.model.players.search.TimeManager;
+
+/**
+ * This class measures the endgame solver: the solve time and the number of nodes of reproducible positions with a given number of empty cells.
+ *
+ * Usage: EndgameBenchmark [empties] [positions] [exact|wld]
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class EndgameBenchmark
+{
+	/**
+	 * The seed of the positions.
+	 */
+	private static final long SEED = 42L;
+
+	/**
+	 * The transposition table size (in MB).
+	 */
+	private static final int TRANSPOSITION_TABLE_SIZE = 16;
+
+	/**
+	 * The max time of a solve (never reached).
+	 */
+	private static final long MAX_MOVE_TIME = Long.MAX_VALUE / 4;
+
+	/**
+	 * Private constructor.
+	 */
+	private EndgameBenchmark()
+	{
+	}
+
+	/**
+	 * The entry of the benchmark.
+	 * 
+	 * @param args
+	 *            The arguments.
+	 */
+	public static void main(String[] args)
+	{
+		final int empties = (args.length > 0 ? Integer.parseInt(args[0]) : 14);
+		final int nbPositions = (args.length > 1 ? Integer.parseInt(args[1]) : 10);
+		final boolean exact = (args.length > 2 ? "exact".equals(args[2]) : true);
+
+		final Random random = new Random(SEED);
+		final TimeManager timeManager = new TimeManager(0, MAX_MOVE_TIME);
+		final EndgameSolver endgameSolver = new EndgameSolver(timeManager, TRANSPOSITION_TABLE_SIZE);
+
+		System.out.println(String.format("%-8s %8s %8s %14s %12s %12s", "position", "empties", "score", "nodes", "time (ms)", "knodes/s"));
+
+		long totalNodes = 0;
+		long totalTime = 0;
+		for (int index = 0; index < nbPositions;)
+		{
+			final BoardGame position = RandomPositions.create(random, BitBoard.NB_CELLS - 4 - empties);
+			final Cell playerPawn = position.getCurrentPlayer().getCellRepresentation();
+			if ((position.getNbCellsRemaining() != empties) || !position.playerCanPlay(playerPawn))
+			{
+				continue;
+			}
+
+			timeManager.startMove(empties);
+			endgameSolver.prepare();
+			endgameSolver.solve(position, playerPawn, exact);
+			totalNodes += endgameSolver.getNbNodes();
+			totalTime += endgameSolver.getSolveTime();
+			index++;
+
+			System.out.println(String.format("%-8d %8d %+8d %14d %12d %12d", index, empties, endgameSolver.getScore(), endgameSolver.getNbNodes(), endgameSolver.getSolveTime(),
+					endgameSolver.getNbNodes() / Math.max(1, endgameSolver.getSolveTime())));
+		}
+
+		System.out.println(String.format("%-8s %8d %8s %14d %12d %12d", "total", empties, "", totalNodes, totalTime, totalNodes / Math.max(1, totalTime)));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,209 @@
+package fr.polytech.reversi.tools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.boardgame.records.GameRecord;
+import fr.polytech.reversi.model.boardgame.records.GameRecordReader;
+import fr.polytech.reversi.model.boardgame.records.GameRecordWriter;
+import fr.polytech.reversi.model.players.HumanPlayer;
+import fr.polytech.reversi.view.NullView;
+
+/**
+ * This class handles the binary game records files (see {@link GameRecordWriter}).
+ *
+ * The check mode streams a file, replays each game on a single board game to check its moves and result, and prints the results of the games. The convert mode converts a text game record file (a
+ * game by line, as its moves in the usual notation) to a binary one: the empty lines, the lines starting with '#', the illegal and the unfinished games are ignored.
+ *
+ * Usage: GameRecords check &lt;game records&gt; | GameRecords convert &lt;text game records&gt; &lt;game records&gt; [black description] [white description]
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class GameRecords
+{
+	/**
+	 * The argument of the check mode.
+	 */
+	private static final String CHECK_MODE = "check";
+
+	/**
+	 * The argument of the convert mode.
+	 */
+	private static final String CONVERT_MODE = "convert";
+
+	/**
+	 * The prefix of the comment lines of the text game records.
+	 */
+	private static final String COMMENT_PREFIX = "#";
+
+	/**
+	 * The description of a player of a converted game, if none is given.
+	 */
+	private static final String UNKNOWN_PLAYER = "unknown";
+
+	/**
+	 * Private constructor.
+	 */
+	private GameRecords()
+	{
+	}
+
+	/**
+	 * The entry of the tool.
+	 * 
+	 * @param args
+	 *            The arguments.
+	 * @throws IOException
+	 *             If a file can not be read or written.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		if ((args.length == 2) && CHECK_MODE.equals(args[0]))
+		{
+			check(Paths.get(args[1]));
+		}
+		else if ((args.length >= 3) && CONVERT_MODE.equals(args[0]))
+		{
+			convert(Paths.get(args[1]), Paths.get(args[2]), (args.length > 3 ? args[3] : UNKNOWN_PLAYER), (args.length > 4 ? args[4] : UNKNOWN_PLAYER));
+		}
+		else
+		{
+			System.err.println("Usage: GameRecords check <game records> | GameRecords convert <text game records> <game records> [black description] [white description]");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Create a board game replaying the games, without view.
+	 * 
+	 * @return The board game.
+	 */
+	private static BoardGame createBoardGame()
+	{
+		return new BoardGame(BitBoard.SIZE, BitBoard.SIZE, new HumanPlayer(Cell.BLACK_PAWN), new HumanPlayer(Cell.WHITE_PAWN), new NullView());
+	}
+
+	/**
+	 * Check a game records file and print the results of its games.
+	 * 
+	 * @param path
+	 *            The path of the file.
+	 * @throws IOException
+	 *             If the file can not be read or is corrupted.
+	 */
+	private static void check(Path path) throws IOException
+	{
+		final BoardGame boardGame = createBoardGame();
+		final long startTime = System.nanoTime();
+		long nbBlackWins = 0;
+		long nbDraws = 0;
+		long nbMoves = 0;
+		long discDifferential = 0;
+		long nbGames;
+
+		try (GameRecordReader reader = new GameRecordReader(path))
+		{
+			GameRecord gameRecord;
+			while ((gameRecord = reader.read()) != null)
+			{
+				try
+				{
+					gameRecord.replay(boardGame);
+				}
+				catch (IllegalArgumentException e)
+				{
+					throw new IOException(String.format("Invalid game %d (%s): %s", reader.getNbGames(), e.getMessage(), gameRecord), e);
+				}
+
+				final int differential = gameRecord.getNbBlackPawns() - gameRecord.getNbWhitePawns();
+				nbBlackWins += (differential > 0 ? 1 : 0);
+				nbDraws += (differential == 0 ? 1 : 0);
+				nbMoves += gameRecord.getNbMoves();
+				discDifferential += differential;
+			}
+
+			nbGames = reader.getNbGames();
+		}
+
+		final long time = System.nanoTime() - startTime;
+		final long size = Files.size(path);
+		System.out.println(String.format("%d games checked in %d ms (%d games/s, %.1f MB/s, %.1f bytes by game)", nbGames, time / 1000000, nbGames * 1000000000 / Math.max(1, time),
+				size * 1000.0 / Math.max(1, time), (double) size / Math.max(1, nbGames)));
+		System.out.println(String.format("black wins %d, draws %d, white wins %d", nbBlackWins, nbDraws, nbGames - nbBlackWins - nbDraws));
+		System.out.println(String.format("mean moves %.1f, mean disc differential of black %+.2f", (double) nbMoves / Math.max(1, nbGames), (double) discDifferential / Math.max(1, nbGames)));
+	}
+
+	/**
+	 * Convert a text game record file to a binary one.
+	 * 
+	 * @param textPath
+	 *            The path of the text file.
+	 * @param path
+	 *            The path of the binary file.
+	 * @param blackPlayer
+	 *            The description of the black players.
+	 * @param whitePlayer
+	 *            The description of the white players.
+	 * @throws IOException
+	 *             If a file can not be read or written.
+	 */
+	private static void convert(Path textPath, Path path, String blackPlayer, String whitePlayer) throws IOException
+	{
+		final BoardGame boardGame = createBoardGame();
+		long nbIgnoredGames = 0;
+
+		try (BufferedReader reader = Files.newBufferedReader(textPath, StandardCharsets.UTF_8); GameRecordWriter writer = new GameRecordWriter(path))
+		{
+			String line;
+			while ((line = reader.readLine()) != null)
+			{
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith(COMMENT_PREFIX))
+				{
+					continue;
+				}
+
+				final int[] moves = BitBoard.parseMoves(line);
+				if ((moves == null) || (moves.length > GameRecord.MAX_NB_MOVES) || !replay(boardGame, moves))
+				{
+					nbIgnoredGames++;
+					continue;
+				}
+
+				writer.write(new GameRecord(blackPlayer, whitePlayer, boardGame.getNbCellsByPawn(Cell.BLACK_PAWN), boardGame.getNbCellsByPawn(Cell.WHITE_PAWN), moves));
+			}
+
+			System.out.println(String.format("%d games converted, %d ignored", writer.getNbGames(), nbIgnoredGames));
+		}
+	}
+
+	/**
+	 * Replay the moves of a game.
+	 * 
+	 * @param boardGame
+	 *            The board game.
+	 * @param moves
+	 *            The moves squares.
+	 * @return True if the moves are legal and the game is over.
+	 */
+	private static boolean replay(BoardGame boardGame, int[] moves)
+	{
+		try
+		{
+			boardGame.init(moves);
+			return boardGame.gameOver();
+		}
+		catch (IllegalArgumentException e)
+		{
+			return false;
+		}
+	}
+}
\ No newline at end of file
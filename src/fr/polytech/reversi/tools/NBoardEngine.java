@@ -0,0 +1,753 @@
+package fr.polytech.reversi.tools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.boardgame.Position;
+import fr.polytech.reversi.model.players.ComputerPlayer;
+import fr.polytech.reversi.model.players.HumanPlayer;
+import fr.polytech.reversi.model.players.ISearchListener;
+import fr.polytech.reversi.model.players.search.EndgameSolver;
+import fr.polytech.reversi.model.players.search.SearchStatistics;
+import fr.polytech.reversi.model.players.search.Searcher;
+import fr.polytech.reversi.view.NullView;
+
+/**
+ * This class runs the engine without user interface, speaking a line-based protocol on the standard input and output, after the NBoard protocol:
+ * <ul>
+ * <li>nboard &lt;version&gt;: answered by "set myname &lt;name&gt;",</li>
+ * <li>set depth &lt;depth&gt;, set time &lt;milliseconds&gt;: the max depth and the max time of a move (a depth set without a time removes the time limit),</li>
+ * <li>set game &lt;GGF game&gt;: the position reached by the moves of a game from the start position,</li>
+ * <li>set position &lt;moves&gt;: the position reached by moves in the usual notation ("f5d6c3..."),</li>
+ * <li>move &lt;move&gt;[/&lt;eval&gt;/&lt;time&gt;]: a move played in the position ("pa" for a pass),</li>
+ * <li>go: answered by "=== &lt;move&gt;/&lt;score&gt;/&lt;seconds&gt;" with the best move of the player to play,</li>
+ * <li>hint &lt;n&gt;: answered by a "search &lt;move and principal variation&gt; &lt;score&gt; 0 &lt;depth&gt;" line for each of the n best moves, between "status" lines,</li>
+ * <li>stop: the running search stops at once, giving the best move found so far,</li>
+ * <li>ping &lt;n&gt;: the running search is stopped, then "pong &lt;n&gt;" is answered once the previous commands are done,</li>
+ * <li>quit.</li>
+ * </ul>
+ *
+ * The commands are executed in turn on a search thread, so that stop and ping are read and handled at once while a search is running. The scores are given in discs, from the point of view of the
+ * player to play (see {@link SearchStatistics#getDiscScore()}): the evaluations and the endgame solves of the moves can so be compared.
+ *
+ * Usage: NBoardEngine [player configuration]
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class NBoardEngine implements ISearchListener
+{
+	/**
+	 * The name of the engine.
+	 */
+	private static final String NAME = "Polytech-Reversi";
+
+	/**
+	 * The default player configuration (see {@link PlayerConfiguration}).
+	 */
+	private static final String DEFAULT_CONFIGURATION = "time=3000";
+
+	/**
+	 * The max time of a move once a depth is set without a time: the search is only limited by the depth.
+	 */
+	private static final long UNLIMITED_MOVE_TIME = Long.MAX_VALUE;
+
+	/**
+	 * The name of the search thread.
+	 */
+	private static final String SEARCH_THREAD_NAME = "Reversi protocol search";
+
+	/**
+	 * The notation of a pass.
+	 */
+	private static final String PASS_NOTATION = "pa";
+
+	/**
+	 * The board of the start position in a GGF game (a1 to h8 by rows, then the player to play).
+	 */
+	private static final String GGF_START_BOARD = "8---------------------------O*------*O---------------------------*";
+
+	/**
+	 * The pattern of the board of a GGF game.
+	 */
+	private static final Pattern GGF_BOARD_PATTERN = Pattern.compile("BO\\[([^\\]]*)\\]");
+
+	/**
+	 * The pattern of a move of a GGF game.
+	 */
+	private static final Pattern GGF_MOVE_PATTERN = Pattern.compile("(?<![A-Z])[BW]\\[([A-Za-z]\\d|[Pp][Aa][Ss]*)[^\\]]*\\]");
+
+	/**
+	 * The max time waited for the search thread once the engine quits (in milliseconds).
+	 */
+	private static final long QUIT_TIMEOUT = 1000;
+
+	/**
+	 * The settings of the player configuration.
+	 */
+	private final String settings;
+
+	/**
+	 * The max depth set (0 for the depth of the configuration).
+	 */
+	private int maxDepth;
+
+	/**
+	 * The max time of a move set (0 for the time of the configuration).
+	 */
+	private long maxMoveTime;
+
+	/**
+	 * The configuration of the computer players.
+	 */
+	private PlayerConfiguration configuration;
+
+	/**
+	 * The computer players, by color of the player to play (black then white), created once needed.
+	 */
+	private final ComputerPlayer[] players;
+
+	/**
+	 * The board game of the position, whose players are human players.
+	 */
+	private final BoardGame boardGame;
+
+	/**
+	 * The moves squares leading to the position.
+	 */
+	private final int[] moves;
+
+	/**
+	 * The number of moves leading to the position.
+	 */
+	private int nbMoves;
+
+	/**
+	 * The search thread, executing the commands in turn.
+	 */
+	private final ExecutorService searchExecutor;
+
+	/**
+	 * The number of commands submitted to the search thread (written by the reading thread only).
+	 */
+	private long nbSubmittedCommands;
+
+	/**
+	 * The number of the last command stopped: the commands up to this one stop searching at once.
+	 */
+	private volatile long lastStoppedCommand;
+
+	/**
+	 * The number of the command executed by the search thread.
+	 */
+	private volatile long runningCommand;
+
+	/**
+	 * The computer player searching (null if none).
+	 */
+	private volatile ComputerPlayer searchingPlayer;
+
+	/**
+	 * The score of the last search (in discs).
+	 */
+	private double lastScore;
+
+	/**
+	 * The depth of the last search.
+	 */
+	private int lastDepth;
+
+	/**
+	 * The principal variation of the last search, in the usual notation.
+	 */
+	private String lastPrincipalVariation;
+
+	/**
+	 * The number of nodes of the last search.
+	 */
+	private long lastNbNodes;
+
+	/**
+	 * The elapsed time of the last search in milliseconds.
+	 */
+	private long lastElapsedTime;
+
+	/**
+	 * Create the engine.
+	 * 
+	 * @param settings
+	 *            The settings of the player configuration.
+	 * @throws IOException
+	 *             If the weights or the opening book of the configuration can not be loaded.
+	 */
+	private NBoardEngine(String settings) throws IOException
+	{
+		this.settings = settings;
+		this.configuration = new PlayerConfiguration(settings);
+		this.players = new ComputerPlayer[2];
+		this.boardGame = new BoardGame(BitBoard.SIZE, BitBoard.SIZE, new HumanPlayer(Cell.BLACK_PAWN), new HumanPlayer(Cell.WHITE_PAWN), new NullView());
+		this.boardGame.init();
+		this.moves = new int[BitBoard.NB_CELLS];
+		this.searchExecutor = Executors.newSingleThreadExecutor(runnable ->
+		{
+			final Thread thread = new Thread(runnable, SEARCH_THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * The entry of the engine.
+	 * 
+	 * @param args
+	 *            The arguments.
+	 * @throws IOException
+	 *             If the standard input can not be read, or if the weights or the opening book of the configuration can not be loaded.
+	 * @throws InterruptedException
+	 *             If the engine is interrupted while quitting.
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException
+	{
+		new NBoardEngine(args.length > 0 ? args[0] : DEFAULT_CONFIGURATION).run(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Read the commands until the end of the input or the quit command: stop and ping are handled at once, the other commands are submitted to the search thread.
+	 * 
+	 * @param input
+	 *            The input.
+	 * @throws IOException
+	 *             If the input can not be read.
+	 * @throws InterruptedException
+	 *             If the engine is interrupted while quitting.
+	 */
+	private void run(BufferedReader input) throws IOException, InterruptedException
+	{
+		String line;
+		while ((line = input.readLine()) != null)
+		{
+			line = line.trim();
+			if (line.isEmpty())
+			{
+				continue;
+			}
+
+			final String name = line.split("\\s+", 2)[0];
+			if ("quit".equals(name))
+			{
+				break;
+			}
+			else if ("stop".equals(name))
+			{
+				stop();
+				continue;
+			}
+			else if ("ping".equals(name))
+			{
+				stop();
+			}
+
+			final String command = line;
+			final long commandNumber = ++this.nbSubmittedCommands;
+			this.searchExecutor.execute(() -> execute(command, commandNumber));
+		}
+
+		stop();
+		this.searchExecutor.shutdown();
+		this.searchExecutor.awaitTermination(QUIT_TIMEOUT, TimeUnit.MILLISECONDS);
+		for (ComputerPlayer player : this.players)
+		{
+			if (player != null)
+			{
+				player.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Stop the running search and the searches of the commands already submitted.
+	 */
+	private void stop()
+	{
+		this.lastStoppedCommand = this.nbSubmittedCommands;
+		final ComputerPlayer player = this.searchingPlayer;
+		if (player != null)
+		{
+			player.stop();
+		}
+	}
+
+	/**
+	 * Check if the running command has been stopped.
+	 * 
+	 * @return True or False.
+	 */
+	private boolean isStopped()
+	{
+		return (this.runningCommand <= this.lastStoppedCommand);
+	}
+
+	/**
+	 * Send a line to the standard output.
+	 * 
+	 * @param line
+	 *            The line.
+	 */
+	private static void send(String line)
+	{
+		synchronized (System.out)
+		{
+			System.out.println(line);
+			System.out.flush();
+		}
+	}
+
+	/**
+	 * Execute a command on the search thread. A failing command is answered by a status line giving its error, so that the search thread goes on with the next commands.
+	 * 
+	 * @param command
+	 *            The command.
+	 * @param commandNumber
+	 *            The number of the command.
+	 */
+	private void execute(String command, long commandNumber)
+	{
+		this.runningCommand = commandNumber;
+		final String[] words = command.split("\\s+");
+
+		try
+		{
+			switch (words[0])
+			{
+				case "nboard":
+					send(String.format("set myname %s", NAME));
+					break;
+				case "set":
+					executeSet(command, words);
+					break;
+				case "move":
+					play(getArgument(words, 1).split("/")[0].toLowerCase());
+					break;
+				case "go":
+					go();
+					break;
+				case "hint":
+					hint(Integer.parseInt(getArgument(words, 1)));
+					break;
+				case "ping":
+					send(String.format("pong %s", (words.length > 1 ? words[1] : "")).trim());
+					break;
+				default:
+					send(String.format("status Unsupported command (%s)", words[0]));
+			}
+		}
+		catch (RuntimeException | IOException e)
+		{
+			send(String.format("status %s", (e.getMessage() != null ? e.getMessage() : e)));
+		}
+	}
+
+	/**
+	 * Get an argument of a command.
+	 * 
+	 * @param words
+	 *            The words of the command.
+	 * @param index
+	 *            The index of the argument.
+	 * @return The argument.
+	 * @throws IllegalArgumentException
+	 *             If the argument is missing.
+	 */
+	private static String getArgument(String[] words, int index)
+	{
+		if (words.length <= index)
+		{
+			throw new IllegalArgumentException(String.format("Missing argument of the command %s", words[0]));
+		}
+
+		return words[index];
+	}
+
+	/**
+	 * Execute a set command.
+	 * 
+	 * @param command
+	 *            The command.
+	 * @param words
+	 *            The words of the command.
+	 * @throws IOException
+	 *             If the weights or the opening book of the configuration can not be loaded.
+	 */
+	private void executeSet(String command, String[] words) throws IOException
+	{
+		switch (getArgument(words, 1))
+		{
+			case "depth":
+				this.maxDepth = Integer.parseInt(getArgument(words, 2));
+				updateConfiguration();
+				break;
+			case "time":
+				this.maxMoveTime = Long.parseLong(getArgument(words, 2));
+				updateConfiguration();
+				break;
+			case "game":
+				setPosition(parseGame(command.substring(command.indexOf("game") + "game".length())));
+				break;
+			case "position":
+				final int[] squares = BitBoard.parseMoves(words.length > 2 ? words[2] : "");
+				if (squares == null)
+				{
+					throw new IllegalArgumentException(String.format("Invalid moves (%s)", words[2]));
+				}
+				setPosition(squares);
+				break;
+			case "contempt":
+				break;
+			default:
+				throw new IllegalArgumentException(String.format("Unsupported setting (%s)", words[1]));
+		}
+	}
+
+	/**
+	 * Update the configuration from the depth and the time set: the computer players are created again once needed. A depth set without a time removes the time limit of the configuration, so
+	 * that the depth is reached.
+	 * 
+	 * @throws IOException
+	 *             If the weights or the opening book of the configuration can not be loaded.
+	 */
+	private void updateConfiguration() throws IOException
+	{
+		final StringBuilder settings = new StringBuilder(this.settings);
+		if (this.maxDepth > 0)
+		{
+			settings.append(String.format(",depth=%d", this.maxDepth));
+		}
+
+		if (this.maxMoveTime > 0)
+		{
+			settings.append(String.format(",time=%d", this.maxMoveTime));
+		}
+		else if (this.maxDepth > 0)
+		{
+			settings.append(String.format(",time=%d", UNLIMITED_MOVE_TIME));
+		}
+
+		this.configuration = new PlayerConfiguration(settings.toString());
+		for (int index = 0; index < this.players.length; index++)
+		{
+			if (this.players[index] != null)
+			{
+				this.players[index].shutdown();
+				this.players[index] = null;
+			}
+		}
+	}
+
+	/**
+	 * Parse the moves of a GGF game, which must start from the start position.
+	 * 
+	 * @param game
+	 *            The GGF game.
+	 * @return The moves squares, the passes being left out.
+	 * @throws IllegalArgumentException
+	 *             If the game does not start from the start position or has an invalid move.
+	 */
+	private static int[] parseGame(String game)
+	{
+		final Matcher boardMatcher = GGF_BOARD_PATTERN.matcher(game);
+		final boolean hasBoard = boardMatcher.find();
+		if (hasBoard && !GGF_START_BOARD.equals(boardMatcher.group(1).replaceAll("\\s", "")))
+		{
+			throw new IllegalArgumentException("Unsupported start position of the game");
+		}
+
+		final List<Integer> squares = new ArrayList<Integer>();
+		final Matcher moveMatcher = GGF_MOVE_PATTERN.matcher(hasBoard ? game.substring(boardMatcher.end()) : game);
+		while (moveMatcher.find())
+		{
+			final String move = moveMatcher.group(1);
+			if (!move.toLowerCase().startsWith(PASS_NOTATION))
+			{
+				final int square = BitBoard.getSquare(move.charAt(0), move.charAt(1));
+				if (square < 0)
+				{
+					throw new IllegalArgumentException(String.format("Invalid move of the game (%s)", move));
+				}
+				squares.add(square);
+			}
+		}
+
+		final int[] moves = new int[squares.size()];
+		for (int index = 0; index < moves.length; index++)
+		{
+			moves[index] = squares.get(index);
+		}
+
+		return moves;
+	}
+
+	/**
+	 * Set the position reached by moves from the start position.
+	 * 
+	 * @param squares
+	 *            The moves squares (the passes are implied).
+	 * @throws IllegalArgumentException
+	 *             If a move is illegal.
+	 */
+	private void setPosition(int[] squares)
+	{
+		if (squares.length > this.moves.length)
+		{
+			throw new IllegalArgumentException(String.format("Too many moves (%d)", squares.length));
+		}
+
+		try
+		{
+			this.boardGame.init(squares);
+		}
+		catch (IllegalArgumentException e)
+		{
+			this.boardGame.init(Arrays.copyOf(this.moves, this.nbMoves));
+			throw e;
+		}
+
+		System.arraycopy(squares, 0, this.moves, 0, squares.length);
+		this.nbMoves = squares.length;
+	}
+
+	/**
+	 * Play a move in the position.
+	 * 
+	 * @param move
+	 *            The move in the usual notation, or "pa" for a pass.
+	 * @throws IllegalArgumentException
+	 *             If the move is illegal.
+	 */
+	private void play(String move)
+	{
+		final long legalMoves = this.boardGame.getCurrentLegalMoves();
+		if (move.startsWith(PASS_NOTATION))
+		{
+			if (legalMoves != 0)
+			{
+				throw new IllegalArgumentException("Illegal pass");
+			}
+
+			// The passes are implied by the moves.
+			return;
+		}
+
+		final int square = (move.length() == 2 ? BitBoard.getSquare(move.charAt(0), move.charAt(1)) : -1);
+		if ((square < 0) || ((legalMoves & (1L << square)) == 0) || this.boardGame.gameOver())
+		{
+			throw new IllegalArgumentException(String.format("Illegal move (%s)", move));
+		}
+
+		final int[] squares = Arrays.copyOf(this.moves, this.nbMoves + 1);
+		squares[this.nbMoves] = square;
+		setPosition(squares);
+	}
+
+	/**
+	 * Search the best move of the player to play, and send it. If the search fails, the first legal move is sent before the error is thrown, so that the interface is not left waiting for a move.
+	 */
+	private void go()
+	{
+		if (this.boardGame.gameOver())
+		{
+			throw new IllegalArgumentException("The game is over");
+		}
+
+		if (this.boardGame.getCurrentLegalMoves() == 0)
+		{
+			send(String.format("=== %s", PASS_NOTATION.toUpperCase()));
+			return;
+		}
+
+		final int square;
+		try
+		{
+			square = search(this.boardGame, this.boardGame.getCurrentPlayer().getCellRepresentation(), false);
+		}
+		catch (RuntimeException e)
+		{
+			send(String.format("=== %s", BitBoard.getNotation(Long.numberOfTrailingZeros(this.boardGame.getCurrentLegalMoves())).toUpperCase()));
+			throw e;
+		}
+
+		send(String.format(Locale.ROOT, "=== %s/%.2f/%.3f", BitBoard.getNotation(square).toUpperCase(), this.lastScore, this.lastElapsedTime / 1000.0));
+		send(String.format(Locale.ROOT, "nodestats %d %.3f", this.lastNbNodes, this.lastElapsedTime / 1000.0));
+	}
+
+	/**
+	 * Search the best moves of the player to play: the position reached by each legal move is searched for the player to play next, and the best moves are sent with their scores. The players
+	 * analyse the positions, so that each one is searched (see {@link ComputerPlayer#setAnalysis(boolean)}); the positions where the game is over are scored as the endgame solves. If a search fails,
+	 * the moves already searched are still sent before the error is thrown.
+	 * 
+	 * @param nbMovesToSend
+	 *            The number of moves to send.
+	 */
+	private void hint(int nbMovesToSend)
+	{
+		if (this.boardGame.gameOver())
+		{
+			throw new IllegalArgumentException("The game is over");
+		}
+
+		send("status Analysing");
+		final Cell playerPawn = this.boardGame.getCurrentPlayer().getCellRepresentation();
+		final Cell opponentPawn = (playerPawn == Cell.BLACK_PAWN ? Cell.WHITE_PAWN : Cell.BLACK_PAWN);
+		final List<String> hints = new ArrayList<String>();
+		final List<Double> scores = new ArrayList<Double>();
+		long nbNodes = 0;
+		long elapsedTime = 0;
+		long legalMoves = this.boardGame.getCurrentLegalMoves();
+
+		try
+		{
+			while ((legalMoves != 0) && !isStopped())
+			{
+				final int square = Long.numberOfTrailingZeros(legalMoves);
+				legalMoves &= legalMoves - 1;
+
+				final BoardGame movedBoardGame = new BoardGame(this.boardGame);
+				movedBoardGame.makeMove(square, playerPawn);
+				double score;
+				int depth;
+				String principalVariation = BitBoard.getNotation(square).toUpperCase();
+
+				if (movedBoardGame.gameOver())
+				{
+					score = EndgameSolver.getFinalScore(movedBoardGame.getPawns(playerPawn), movedBoardGame.getPawns(opponentPawn), movedBoardGame.getNbCellsRemaining());
+					depth = 0;
+				}
+				else
+				{
+					final boolean opponentPasses = !movedBoardGame.playerCanPlay(opponentPawn);
+					search(movedBoardGame, (opponentPasses ? playerPawn : opponentPawn), true);
+					score = (opponentPasses ? this.lastScore : -this.lastScore);
+					depth = this.lastDepth;
+					principalVariation += (opponentPasses ? PASS_NOTATION.toUpperCase() : "") + this.lastPrincipalVariation;
+					nbNodes += this.lastNbNodes;
+					elapsedTime += this.lastElapsedTime;
+				}
+
+				hints.add(String.format(Locale.ROOT, "search %s %.2f 0 %d", principalVariation, score, depth));
+				scores.add(score);
+			}
+		}
+		finally
+		{
+			final List<Integer> order = new ArrayList<Integer>();
+			for (int index = 0; index < hints.size(); index++)
+			{
+				order.add(index);
+			}
+			Collections.sort(order, (first, second) -> Double.compare(scores.get(second), scores.get(first)));
+
+			for (int index = 0; index < Math.min(nbMovesToSend, order.size()); index++)
+			{
+				send(hints.get(order.get(index)));
+			}
+
+			send(String.format(Locale.ROOT, "nodestats %d %.3f", nbNodes, elapsedTime / 1000.0));
+			send("status");
+		}
+	}
+
+	/**
+	 * Search the best move of a player, who must have a legal move.
+	 * 
+	 * @param searchedBoardGame
+	 *            The board game to search (copied).
+	 * @param playerPawn
+	 *            The pawn of the player to play.
+	 * @param analysis
+	 *            True to analyse the position (see {@link ComputerPlayer#setAnalysis(boolean)}).
+	 * @return The best move square.
+	 */
+	private int search(BoardGame searchedBoardGame, Cell playerPawn, boolean analysis)
+	{
+		final ComputerPlayer player = getPlayer(playerPawn);
+		player.setAnalysis(analysis);
+		this.searchingPlayer = player;
+		try
+		{
+			final Position position = player.getNextChoice(new BoardGame(searchedBoardGame));
+			return BitBoard.getSquare(position.getX(), position.getY());
+		}
+		finally
+		{
+			this.searchingPlayer = null;
+		}
+	}
+
+	/**
+	 * Get the computer player of a color, creating it if needed.
+	 * 
+	 * @param playerPawn
+	 *            The pawn of the player.
+	 * @return The computer player.
+	 */
+	private ComputerPlayer getPlayer(Cell playerPawn)
+	{
+		final int index = (playerPawn == Cell.BLACK_PAWN ? 0 : 1);
+		if (this.players[index] == null)
+		{
+			this.players[index] = this.configuration.createPlayer(playerPawn);
+			this.players[index].setSearchListener(this);
+		}
+
+		return this.players[index];
+	}
+
+	/**
+	 * Stop the search if its command has been stopped: a stop coming before the search is prepared is applied once its first iteration is completed.
+	 * 
+	 * @see fr.polytech.reversi.model.players.ISearchListener#notifyIteration(fr.polytech.reversi.model.players.search.SearchStatistics)
+	 */
+	@Override
+	public void notifyIteration(SearchStatistics statistics)
+	{
+		final ComputerPlayer player = this.searchingPlayer;
+		if ((player != null) && isStopped())
+		{
+			player.stop();
+		}
+	}
+
+	/**
+	 * @see fr.polytech.reversi.model.players.ISearchListener#notifyMove(fr.polytech.reversi.model.players.search.SearchStatistics)
+	 */
+	@Override
+	public void notifyMove(SearchStatistics statistics)
+	{
+		final StringBuilder principalVariation = new StringBuilder();
+		for (int index = 0; index < statistics.getPrincipalVariationLength(); index++)
+		{
+			final int move = statistics.getPrincipalVariationMove(index);
+			principalVariation.append(move == Searcher.PASS ? PASS_NOTATION : BitBoard.getNotation(move));
+		}
+
+		this.lastScore = statistics.getDiscScore();
+		this.lastDepth = statistics.getDepth();
+		this.lastPrincipalVariation = principalVariation.toString().toUpperCase();
+		this.lastNbNodes = statistics.getNbNodes();
+		this.lastElapsedTime = statistics.getElapsedTime();
+	}
+}
\ No newline at end of file
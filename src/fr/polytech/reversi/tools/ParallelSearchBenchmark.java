@@ -0,0 +1,121 @@
+package fr.polytech.reversi.tools;
+
+import java.util.Random;
+
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.players.ComputerPlayer;
+import fr.polytech.reversi.model.players.search.TimeManager;
+
+/**
+ * This class measures the speedup of the parallel search: the time to reach a fixed depth on reproducible positions, for 1 to N search threads. The rows with more threads than available
+ * processors are marked with a '*': their threads share the processors, so their speedup does not measure the parallel search.
+ *
+ * Usage: ParallelSearchBenchmark [max threads] [depth] [positions]
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class ParallelSearchBenchmark
+{
+	/**
+	 * The seed of the positions.
+	 */
+	private static final long SEED = 42L;
+
+	/**
+	 * The number of random moves played to create a position.
+	 */
+	private static final int NB_OPENING_MOVES = 16;
+
+	/**
+	 * The transposition table size (in MB).
+	 */
+	private static final int TRANSPOSITION_TABLE_SIZE = 64;
+
+	/**
+	 * The max time of a move (never reached, the depth limits the search).
+	 */
+	private static final long MAX_MOVE_TIME = Long.MAX_VALUE / 4;
+
+	/**
+	 * Private constructor.
+	 */
+	private ParallelSearchBenchmark()
+	{
+	}
+
+	/**
+	 * The entry of the benchmark.
+	 * 
+	 * @param args
+	 *            The arguments.
+	 */
+	public static void main(String[] args)
+	{
+		final int nbProcessors = Runtime.getRuntime().availableProcessors();
+		final int maxThreads = (args.length > 0 ? Integer.parseInt(args[0]) : nbProcessors);
+		final int depth = (args.length > 1 ? Integer.parseInt(args[1]) : 10);
+		final int nbPositions = (args.length > 2 ? Integer.parseInt(args[2]) : 8);
+
+		final BoardGame[] positions = new BoardGame[nbPositions];
+		final Random random = new Random(SEED);
+		for (int index = 0; index < nbPositions; index++)
+		{
+			positions[index] = RandomPositions.create(random, NB_OPENING_MOVES);
+		}
+
+		// Warm the JIT compiler up, so that the single thread run is not penalized.
+		search(positions, depth, 1, new long[1]);
+
+		System.out.println(String.format("%d available processors, depth %d, %d positions", nbProcessors, depth, nbPositions));
+		System.out.println(String.format("%-8s %12s %14s %12s %8s", "threads", "time (ms)", "nodes", "knodes/s", "speedup"));
+
+		final long[] nbNodes = new long[1];
+		long singleThreadTime = 0;
+		for (int nbThreads = 1; nbThreads <= maxThreads; nbThreads = (nbThreads == maxThreads ? maxThreads + 1 : Math.min(2 * nbThreads, maxThreads)))
+		{
+			final long time = search(positions, depth, nbThreads, nbNodes);
+			if (nbThreads == 1)
+			{
+				singleThreadTime = time;
+			}
+
+			System.out.println(String.format("%-8d %12d %14d %12d %8.2f%s", nbThreads, time / 1000000, nbNodes[0], nbNodes[0] * 1000000 / Math.max(1, time), (double) singleThreadTime / time,
+					(nbThreads > nbProcessors ? " *" : "")));
+		}
+	}
+
+	/**
+	 * Search all the positions to a fixed depth.
+	 * 
+	 * @param positions
+	 *            The positions.
+	 * @param depth
+	 *            The depth.
+	 * @param nbThreads
+	 *            The number of search threads.
+	 * @param nbNodes
+	 *            The array receiving the total number of nodes.
+	 * @return The total time in nanoseconds.
+	 */
+	private static long search(BoardGame[] positions, int depth, int nbThreads, long[] nbNodes)
+	{
+		long time = 0;
+		nbNodes[0] = 0;
+
+		for (BoardGame position : positions)
+		{
+			final Cell playerPawn = position.getCurrentPlayer().getCellRepresentation();
+			final ComputerPlayer computerPlayer = new ComputerPlayer(playerPawn, depth, 0, new TimeManager(0, MAX_MOVE_TIME), TRANSPOSITION_TABLE_SIZE, nbThreads);
+
+			final long startTime = System.nanoTime();
+			computerPlayer.getNextChoice(new BoardGame(position));
+			time += System.nanoTime() - startTime;
+			nbNodes[0] += computerPlayer.getNbNodes();
+			computerPlayer.shutdown();
+		}
+
+		return time;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,235 @@
+package fr.polytech.reversi.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.players.HumanPlayer;
+import fr.polytech.reversi.view.NullView;
+
+/**
+ * This class counts the leaves of the game tree to a given depth (perft), to check the move generation and measure its raw speed without any evaluation. A pass is a move of the tree, and a game
+ * over position is a leaf whatever the remaining depth. The moves of the last ply are counted without being played, and the moves of the root may be split between several threads.
+ *
+ * The verification mode checks the counts of the start position against the known reference counts, and fails if one differs.
+ *
+ * Usage: Perft &lt;depth&gt; [opening moves] [threads] | Perft verify [max depth] [threads]
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class Perft
+{
+	/**
+	 * The reference counts of the start position, by depth.
+	 */
+	private static final long[] REFERENCE_COUNTS = new long[] { 1L, 4L, 12L, 56L, 244L, 1396L, 8200L, 55092L, 390216L, 3005288L, 24571284L, 212258800L };
+
+	/**
+	 * The argument of the verification mode.
+	 */
+	private static final String VERIFY_MODE = "verify";
+
+	/**
+	 * Private constructor.
+	 */
+	private Perft()
+	{
+	}
+
+	/**
+	 * The entry of the tool.
+	 * 
+	 * @param args
+	 *            The arguments.
+	 * @throws InterruptedException
+	 *             If the count is interrupted.
+	 * @throws ExecutionException
+	 *             If the count of a root move has failed.
+	 */
+	public static void main(String[] args) throws InterruptedException, ExecutionException
+	{
+		if (args.length < 1)
+		{
+			System.err.println("Usage: Perft <depth> [opening moves] [threads] | Perft verify [max depth] [threads]");
+			System.exit(1);
+		}
+
+		final int nbThreads = (args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors());
+		if (VERIFY_MODE.equals(args[0]))
+		{
+			final int maxDepth = Math.min(REFERENCE_COUNTS.length - 1, (args.length > 1 ? Integer.parseInt(args[1]) : 9));
+			boolean verified = true;
+			for (int depth = 1; depth <= maxDepth; depth++)
+			{
+				verified &= run(createBoardGame(new int[0]), depth, nbThreads, REFERENCE_COUNTS[depth]);
+			}
+
+			System.out.println(verified ? "All the counts are right" : "Some counts are wrong");
+			System.exit(verified ? 0 : 1);
+		}
+
+		final int[] openingMoves = (args.length > 1 ? BitBoard.parseMoves(args[1]) : new int[0]);
+		if (openingMoves == null)
+		{
+			throw new IllegalArgumentException(String.format("Invalid opening moves (%s)", args[1]));
+		}
+
+		run(createBoardGame(openingMoves), Integer.parseInt(args[0]), nbThreads, -1);
+	}
+
+	/**
+	 * Create the board game of the counted position.
+	 * 
+	 * @param openingMoves
+	 *            The moves squares leading to the position from the start position.
+	 * @return The board game, whose current player is the player to play.
+	 */
+	private static BoardGame createBoardGame(int[] openingMoves)
+	{
+		final BoardGame boardGame = new BoardGame(BitBoard.SIZE, BitBoard.SIZE, new HumanPlayer(Cell.BLACK_PAWN), new HumanPlayer(Cell.WHITE_PAWN), new NullView());
+		boardGame.init(openingMoves);
+		return boardGame;
+	}
+
+	/**
+	 * Count the leaves of a position and print the count.
+	 * 
+	 * @param boardGame
+	 *            The board game.
+	 * @param depth
+	 *            The depth.
+	 * @param nbThreads
+	 *            The number of threads.
+	 * @param expectedCount
+	 *            The expected count (-1 if unknown).
+	 * @return True if the count is the expected one (or if it is unknown).
+	 * @throws InterruptedException
+	 *             If the count is interrupted.
+	 * @throws ExecutionException
+	 *             If the count of a root move has failed.
+	 */
+	private static boolean run(BoardGame boardGame, int depth, int nbThreads, long expectedCount) throws InterruptedException, ExecutionException
+	{
+		final long startTime = System.nanoTime();
+		final long count = (nbThreads > 1 ? countInParallel(boardGame, depth, nbThreads) : count(boardGame, boardGame.getCurrentPlayer().getCellRepresentation(), depth));
+		final long time = System.nanoTime() - startTime;
+		final boolean expected = ((expectedCount < 0) || (count == expectedCount));
+
+		System.out.println(String.format("perft(%d) = %d in %d ms (%d knodes/s)%s", depth, count, time / 1000000, count * 1000000 / Math.max(1, time),
+				(expected ? "" : String.format(", expected %d", expectedCount))));
+		return expected;
+	}
+
+	/**
+	 * Count the leaves of a position, splitting its moves between several threads: each move is counted on its own board game copy.
+	 * 
+	 * @param boardGame
+	 *            The board game.
+	 * @param depth
+	 *            The depth.
+	 * @param nbThreads
+	 *            The number of threads.
+	 * @return The number of leaves.
+	 * @throws InterruptedException
+	 *             If the count is interrupted.
+	 * @throws ExecutionException
+	 *             If the count of a move has failed.
+	 */
+	private static long countInParallel(BoardGame boardGame, int depth, int nbThreads) throws InterruptedException, ExecutionException
+	{
+		final Cell playerPawn = boardGame.getCurrentPlayer().getCellRepresentation();
+		final Cell opponentPawn = getOpponentPawn(playerPawn);
+		long legalMoves = boardGame.getLegalMoves(playerPawn);
+		if ((depth <= 1) || (legalMoves == 0))
+		{
+			return count(boardGame, playerPawn, depth);
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+		try
+		{
+			final List<Future<Long>> counts = new ArrayList<Future<Long>>();
+			while (legalMoves != 0)
+			{
+				final BoardGame movedBoardGame = new BoardGame(boardGame);
+				movedBoardGame.makeMove(Long.numberOfTrailingZeros(legalMoves), playerPawn);
+				counts.add(executor.submit(() -> count(movedBoardGame, opponentPawn, depth - 1)));
+				legalMoves &= legalMoves - 1;
+			}
+
+			long count = 0;
+			for (Future<Long> moveCount : counts)
+			{
+				count += moveCount.get();
+			}
+
+			return count;
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Count the leaves of a position.
+	 * 
+	 * @param boardGame
+	 *            The board game.
+	 * @param playerPawn
+	 *            The pawn of the player to play.
+	 * @param depth
+	 *            The depth.
+	 * @return The number of leaves.
+	 */
+	private static long count(BoardGame boardGame, Cell playerPawn, int depth)
+	{
+		if (depth == 0)
+		{
+			return 1;
+		}
+
+		long legalMoves = boardGame.getLegalMoves(playerPawn);
+		if (legalMoves == 0)
+		{
+			final Cell opponentPawn = getOpponentPawn(playerPawn);
+			return (boardGame.playerCanPlay(opponentPawn) ? count(boardGame, opponentPawn, depth - 1) : 1);
+		}
+
+		if (depth == 1)
+		{
+			return Long.bitCount(legalMoves);
+		}
+
+		final Cell opponentPawn = getOpponentPawn(playerPawn);
+		long count = 0;
+		while (legalMoves != 0)
+		{
+			boardGame.makeMove(Long.numberOfTrailingZeros(legalMoves), playerPawn);
+			count += count(boardGame, opponentPawn, depth - 1);
+			boardGame.unmakeMove();
+			legalMoves &= legalMoves - 1;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Get the pawn of the opponent.
+	 * 
+	 * @param playerPawn
+	 *            The pawn of the player.
+	 * @return The pawn of the opponent.
+	 */
+	private static Cell getOpponentPawn(Cell playerPawn)
+	{
+		return (playerPawn == Cell.BLACK_PAWN ? Cell.WHITE_PAWN : Cell.BLACK_PAWN);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,235 @@
+package fr.polytech.reversi.tools;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.players.ComputerPlayer;
+import fr.polytech.reversi.model.players.Difficulty;
+import fr.polytech.reversi.model.players.book.BookSelection;
+import fr.polytech.reversi.model.players.book.OpeningBook;
+import fr.polytech.reversi.model.players.evaluation.IEvaluator;
+import fr.polytech.reversi.model.players.evaluation.PatternEvaluator;
+import fr.polytech.reversi.model.players.search.TimeManager;
+
+/**
+ * This class represents the configuration of a computer player, parsed from a comma separated list of settings ("depth=8,time=500,weights=patterns.bin" for instance):
+ * <ul>
+ * <li>difficulty: the difficulty giving the default budget (EASY, NORMAL or HARD),</li>
+ * <li>depth: the max depth,</li>
+ * <li>nodes: the max number of nodes by move (0 if unlimited),</li>
+ * <li>time: the max time of a move in milliseconds,</li>
+ * <li>game: the game time in milliseconds (0 if unlimited),</li>
+ * <li>endgame: the number of empty cells from which the endgame is solved (0 if never),</li>
+ * <li>tt: the transposition table size in MB,</li>
+ * <li>threads: the number of search threads,</li>
+ * <li>weights: the pattern weights file (the positional evaluation if none),</li>
+ * <li>book: the opening book file (none by default), its moves being selected at random if "random=true".</li>
+ * </ul>
+ *
+ * The weights and the opening book are loaded once, and shared by all the players created from the configuration.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class PlayerConfiguration
+{
+	/**
+	 * The separator of the settings.
+	 */
+	private static final String SETTINGS_SEPARATOR = ",";
+
+	/**
+	 * The separator of the name and the value of a setting.
+	 */
+	private static final String VALUE_SEPARATOR = "=";
+
+	/**
+	 * The text of the configuration.
+	 */
+	private final String text;
+
+	/**
+	 * The max depth.
+	 */
+	private int maxDepth;
+
+	/**
+	 * The max number of nodes by move (0 if unlimited).
+	 */
+	private long maxNodes;
+
+	/**
+	 * The max time of a move in milliseconds.
+	 */
+	private long maxMoveTime;
+
+	/**
+	 * The game time in milliseconds (0 if unlimited).
+	 */
+	private long gameTime;
+
+	/**
+	 * The number of empty cells from which the endgame is solved (0 if never).
+	 */
+	private int endgameEmpties;
+
+	/**
+	 * The transposition table size (in MB).
+	 */
+	private int transpositionTableSize;
+
+	/**
+	 * The number of search threads.
+	 */
+	private int nbThreads;
+
+	/**
+	 * The evaluator (null for the positional evaluation).
+	 */
+	private IEvaluator evaluator;
+
+	/**
+	 * The opening book (null if none).
+	 */
+	private OpeningBook openingBook;
+
+	/**
+	 * The selection of the book moves.
+	 */
+	private BookSelection bookSelection;
+
+	/**
+	 * Parse a player configuration.
+	 * 
+	 * @param text
+	 *            The comma separated list of settings.
+	 * @throws IOException
+	 *             If the weights or the opening book can not be loaded.
+	 * @throws IllegalArgumentException
+	 *             If a setting is unknown or invalid.
+	 */
+	public PlayerConfiguration(String text) throws IOException
+	{
+		this.text = text;
+		this.maxDepth = Difficulty.HARD.getMaxDepth();
+		this.maxMoveTime = ComputerPlayer.DEFAULT_MAX_MOVE_TIME;
+		this.endgameEmpties = ComputerPlayer.DEFAULT_ENDGAME_EMPTIES;
+		this.transpositionTableSize = ComputerPlayer.DEFAULT_TRANSPOSITION_TABLE_SIZE;
+		this.nbThreads = 1;
+		this.bookSelection = BookSelection.BEST;
+
+		for (String setting : text.split(SETTINGS_SEPARATOR))
+		{
+			final String[] nameAndValue = setting.trim().split(VALUE_SEPARATOR, 2);
+			if (nameAndValue.length != 2)
+			{
+				throw new IllegalArgumentException(String.format("Invalid player setting (%s)", setting));
+			}
+
+			parseSetting(nameAndValue[0].trim(), nameAndValue[1].trim());
+		}
+	}
+
+	/**
+	 * Parse a setting.
+	 * 
+	 * @param name
+	 *            The name of the setting.
+	 * @param value
+	 *            The value of the setting.
+	 * @throws IOException
+	 *             If the weights or the opening book can not be loaded.
+	 */
+	private void parseSetting(String name, String value) throws IOException
+	{
+		try
+		{
+			switch (name)
+			{
+				case "difficulty":
+					final Difficulty difficulty = Difficulty.valueOf(value);
+					this.maxDepth = difficulty.getMaxDepth();
+					this.maxNodes = difficulty.getMaxNodes();
+					this.maxMoveTime = difficulty.getMaxMoveTime();
+					this.gameTime = difficulty.getGameTime();
+					this.endgameEmpties = difficulty.getEndgameEmpties();
+					break;
+				case "depth":
+					this.maxDepth = Integer.parseInt(value);
+					break;
+				case "nodes":
+					this.maxNodes = Long.parseLong(value);
+					break;
+				case "time":
+					this.maxMoveTime = Long.parseLong(value);
+					break;
+				case "game":
+					this.gameTime = Long.parseLong(value);
+					break;
+				case "endgame":
+					this.endgameEmpties = Integer.parseInt(value);
+					break;
+				case "tt":
+					this.transpositionTableSize = Integer.parseInt(value);
+					break;
+				case "threads":
+					this.nbThreads = Integer.parseInt(value);
+					break;
+				case "weights":
+					this.evaluator = new PatternEvaluator(Paths.get(value));
+					break;
+				case "book":
+					this.openingBook = new OpeningBook(Paths.get(value));
+					break;
+				case "random":
+					this.bookSelection = (Boolean.parseBoolean(value) ? BookSelection.WEIGHTED_RANDOM : BookSelection.BEST);
+					break;
+				default:
+					throw new IllegalArgumentException(String.format("Unknown player setting (%s)", name));
+			}
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException(String.format("Invalid value of the player setting %s (%s)", name, value), e);
+		}
+	}
+
+	/**
+	 * Create a computer player from the configuration. It must be shut down once it is no longer used.
+	 * 
+	 * @param cellRepresentation
+	 *            The cell representation.
+	 * @return The computer player.
+	 */
+	public ComputerPlayer createPlayer(Cell cellRepresentation)
+	{
+		final ComputerPlayer computerPlayer = new ComputerPlayer(cellRepresentation, this.maxDepth, this.maxNodes, new TimeManager(this.gameTime, this.maxMoveTime), this.transpositionTableSize, this.nbThreads, this.endgameEmpties);
+		if (this.evaluator != null)
+		{
+			computerPlayer.setEvaluator(this.evaluator);
+		}
+
+		computerPlayer.setOpeningBook(this.openingBook, this.bookSelection);
+		return computerPlayer;
+	}
+
+	/**
+	 * Get the max time of a move.
+	 * 
+	 * @return The max time of a move in milliseconds.
+	 */
+	public long getMaxMoveTime()
+	{
+		return this.maxMoveTime;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return this.text;
+	}
+}
\ No newline at end of file
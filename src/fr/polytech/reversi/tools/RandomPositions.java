@@ -0,0 +1,91 @@
+package fr.polytech.reversi.tools;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.boardgame.Position;
+import fr.polytech.reversi.model.players.HumanPlayer;
+import fr.polytech.reversi.view.NullView;
+
+/**
+ * This class creates reproducible positions by playing random moves from the start position.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class RandomPositions
+{
+	/**
+	 * Private constructor.
+	 */
+	private RandomPositions()
+	{
+	}
+
+	/**
+	 * Create a position. The board game players are human players, so that the board game can be driven with {@link BoardGame#markCell(Position)}; the player to play is the current player of the
+	 * board game.
+	 * 
+	 * @param random
+	 *            The random generator.
+	 * @param nbMoves
+	 *            The number of random moves to play (less if the game ends before).
+	 * @return The board game.
+	 */
+	public static BoardGame create(Random random, int nbMoves)
+	{
+		final BoardGame boardGame = new BoardGame(BitBoard.SIZE, BitBoard.SIZE, new HumanPlayer(Cell.BLACK_PAWN), new HumanPlayer(Cell.WHITE_PAWN), new NullView());
+		boardGame.init(createOpening(random, nbMoves));
+		return boardGame;
+	}
+
+	/**
+	 * Create an opening by playing random moves from the start position, the passes being implied.
+	 * 
+	 * @param random
+	 *            The random generator.
+	 * @param nbMoves
+	 *            The number of random moves to play (less if the game ends before).
+	 * @return The moves squares.
+	 */
+	public static int[] createOpening(Random random, int nbMoves)
+	{
+		final int[] moves = new int[Math.min(nbMoves, BitBoard.NB_CELLS)];
+		long playerPawns = BitBoard.START_BLACK_PAWNS;
+		long opponentPawns = BitBoard.START_WHITE_PAWNS;
+		int nbPlayed = 0;
+
+		while (nbPlayed < moves.length)
+		{
+			long legalMoves = BitBoard.getLegalMoves(playerPawns, opponentPawns);
+			if (legalMoves == 0)
+			{
+				final long passingPawns = playerPawns;
+				playerPawns = opponentPawns;
+				opponentPawns = passingPawns;
+				legalMoves = BitBoard.getLegalMoves(playerPawns, opponentPawns);
+				if (legalMoves == 0)
+				{
+					break;
+				}
+			}
+
+			for (int skipped = random.nextInt(Long.bitCount(legalMoves)); skipped > 0; skipped--)
+			{
+				legalMoves &= legalMoves - 1;
+			}
+
+			final int square = Long.numberOfTrailingZeros(legalMoves);
+			final long flips = BitBoard.getFlips(square, playerPawns, opponentPawns);
+			final long movedPawns = playerPawns | flips | (1L << square);
+			playerPawns = opponentPawns & ~flips;
+			opponentPawns = movedPawns;
+			moves[nbPlayed++] = square;
+		}
+
+		return Arrays.copyOf(moves, nbPlayed);
+	}
+}
\ No newline at end of file
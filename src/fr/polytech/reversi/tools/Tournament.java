@@ -0,0 +1,396 @@
+package fr.polytech.reversi.tools;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+import fr.polytech.reversi.model.boardgame.Cell;
+import fr.polytech.reversi.model.boardgame.Zobrist;
+import fr.polytech.reversi.model.boardgame.records.GameRecordWriter;
+import fr.polytech.reversi.model.players.ComputerPlayer;
+import fr.polytech.reversi.model.players.HumanPlayer;
+import fr.polytech.reversi.model.players.search.TimeManager;
+import fr.polytech.reversi.view.NullView;
+import fr.polytech.reversi.view.StatisticsView;
+
+/**
+ * This class plays a tournament between two computer player configurations (see {@link PlayerConfiguration}), without user interface: the games are played concurrently on all the cores, each one
+ * with its own players, from random balanced openings. Each opening is played twice, the players swapping their colors, so that the advantage of an opening is cancelled out.
+ *
+ * The results are given from the point of view of the player A: wins, draws and losses, disc differential, and thinking time by move of both players. The games may be written to a game records
+ * file, the players being described by their configurations.
+ *
+ * Usage: Tournament &lt;player A&gt; &lt;player B&gt; [games] [opening moves] [parallel games] [game records]
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class Tournament
+{
+	/**
+	 * The seed of the openings.
+	 */
+	private static final long SEED = 42L;
+
+	/**
+	 * The depth of the search checking the balance of an opening.
+	 */
+	private static final int BALANCE_DEPTH = 6;
+
+	/**
+	 * The max absolute score of a balanced opening (positional evaluation).
+	 */
+	private static final int BALANCE_MARGIN = 10;
+
+	/**
+	 * The max number of random openings tried by opening needed.
+	 */
+	private static final int MAX_ATTEMPTS_BY_OPENING = 20;
+
+	/**
+	 * The transposition table size of the balance search (in MB).
+	 */
+	private static final int BALANCE_TRANSPOSITION_TABLE_SIZE = 4;
+
+	/**
+	 * The max time of a balance search (never reached, the depth limits the search).
+	 */
+	private static final long MAX_MOVE_TIME = Long.MAX_VALUE / 4;
+
+	/**
+	 * The time added to the max duration of a game before it is considered stuck (in milliseconds).
+	 */
+	private static final long GAME_TIMEOUT_MARGIN = 60000;
+
+	/**
+	 * The number of milliseconds by nanosecond.
+	 */
+	private static final double MILLISECONDS_BY_NANOSECOND = 1e-6;
+
+	/**
+	 * Private constructor.
+	 */
+	private Tournament()
+	{
+	}
+
+	/**
+	 * The entry of the tool.
+	 * 
+	 * @param args
+	 *            The arguments.
+	 * @throws IOException
+	 *             If the weights or the opening book of a player can not be loaded, or if the game records can not be written.
+	 * @throws InterruptedException
+	 *             If the tournament is interrupted.
+	 * @throws ExecutionException
+	 *             If a game has failed.
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException, ExecutionException
+	{
+		if (args.length < 2)
+		{
+			System.err.println("Usage: Tournament <player A> <player B> [games] [opening moves] [parallel games] [game records]");
+			System.exit(1);
+		}
+
+		final PlayerConfiguration playerA = new PlayerConfiguration(args[0]);
+		final PlayerConfiguration playerB = new PlayerConfiguration(args[1]);
+		final int nbOpenings = ((args.length > 2 ? Integer.parseInt(args[2]) : 100) + 1) / 2;
+		final int nbOpeningMoves = (args.length > 3 ? Integer.parseInt(args[3]) : 8);
+		final int nbParallelGames = (args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors());
+		final List<int[]> openings = createOpenings(new Random(SEED), nbOpenings, nbOpeningMoves);
+		System.out.println(String.format("A: %s", playerA));
+		System.out.println(String.format("B: %s", playerB));
+		System.out.println(String.format("%d games from %d openings of %d moves, %d in parallel", 2 * nbOpenings, openings.size(), nbOpeningMoves, nbParallelGames));
+
+		final long timeout = 2 * BitBoard.NB_CELLS * (playerA.getMaxMoveTime() + playerB.getMaxMoveTime()) + GAME_TIMEOUT_MARGIN;
+		final List<StatisticsView> results = new ArrayList<StatisticsView>();
+		final long startTime = System.nanoTime();
+		final ExecutorService executor = Executors.newFixedThreadPool(nbParallelGames);
+		final GameRecordWriter gameRecordWriter = (args.length > 5 ? new GameRecordWriter(Paths.get(args[5])) : null);
+		try
+		{
+			final List<Future<StatisticsView>> games = new ArrayList<Future<StatisticsView>>();
+			for (int game = 0; game < 2 * nbOpenings; game++)
+			{
+				final int[] opening = openings.get(game / 2 % openings.size());
+				final boolean playerAIsBlack = (game % 2 == 0);
+				games.add(executor.submit(() -> playGame(playerAIsBlack ? playerA : playerB, playerAIsBlack ? playerB : playerA, opening, timeout, gameRecordWriter)));
+			}
+
+			System.out.println(String.format("%-6s %-24s %-6s %8s", "game", "opening", "A", "A-B"));
+			for (int game = 0; game < games.size(); game++)
+			{
+				final StatisticsView result = games.get(game).get();
+				final int playerANumber = (game % 2 == 0 ? 1 : 2);
+				results.add(result);
+				System.out.println(String.format("%-6d %-24s %-6s %4d-%-3d", game + 1, getNotation(openings.get(game / 2 % openings.size())), (playerANumber == 1 ? "black" : "white"), result.getScore(playerANumber), result.getScore(3 - playerANumber)));
+			}
+		}
+		finally
+		{
+			// The games left are abandoned if one has failed, and the records of the games over are flushed anyway.
+			executor.shutdownNow();
+			if (gameRecordWriter != null)
+			{
+				gameRecordWriter.close();
+			}
+		}
+
+		if (gameRecordWriter != null)
+		{
+			System.out.println(String.format("%d games written to %s", gameRecordWriter.getNbGames(), args[5]));
+		}
+
+		printSummary(results, System.nanoTime() - startTime);
+	}
+
+	/**
+	 * Play a game.
+	 * 
+	 * @param blackConfiguration
+	 *            The configuration of the black player (player 1).
+	 * @param whiteConfiguration
+	 *            The configuration of the white player (player 2).
+	 * @param opening
+	 *            The moves of the opening.
+	 * @param timeout
+	 *            The max duration of the game in milliseconds.
+	 * @param gameRecordWriter
+	 *            The writer of the game record (null for none).
+	 * @return The statistics of the game.
+	 * @throws InterruptedException
+	 *             If the game is interrupted.
+	 */
+	private static StatisticsView playGame(PlayerConfiguration blackConfiguration, PlayerConfiguration whiteConfiguration, int[] opening, long timeout, GameRecordWriter gameRecordWriter) throws InterruptedException
+	{
+		final StatisticsView statisticsView = new StatisticsView();
+		final ComputerPlayer blackPlayer = blackConfiguration.createPlayer(Cell.BLACK_PAWN);
+		final ComputerPlayer whitePlayer = whiteConfiguration.createPlayer(Cell.WHITE_PAWN);
+
+		try
+		{
+			final BoardGame boardGame = new BoardGame(BitBoard.SIZE, BitBoard.SIZE, blackPlayer, whitePlayer, statisticsView);
+			boardGame.setGameRecordWriter(gameRecordWriter, blackConfiguration.toString(), whiteConfiguration.toString());
+			boardGame.init(opening);
+
+			// An opening which ends the game notifies no final message.
+			if (!boardGame.gameOver() && !statisticsView.awaitGameOver(timeout, TimeUnit.MILLISECONDS))
+			{
+				throw new IllegalStateException(String.format("The game is not over after %d ms (%s)", timeout, statisticsView.getLastMessage()));
+			}
+
+			if (statisticsView.getFailure() != null)
+			{
+				throw statisticsView.getFailure();
+			}
+		}
+		finally
+		{
+			blackPlayer.shutdown();
+			whitePlayer.shutdown();
+		}
+
+		return statisticsView;
+	}
+
+	/**
+	 * Create distinct balanced openings: random openings are drawn until enough of them are neither symmetric to a previous one nor too favorable to a player, according to a shallow search. If
+	 * too few are found, the last ones drawn complete the openings.
+	 * 
+	 * @param random
+	 *            The random generator.
+	 * @param nbOpenings
+	 *            The number of openings.
+	 * @param nbMoves
+	 *            The number of moves of an opening.
+	 * @return The openings moves squares.
+	 */
+	private static List<int[]> createOpenings(Random random, int nbOpenings, int nbMoves)
+	{
+		final List<int[]> openings = new ArrayList<int[]>();
+		final List<int[]> unbalancedOpenings = new ArrayList<int[]>();
+		final Set<Long> canonicalHashes = new HashSet<Long>();
+		final ComputerPlayer[] computerPlayers = new ComputerPlayer[] { createBalancePlayer(Cell.BLACK_PAWN), createBalancePlayer(Cell.WHITE_PAWN) };
+
+		for (int attempt = 0; (attempt < nbOpenings * MAX_ATTEMPTS_BY_OPENING) && (openings.size() < nbOpenings); attempt++)
+		{
+			final int[] opening = RandomPositions.createOpening(random, nbMoves);
+			final BoardGame boardGame = new BoardGame(BitBoard.SIZE, BitBoard.SIZE, new HumanPlayer(Cell.BLACK_PAWN), new HumanPlayer(Cell.WHITE_PAWN), new NullView());
+			boardGame.init(opening);
+			if (boardGame.gameOver() || !canonicalHashes.add(getCanonicalHash(boardGame.getPawns(Cell.BLACK_PAWN), boardGame.getPawns(Cell.WHITE_PAWN))))
+			{
+				continue;
+			}
+
+			final ComputerPlayer computerPlayer = computerPlayers[boardGame.getCurrentPlayer().getCellRepresentation() == Cell.BLACK_PAWN ? 0 : 1];
+			computerPlayer.getNextChoice(new BoardGame(boardGame));
+			(Math.abs(computerPlayer.getScore()) <= BALANCE_MARGIN ? openings : unbalancedOpenings).add(opening);
+		}
+
+		for (int index = unbalancedOpenings.size() - 1; (index >= 0) && (openings.size() < nbOpenings); index--)
+		{
+			openings.add(unbalancedOpenings.get(index));
+		}
+
+		for (ComputerPlayer computerPlayer : computerPlayers)
+		{
+			computerPlayer.shutdown();
+		}
+
+		if (openings.isEmpty())
+		{
+			throw new IllegalStateException(String.format("No opening of %d moves has been found", nbMoves));
+		}
+
+		return openings;
+	}
+
+	/**
+	 * Create the computer player checking the balance of the openings.
+	 * 
+	 * @param cellRepresentation
+	 *            The cell representation.
+	 * @return The computer player.
+	 */
+	private static ComputerPlayer createBalancePlayer(Cell cellRepresentation)
+	{
+		return new ComputerPlayer(cellRepresentation, BALANCE_DEPTH, 0, new TimeManager(0, MAX_MOVE_TIME), BALANCE_TRANSPOSITION_TABLE_SIZE, 1, 0);
+	}
+
+	/**
+	 * Get the hash of a position which is the same for all its symmetric positions.
+	 * 
+	 * @param blackPawns
+	 *            The black pawns bitboard.
+	 * @param whitePawns
+	 *            The white pawns bitboard.
+	 * @return The smallest hash of the symmetric positions.
+	 */
+	private static long getCanonicalHash(long blackPawns, long whitePawns)
+	{
+		long canonicalHash = Long.MAX_VALUE;
+		for (int symmetry = 0; symmetry < BitBoard.NB_SYMMETRIES; symmetry++)
+		{
+			canonicalHash = Math.min(canonicalHash, Zobrist.getHash(BitBoard.getSymmetry(blackPawns, symmetry), BitBoard.getSymmetry(whitePawns, symmetry)));
+		}
+
+		return canonicalHash;
+	}
+
+	/**
+	 * Get the usual notation of an opening.
+	 * 
+	 * @param opening
+	 *            The moves squares.
+	 * @return The notation ("f5d6c3..." for instance).
+	 */
+	private static String getNotation(int[] opening)
+	{
+		final StringBuilder notation = new StringBuilder();
+		for (int square : opening)
+		{
+			notation.append(BitBoard.getNotation(square));
+		}
+
+		return notation.toString();
+	}
+
+	/**
+	 * Print the summary of the tournament, from the point of view of the player A (player 1 of the even games, player 2 of the odd ones).
+	 * 
+	 * @param results
+	 *            The statistics of the games, in the order of the games.
+	 * @param time
+	 *            The duration of the tournament in nanoseconds.
+	 */
+	private static void printSummary(List<StatisticsView> results, long time)
+	{
+		int nbWins = 0;
+		int nbDraws = 0;
+		int nbLosses = 0;
+		double differentialsSum = 0;
+		double squaredDifferentialsSum = 0;
+		final List<long[]> playerAMoveTimes = new ArrayList<long[]>();
+		final List<long[]> playerBMoveTimes = new ArrayList<long[]>();
+
+		for (int game = 0; game < results.size(); game++)
+		{
+			final StatisticsView result = results.get(game);
+			final int playerANumber = (game % 2 == 0 ? 1 : 2);
+			final int differential = result.getScore(playerANumber) - result.getScore(3 - playerANumber);
+			nbWins += (differential > 0 ? 1 : 0);
+			nbDraws += (differential == 0 ? 1 : 0);
+			nbLosses += (differential < 0 ? 1 : 0);
+			differentialsSum += differential;
+			squaredDifferentialsSum += (double) differential * differential;
+			playerAMoveTimes.add(result.getMoveTimes(playerANumber));
+			playerBMoveTimes.add(result.getMoveTimes(3 - playerANumber));
+		}
+
+		final int nbGames = results.size();
+		final double points = nbWins + nbDraws / 2.0;
+		final double meanDifferential = differentialsSum / nbGames;
+		final double differentialDeviation = Math.sqrt(Math.max(0, squaredDifferentialsSum / nbGames - meanDifferential * meanDifferential));
+
+		System.out.println();
+		System.out.println(String.format("%d games in %.1f s", nbGames, time * MILLISECONDS_BY_NANOSECOND / 1000));
+		System.out.println(String.format("A: +%d =%d -%d, %.1f/%d points (%.1f%%)", nbWins, nbDraws, nbLosses, points, nbGames, 100 * points / nbGames));
+		System.out.println(String.format("A-B disc differential: %+.2f (standard deviation %.2f, 95%% interval %+.2f to %+.2f)", meanDifferential, differentialDeviation, meanDifferential - 1.96 * differentialDeviation / Math.sqrt(nbGames), meanDifferential + 1.96 * differentialDeviation / Math.sqrt(nbGames)));
+		System.out.println();
+		System.out.println(String.format("%-6s %8s %10s %10s %10s %10s", "player", "moves", "mean (ms)", "median", "95%", "max"));
+		printMoveTimes("A", playerAMoveTimes);
+		printMoveTimes("B", playerBMoveTimes);
+	}
+
+	/**
+	 * Print the thinking time statistics of the moves of a player.
+	 * 
+	 * @param player
+	 *            The name of the player.
+	 * @param gamesMoveTimes
+	 *            The thinking times of the moves in nanoseconds, by game.
+	 */
+	private static void printMoveTimes(String player, List<long[]> gamesMoveTimes)
+	{
+		int nbMoves = 0;
+		for (long[] moveTimes : gamesMoveTimes)
+		{
+			nbMoves += moveTimes.length;
+		}
+
+		final long[] sortedMoveTimes = new long[nbMoves];
+		int index = 0;
+		long totalTime = 0;
+		for (long[] moveTimes : gamesMoveTimes)
+		{
+			for (long moveTime : moveTimes)
+			{
+				sortedMoveTimes[index++] = moveTime;
+				totalTime += moveTime;
+			}
+		}
+		Arrays.sort(sortedMoveTimes);
+
+		if (nbMoves == 0)
+		{
+			System.out.println(String.format("%-6s %8d", player, nbMoves));
+			return;
+		}
+
+		System.out.println(String.format("%-6s %8d %10.1f %10.1f %10.1f %10.1f", player, nbMoves, totalTime * MILLISECONDS_BY_NANOSECOND / nbMoves, sortedMoveTimes[nbMoves / 2] * MILLISECONDS_BY_NANOSECOND, sortedMoveTimes[(int) (0.95 * (nbMoves - 1))] * MILLISECONDS_BY_NANOSECOND, sortedMoveTimes[nbMoves - 1] * MILLISECONDS_BY_NANOSECOND));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,292 @@
+package fr.polytech.reversi.tools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.Patterns;
+import fr.polytech.reversi.model.boardgame.records.GameRecord;
+import fr.polytech.reversi.model.boardgame.records.GameRecordReader;
+import fr.polytech.reversi.model.boardgame.records.GameRecordWriter;
+import fr.polytech.reversi.model.players.evaluation.PatternEvaluator;
+
+/**
+ * This class trains the weights of the pattern evaluation on game records: the weights of every position of the games are fitted to the final disc differential by stochastic gradient descent.
+ *
+ * A game record file holds a game by line, as its moves in the usual notation ("f5d6c3d3c4..."), black playing first. The empty lines and the lines starting with '#' are ignored, and the invalid or
+ * unfinished games are ignored with a warning. A binary game records file (see {@link GameRecordWriter}) is recognized by its magic number. No weights are written if no position has been
+ * read.
+ *
+ * Usage: TrainPatternWeights &lt;output weights&gt; &lt;epochs&gt; &lt;game records&gt;...
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public final class TrainPatternWeights
+{
+	/**
+	 * The number of game phases.
+	 */
+	private static final int NB_PHASES = 6;
+
+	/**
+	 * The weight of a disc.
+	 */
+	private static final int DISC_WEIGHT = 100;
+
+	/**
+	 * The learning rate.
+	 */
+	private static final float LEARNING_RATE = 0.002f;
+
+	/**
+	 * The seed of the shuffling of the positions.
+	 */
+	private static final long SEED = 42L;
+
+	/**
+	 * The comment prefix of the game record files.
+	 */
+	private static final String COMMENT_PREFIX = "#";
+
+	/**
+	 * Private constructor.
+	 */
+	private TrainPatternWeights()
+	{
+	}
+
+	/**
+	 * The entry of the tool.
+	 * 
+	 * @param args
+	 *            The arguments.
+	 * @throws IOException
+	 *             If a file can not be read or written.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length < 3)
+		{
+			System.err.println("Usage: TrainPatternWeights <output weights> <epochs> <game records>...");
+			System.exit(1);
+		}
+
+		final List<int[]> positions = new ArrayList<int[]>();
+		for (int index = 2; index < args.length; index++)
+		{
+			readPositions(args[index], positions);
+		}
+		System.out.println(String.format("%d positions", positions.size()));
+		if (positions.isEmpty())
+		{
+			System.err.println("No position read, no weights written");
+			System.exit(1);
+		}
+
+		final float[][][] weights = new float[NB_PHASES][Patterns.NB_KINDS][];
+		for (int phase = 0; phase < NB_PHASES; phase++)
+		{
+			for (int kind = 0; kind < Patterns.NB_KINDS; kind++)
+			{
+				weights[phase][kind] = new float[Patterns.getNbConfigurations(kind)];
+			}
+		}
+
+		final Random random = new Random(SEED);
+		final int nbEpochs = Integer.parseInt(args[1]);
+		for (int epoch = 1; epoch <= nbEpochs; epoch++)
+		{
+			double totalError = 0;
+			for (int index = positions.size() - 1; index >= 0; index--)
+			{
+				// Shuffle the positions as they are visited, so that the positions of a game are not learnt in a row.
+				final int swapped = random.nextInt(index + 1);
+				final int[] position = positions.get(swapped);
+				positions.set(swapped, positions.get(index));
+				positions.set(index, position);
+
+				final float[][] phaseWeights = weights[position[Patterns.NB_INSTANCES]];
+				float evaluation = 0;
+				for (int instance = 0; instance < Patterns.NB_INSTANCES; instance++)
+				{
+					evaluation += phaseWeights[Patterns.getKind(instance)][position[instance]];
+				}
+
+				final float error = position[Patterns.NB_INSTANCES + 1] - evaluation;
+				for (int instance = 0; instance < Patterns.NB_INSTANCES; instance++)
+				{
+					phaseWeights[Patterns.getKind(instance)][position[instance]] += LEARNING_RATE * error;
+				}
+				totalError += Math.abs(error);
+			}
+
+			System.out.println(String.format("epoch %d: mean error %.2f discs", epoch, totalError / Math.max(1, positions.size()) / DISC_WEIGHT));
+		}
+
+		final short[][][] roundedWeights = new short[NB_PHASES][Patterns.NB_KINDS][];
+		for (int phase = 0; phase < NB_PHASES; phase++)
+		{
+			for (int kind = 0; kind < Patterns.NB_KINDS; kind++)
+			{
+				roundedWeights[phase][kind] = new short[weights[phase][kind].length];
+				for (int code = 0; code < weights[phase][kind].length; code++)
+				{
+					roundedWeights[phase][kind][code] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(weights[phase][kind][code])));
+				}
+			}
+		}
+
+		PatternEvaluator.write(Paths.get(args[0]), roundedWeights);
+		System.out.println(String.format("%s written", args[0]));
+	}
+
+	/**
+	 * Read the positions of the games of a game record file, text or binary. A position is made of the codes of the pattern instances, followed by its phase and the final disc differential of black.
+	 * 
+	 * @param fileName
+	 *            The name of the game record file.
+	 * @param positions
+	 *            The list receiving the positions.
+	 * @throws IOException
+	 *             If the file can not be read.
+	 */
+	private static void readPositions(String fileName, List<int[]> positions) throws IOException
+	{
+		if (GameRecordReader.isGameRecordsFile(Paths.get(fileName)))
+		{
+			readGameRecords(Paths.get(fileName), positions);
+			return;
+		}
+
+		int nbGames = 0;
+		int nbLine = 0;
+		String line;
+
+		try (BufferedReader reader = Files.newBufferedReader(Paths.get(fileName), StandardCharsets.UTF_8))
+		{
+			while ((line = reader.readLine()) != null)
+			{
+				nbLine++;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith(COMMENT_PREFIX))
+				{
+					continue;
+				}
+
+				final int[] moves = BitBoard.parseMoves(line);
+				if ((moves != null) && addPositions(moves, positions))
+				{
+					nbGames++;
+				}
+				else
+				{
+					System.err.println(String.format("%s:%d: invalid or unfinished game ignored", fileName, nbLine));
+				}
+			}
+		}
+
+		System.out.println(String.format("%s: %d games added", fileName, nbGames));
+	}
+
+	/**
+	 * Read the positions of the games of a binary game records file.
+	 * 
+	 * @param path
+	 *            The path of the game records file.
+	 * @param positions
+	 *            The list receiving the positions.
+	 * @throws IOException
+	 *             If the file can not be read or is corrupted.
+	 */
+	private static void readGameRecords(Path path, List<int[]> positions) throws IOException
+	{
+		int nbGames = 0;
+		GameRecord gameRecord;
+
+		try (GameRecordReader reader = new GameRecordReader(path))
+		{
+			while ((gameRecord = reader.read()) != null)
+			{
+				if (addPositions(gameRecord.getMoves(), positions))
+				{
+					nbGames++;
+				}
+				else
+				{
+					System.err.println(String.format("%s: game %d: invalid or unfinished game ignored", path, reader.getNbGames()));
+				}
+			}
+		}
+
+		System.out.println(String.format("%s: %d games added", path, nbGames));
+	}
+
+	/**
+	 * Add the positions of a game, unless a move is illegal or the game is not over.
+	 * 
+	 * @param moves
+	 *            The moves squares.
+	 * @param positions
+	 *            The list receiving the positions.
+	 * @return True if the positions have been added, False if a move is illegal or if the game is not over.
+	 */
+	private static boolean addPositions(int[] moves, List<int[]> positions)
+	{
+		final List<int[]> gamePositions = new ArrayList<int[]>();
+		long blackPawns = BitBoard.START_BLACK_PAWNS;
+		long whitePawns = BitBoard.START_WHITE_PAWNS;
+		boolean blackToPlay = true;
+		long playerPawns;
+		long opponentPawns;
+		long flips;
+
+		for (int move : moves)
+		{
+			if (BitBoard.getLegalMoves(blackToPlay ? blackPawns : whitePawns, blackToPlay ? whitePawns : blackPawns) == 0)
+			{
+				blackToPlay = !blackToPlay;
+			}
+
+			playerPawns = (blackToPlay ? blackPawns : whitePawns);
+			opponentPawns = (blackToPlay ? whitePawns : blackPawns);
+			if ((BitBoard.getLegalMoves(playerPawns, opponentPawns) & (1L << move)) == 0)
+			{
+				return false;
+			}
+
+			flips = BitBoard.getFlips(move, playerPawns, opponentPawns);
+			blackPawns = (blackToPlay ? playerPawns | flips | (1L << move) : opponentPawns & ~flips);
+			whitePawns = (blackToPlay ? opponentPawns & ~flips : playerPawns | flips | (1L << move));
+			blackToPlay = !blackToPlay;
+
+			final int[] position = new int[Patterns.NB_INSTANCES + 2];
+			Patterns.computeCodes(blackPawns, whitePawns, position);
+			position[Patterns.NB_INSTANCES] = PatternEvaluator.getPhase(BitBoard.NB_CELLS - Long.bitCount(blackPawns | whitePawns), NB_PHASES);
+			gamePositions.add(position);
+		}
+
+		if ((BitBoard.getLegalMoves(blackPawns, whitePawns) != 0) || (BitBoard.getLegalMoves(whitePawns, blackPawns) != 0))
+		{
+			return false;
+		}
+
+		final int nbEmptyCells = BitBoard.NB_CELLS - Long.bitCount(blackPawns | whitePawns);
+		final int differential = Long.bitCount(blackPawns) - Long.bitCount(whitePawns);
+		final int finalDifferential = (differential > 0 ? differential + nbEmptyCells : (differential < 0 ? differential - nbEmptyCells : 0));
+		for (int[] position : gamePositions)
+		{
+			position[Patterns.NB_INSTANCES + 1] = finalDifferential * DISC_WEIGHT;
+			positions.add(position);
+		}
+
+		return true;
+	}
+}
\ No newline at end of file
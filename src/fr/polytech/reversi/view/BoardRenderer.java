@@ -0,0 +1,360 @@
+package fr.polytech.reversi.view;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.Cell;
+import javafx.beans.value.ChangeListener;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * This class represents the renderer of the board game on a canvas.
+ *
+ * The pawn images are decoded once, and only the squares which have changed since the previous rendering are repainted, so that no node nor image is created while playing. The legal moves of the
+ * current player may be shown with the number of pawns each one would flip. The whole board game is repainted when the canvas is resized.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class BoardRenderer
+{
+	/**
+	 * The missing square.
+	 */
+	public static final int NO_SQUARE = -1;
+
+	/**
+	 * The image path of the hint pawn.
+	 */
+	private static final String HINT_IMAGE_PATH = "/fr/polytech/reversi/view/resources/images/grey_pawn.png";
+
+	/**
+	 * The background color.
+	 */
+	private static final Color BACKGROUND_COLOR = Color.LIGHTGREEN;
+
+	/**
+	 * The grid color.
+	 */
+	private static final Color GRID_COLOR = Color.BLACK;
+
+	/**
+	 * The color of the numbers of flipped pawns.
+	 */
+	private static final Color FLIPS_COLOR = Color.DARKSLATEGRAY;
+
+	/**
+	 * The texts of the numbers of flipped pawns.
+	 */
+	private static final String[] FLIPS_TEXTS = new String[BitBoard.NB_CELLS];
+
+	static
+	{
+		for (int nbFlips = 0; nbFlips < FLIPS_TEXTS.length; nbFlips++)
+		{
+			FLIPS_TEXTS[nbFlips] = Integer.toString(nbFlips);
+		}
+	}
+
+	/**
+	 * The canvas.
+	 */
+	private final Canvas canvas;
+
+	/**
+	 * The black pawn image.
+	 */
+	private final Image blackPawnImage;
+
+	/**
+	 * The white pawn image.
+	 */
+	private final Image whitePawnImage;
+
+	/**
+	 * The hint pawn image.
+	 */
+	private final Image hintImage;
+
+	/**
+	 * The font of the numbers of flipped pawns, sized to the squares.
+	 */
+	private Font flipsFont;
+
+	/**
+	 * The rendered black pawns.
+	 */
+	private long blackPawns;
+
+	/**
+	 * The rendered white pawns.
+	 */
+	private long whitePawns;
+
+	/**
+	 * True if the whole board game has been rendered.
+	 */
+	private boolean rendered;
+
+	/**
+	 * The square of the hint pawn ({@link #NO_SQUARE} if none).
+	 */
+	private int hintSquare;
+
+	/**
+	 * The legal moves of the current player.
+	 */
+	private long legalMoves;
+
+	/**
+	 * The number of pawns flipped by each legal move.
+	 */
+	private final int[] nbFlips;
+
+	/**
+	 * True if all the legal moves are shown.
+	 */
+	private boolean legalMovesShown;
+
+	/**
+	 * Create a board renderer.
+	 * 
+	 * @param canvas
+	 *            The canvas.
+	 */
+	public BoardRenderer(Canvas canvas)
+	{
+		this.canvas = canvas;
+		this.blackPawnImage = new Image(Cell.BLACK_PAWN.getImagePath());
+		this.whitePawnImage = new Image(Cell.WHITE_PAWN.getImagePath());
+		this.hintImage = new Image(HINT_IMAGE_PATH);
+		this.flipsFont = createFlipsFont();
+		this.hintSquare = NO_SQUARE;
+		this.nbFlips = new int[BitBoard.NB_CELLS];
+
+		final ChangeListener<Number> resizeListener = (observable, oldSize, newSize) -> resize();
+		canvas.widthProperty().addListener(resizeListener);
+		canvas.heightProperty().addListener(resizeListener);
+	}
+
+	/**
+	 * Render the board game: only the squares which have changed are repainted.
+	 * 
+	 * @param blackPawns
+	 *            The black pawns bitboard.
+	 * @param whitePawns
+	 *            The white pawns bitboard.
+	 */
+	public void render(long blackPawns, long whitePawns)
+	{
+		long changedSquares = (this.rendered ? (blackPawns ^ this.blackPawns) | (whitePawns ^ this.whitePawns) : -1L);
+		this.blackPawns = blackPawns;
+		this.whitePawns = whitePawns;
+		this.rendered = true;
+
+		if ((this.hintSquare != NO_SQUARE) && ((changedSquares & (1L << this.hintSquare)) != 0))
+		{
+			this.hintSquare = NO_SQUARE;
+		}
+
+		while (changedSquares != 0)
+		{
+			drawSquare(Long.numberOfTrailingZeros(changedSquares));
+			changedSquares &= changedSquares - 1;
+		}
+	}
+
+	/**
+	 * Repaint the whole board game at the next rendering (after a resize of the canvas for instance).
+	 */
+	public void invalidate()
+	{
+		this.rendered = false;
+	}
+
+	/**
+	 * Resize the board game to the canvas: the whole board game is repainted if it has already been rendered.
+	 */
+	private void resize()
+	{
+		this.flipsFont = createFlipsFont();
+		if (this.rendered)
+		{
+			invalidate();
+			render(this.blackPawns, this.whitePawns);
+		}
+	}
+
+	/**
+	 * Show the hint pawn on a square, removing the previous one.
+	 * 
+	 * @param square
+	 *            The square ({@link #NO_SQUARE} to only remove the previous hint pawn).
+	 */
+	public void showHint(int square)
+	{
+		final int previousSquare = this.hintSquare;
+		if (previousSquare == square)
+		{
+			return;
+		}
+
+		this.hintSquare = square;
+		if (previousSquare != NO_SQUARE)
+		{
+			drawSquare(previousSquare);
+		}
+
+		if (square != NO_SQUARE)
+		{
+			drawSquare(square);
+		}
+	}
+
+	/**
+	 * Set the legal moves of the current player, repainting the squares whose overlay changes.
+	 * 
+	 * @param legalMoves
+	 *            The legal moves bitboard.
+	 * @param nbFlips
+	 *            The number of pawns flipped by each legal move, by square (only read if all the legal moves are shown).
+	 */
+	public void setLegalMoves(long legalMoves, int[] nbFlips)
+	{
+		long changedSquares = (this.legalMovesShown ? this.legalMoves | legalMoves : 0L);
+		this.legalMoves = legalMoves;
+		if (this.legalMovesShown)
+		{
+			System.arraycopy(nbFlips, 0, this.nbFlips, 0, BitBoard.NB_CELLS);
+		}
+
+		while (changedSquares != 0)
+		{
+			drawSquare(Long.numberOfTrailingZeros(changedSquares));
+			changedSquares &= changedSquares - 1;
+		}
+	}
+
+	/**
+	 * Set if all the legal moves are shown. It must be called before {@link #setLegalMoves(long, int[])}, which gives the numbers of flipped pawns.
+	 * 
+	 * @param legalMovesShown
+	 *            True or False.
+	 */
+	public void setLegalMovesShown(boolean legalMovesShown)
+	{
+		this.legalMovesShown = legalMovesShown;
+		this.rendered = false;
+	}
+
+	/**
+	 * Check if all the legal moves are shown.
+	 * 
+	 * @return True or False.
+	 */
+	public boolean isLegalMovesShown()
+	{
+		return this.legalMovesShown;
+	}
+
+	/**
+	 * Get the square under a point of the canvas.
+	 * 
+	 * @param canvasX
+	 *            The x coordinate on the canvas.
+	 * @param canvasY
+	 *            The y coordinate on the canvas.
+	 * @return The square, or {@link #NO_SQUARE} if the point is out of the board game.
+	 */
+	public int getSquare(double canvasX, double canvasY)
+	{
+		final int column = (int) Math.floor(canvasX / getSquareWidth());
+		final int row = (int) Math.floor(canvasY / getSquareHeight());
+		if ((row < 0) || (row >= BitBoard.SIZE) || (column < 0) || (column >= BitBoard.SIZE))
+		{
+			return NO_SQUARE;
+		}
+
+		return BitBoard.getSquare(row, column);
+	}
+
+	/**
+	 * Draw a square: its background, its grid lines and its pawn, hint pawn or legal move overlay.
+	 * 
+	 * @param square
+	 *            The square.
+	 */
+	private void drawSquare(int square)
+	{
+		final GraphicsContext graphics = this.canvas.getGraphicsContext2D();
+		final double width = getSquareWidth();
+		final double height = getSquareHeight();
+		final double left = BitBoard.getY(square) * width;
+		final double top = BitBoard.getX(square) * height;
+		final long cell = 1L << square;
+
+		graphics.setFill(BACKGROUND_COLOR);
+		graphics.fillRect(left, top, width, height);
+		graphics.setStroke(GRID_COLOR);
+		graphics.setLineWidth(1.0);
+		graphics.strokeRect(left + 0.5, top + 0.5, width - 1.0, height - 1.0);
+
+		if ((this.blackPawns & cell) != 0)
+		{
+			graphics.drawImage(this.blackPawnImage, left, top, width, height);
+		}
+		else if ((this.whitePawns & cell) != 0)
+		{
+			graphics.drawImage(this.whitePawnImage, left, top, width, height);
+		}
+		else if (this.legalMovesShown && ((this.legalMoves & cell) != 0))
+		{
+			graphics.setGlobalAlpha(square == this.hintSquare ? 1.0 : 0.5);
+			graphics.drawImage(this.hintImage, left, top, width, height);
+			graphics.setGlobalAlpha(1.0);
+			graphics.setFill(FLIPS_COLOR);
+			graphics.setFont(this.flipsFont);
+			graphics.setTextAlign(TextAlignment.CENTER);
+			graphics.setTextBaseline(VPos.CENTER);
+			graphics.fillText(FLIPS_TEXTS[this.nbFlips[square]], left + width / 2, top + height / 2);
+		}
+		else if (square == this.hintSquare)
+		{
+			graphics.drawImage(this.hintImage, left, top, width, height);
+		}
+	}
+
+	/**
+	 * Create the font of the numbers of flipped pawns, sized to the squares.
+	 * 
+	 * @return The font.
+	 */
+	private Font createFlipsFont()
+	{
+		return Font.font(getSquareHeight() / 3);
+	}
+
+	/**
+	 * Get the width of a square.
+	 * 
+	 * @return The width.
+	 */
+	private double getSquareWidth()
+	{
+		return this.canvas.getWidth() / BitBoard.SIZE;
+	}
+
+	/**
+	 * Get the height of a square.
+	 * 
+	 * @return The height.
+	 */
+	private double getSquareHeight()
+	{
+		return this.canvas.getHeight() / BitBoard.SIZE;
+	}
+}
\ No newline at end of file
@@ -53,4 +53,22 @@ public interface IView
 	 *            The player representation.
 	 */
 	public void notifyCurrentPlayer(int representation);
+
+	/**
+	 * Notify the view that a computer player could not choose its move: the game can not go on.
+	 * 
+	 * @param playerNumber
+	 *            The player number.
+	 * @param error
+	 *            The error of the search (null if none).
+	 */
+	public void notifyChoiceFailed(int playerNumber, Throwable error);
+
+	/**
+	 * Run a task on the view thread, after the pending notifications. The board game is only modified from the view thread: the choices computed on other threads are given back with it.
+	 * 
+	 * @param task
+	 *            The task.
+	 */
+	public void runLater(Runnable task);
 }
\ No newline at end of file
@@ -3,18 +3,19 @@ package fr.polytech.reversi.view;
 import java.net.URL;
 import java.util.ResourceBundle;
 
+import fr.polytech.reversi.model.boardgame.BitBoard;
 import fr.polytech.reversi.model.boardgame.BoardGame;
 import fr.polytech.reversi.model.boardgame.Cell;
 import fr.polytech.reversi.model.boardgame.Position;
 import fr.polytech.reversi.model.boardgame.exceptions.BoardGameException;
+import fr.polytech.reversi.model.players.IPlayer;
+import fr.polytech.reversi.model.players.PlayerType;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
-import javafx.scene.layout.Pane;
 
 /**
  * This class represents The JavaFX reversi view.
@@ -38,7 +39,7 @@ public class JavaFXReversiView implements IView, Initializable
 	 * The board game.
 	 */
 	@FXML
-	private GridPane boardGame;
+	private Canvas boardGame;
 
 	/**
 	 * The reversi version.
@@ -88,68 +89,125 @@ public class JavaFXReversiView implements IView, Initializable
 	@FXML
 	private Label message;
 
+	/**
+	 * The board renderer.
+	 */
+	private BoardRenderer boardRenderer;
+
+	/**
+	 * The last notified board game (null if none).
+	 */
+	private BoardGame currentBoardGame;
+
+	/**
+	 * The square under the mouse ({@link BoardRenderer#NO_SQUARE} if none).
+	 */
+	private int hoveredSquare;
+
+	/**
+	 * The legal moves of the current player if it is a human player (empty otherwise).
+	 */
+	private long legalMoves;
+
+	/**
+	 * The number of pawns flipped by each legal move, by square.
+	 */
+	private final int[] nbFlips = new int[BitBoard.NB_CELLS];
+
+	/**
+	 * Set if all the legal moves of a human player are shown, with the number of pawns each one would flip (only the legal move under the mouse is shown otherwise).
+	 * 
+	 * @param legalMovesShown
+	 *            True or False.
+	 */
+	public void setLegalMovesShown(boolean legalMovesShown)
+	{
+		this.boardRenderer.setLegalMovesShown(legalMovesShown);
+		if (this.currentBoardGame != null)
+		{
+			notifyUpdateBoardGame(this.currentBoardGame);
+		}
+	}
+
 	/**
 	 * @see fr.polytech.reversi.view.IView#notifyUpdateBoardGame(fr.polytech.reversi.model.boardgame.BoardGame)
 	 */
 	@Override
 	public void notifyUpdateBoardGame(BoardGame boardGame)
 	{
-		this.boardGame.getChildren().remove(1, this.boardGame.getChildren().size());
+		this.currentBoardGame = boardGame;
+		this.boardRenderer.render(boardGame.getPawns(Cell.BLACK_PAWN), boardGame.getPawns(Cell.WHITE_PAWN));
+		updateLegalMoves();
+	}
 
-		final Cell[][] boardGameRepresentation = boardGame.getBoardGame();
-		final Cell currentPlayerPawn = boardGame.getCurrentPlayer().getCellRepresentation();
-		Cell currentCell;
+	/**
+	 * Update the legal moves of the current player from the board game, and the overlays they drive.
+	 */
+	private void updateLegalMoves()
+	{
+		final IPlayer currentPlayer = this.currentBoardGame.getCurrentPlayer();
+		this.legalMoves = (currentPlayer.getPlayerType() == PlayerType.HUMAN ? this.currentBoardGame.getCurrentLegalMoves() : 0L);
 
-		for (int x = 0; x < boardGameRepresentation.length; x++)
+		if (this.boardRenderer.isLegalMovesShown())
 		{
-			for (int y = 0; y < boardGameRepresentation[0].length; y++)
+			long remainingMoves = this.legalMoves;
+			while (remainingMoves != 0)
 			{
-				final int xTemp = x;
-				final int yTemp = y;
-
-				currentCell = boardGameRepresentation[xTemp][yTemp];
-				final ImageView imageView = new ImageView(currentCell.getImagePath());
-				final Pane imagePane = new Pane(imageView);
-
-				imageView.fitWidthProperty().bind(imagePane.widthProperty());
-				imageView.fitHeightProperty().bind(imagePane.heightProperty());
-
-				if (currentCell == Cell.EMPTY)
-				{
-					imagePane.setOnMouseClicked(e ->
-					{
-						try
-						{
-							boardGame.markCell(new Position(xTemp, yTemp));
-						}
-						catch (Exception e1)
-						{
-							// Nothing.
-						}
-					});
-
-					imagePane.setOnMouseEntered(e ->
-					{
-						try
-						{
-							boardGame.checkMoveIsLegal(xTemp, yTemp, currentPlayerPawn);
-							imageView.setImage(new Image("/fr/polytech/reversi/view/resources/images/grey_pawn.png"));
-						}
-						catch (BoardGameException e2)
-						{
-							// Nothing.
-						}
-					});
-
-					imagePane.setOnMouseExited(e ->
-					{
-						imageView.setImage(new Image("/fr/polytech/reversi/view/resources/images/invisible_pawn.png"));
-					});
-				}
-
-				this.boardGame.add(imagePane, y, x);
+				final int square = Long.numberOfTrailingZeros(remainingMoves);
+				this.nbFlips[square] = this.currentBoardGame.getNbFlips(square, currentPlayer.getCellRepresentation());
+				remainingMoves &= remainingMoves - 1;
 			}
 		}
+
+		this.boardRenderer.setLegalMoves(this.legalMoves, this.nbFlips);
+		updateHint();
+	}
+
+	/**
+	 * Mark the square under the mouse, if the current player is a human player.
+	 * 
+	 * @param square
+	 *            The square.
+	 */
+	private void markSquare(int square)
+	{
+		if ((square == BoardRenderer.NO_SQUARE) || ((this.legalMoves & (1L << square)) == 0))
+		{
+			return;
+		}
+
+		try
+		{
+			this.currentBoardGame.markCell(new Position(BitBoard.getX(square), BitBoard.getY(square)));
+		}
+		catch (BoardGameException e)
+		{
+			// Nothing.
+		}
+	}
+
+	/**
+	 * Update the square under the mouse.
+	 * 
+	 * @param square
+	 *            The square ({@link BoardRenderer#NO_SQUARE} if none).
+	 */
+	private void hoverSquare(int square)
+	{
+		if (square != this.hoveredSquare)
+		{
+			this.hoveredSquare = square;
+			updateHint();
+		}
+	}
+
+	/**
+	 * Show the hint pawn on the square under the mouse if the current player is a human player who can play there.
+	 */
+	private void updateHint()
+	{
+		final boolean legalSquare = ((this.hoveredSquare != BoardRenderer.NO_SQUARE) && ((this.legalMoves & (1L << this.hoveredSquare)) != 0));
+		this.boardRenderer.showHint(legalSquare ? this.hoveredSquare : BoardRenderer.NO_SQUARE);
 	}
 
 	/**
@@ -178,6 +236,12 @@ public class JavaFXReversiView implements IView, Initializable
 	@Override
 	public void initialize(URL location, ResourceBundle resources)
 	{
+		this.boardRenderer = new BoardRenderer(this.boardGame);
+		this.hoveredSquare = BoardRenderer.NO_SQUARE;
+		this.boardGame.setOnMouseClicked(e -> markSquare(this.boardRenderer.getSquare(e.getX(), e.getY())));
+		this.boardGame.setOnMouseMoved(e -> hoverSquare(this.boardRenderer.getSquare(e.getX(), e.getY())));
+		this.boardGame.setOnMouseExited(e -> hoverSquare(BoardRenderer.NO_SQUARE));
+
 		this.version.setText(VERSION_TEXT);
 		this.playerOneScore.setText(String.format(PLAYER_TEXT, 1, 0));
 		this.playerTwoScore.setText(String.format(PLAYER_TEXT, 2, 0));
@@ -211,5 +275,29 @@ public class JavaFXReversiView implements IView, Initializable
 			this.playerOneHBox.setOpacity(0.3);
 			this.playerTwoHBox.setOpacity(1.0);
 		}
+
+		// The current player changes alone when a player has to pass.
+		if (this.currentBoardGame != null)
+		{
+			updateLegalMoves();
+		}
+	}
+
+	/**
+	 * @see fr.polytech.reversi.view.IView#notifyChoiceFailed(int, java.lang.Throwable)
+	 */
+	@Override
+	public void notifyChoiceFailed(int playerNumber, Throwable error)
+	{
+		notifyMessage(String.format("Joueur %d n'a pas pu choisir de coup", playerNumber));
+	}
+
+	/**
+	 * @see fr.polytech.reversi.view.IView#runLater(java.lang.Runnable)
+	 */
+	@Override
+	public void runLater(Runnable task)
+	{
+		Platform.runLater(task);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package fr.polytech.reversi.view;
+
+import fr.polytech.reversi.model.boardgame.BoardGame;
+
+/**
+ * This class represents a view which ignores all the notifications, used to run board games without user interface.
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class NullView implements IView
+{
+	/**
+	 * @see fr.polytech.reversi.view.IView#notifyUpdateBoardGame(fr.polytech.reversi.model.boardgame.BoardGame)
+	 */
+	@Override
+	public void notifyUpdateBoardGame(BoardGame boardGame)
+	{
+		// Nothing.
+	}
+
+	/**
+	 * @see fr.polytech.reversi.view.IView#notifyUpdateScore(int, int)
+	 */
+	@Override
+	public void notifyUpdateScore(int playerNumber, int score)
+	{
+		// Nothing.
+	}
+
+	/**
+	 * @see fr.polytech.reversi.view.IView#notifyUpdateMoves(int, int)
+	 */
+	@Override
+	public void notifyUpdateMoves(int playerNumber, int moves)
+	{
+		// Nothing.
+	}
+
+	/**
+	 * @see fr.polytech.reversi.view.IView#notifyMessage(java.lang.String)
+	 */
+	@Override
+	public void notifyMessage(String message)
+	{
+		// Nothing.
+	}
+
+	/**
+	 * @see fr.polytech.reversi.view.IView#notifyCurrentPlayer(int)
+	 */
+	@Override
+	public void notifyCurrentPlayer(int representation)
+	{
+		// Nothing.
+	}
+
+	/**
+	 * @see fr.polytech.reversi.view.IView#notifyChoiceFailed(int, java.lang.Throwable)
+	 */
+	@Override
+	public void notifyChoiceFailed(int playerNumber, Throwable error)
+	{
+		// Nothing.
+	}
+
+	/**
+	 * Run the task at once, on the calling thread.
+	 * 
+	 * @see fr.polytech.reversi.view.IView#runLater(java.lang.Runnable)
+	 */
+	@Override
+	public void runLater(Runnable task)
+	{
+		task.run();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,241 @@
+package fr.polytech.reversi.view;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import fr.polytech.reversi.model.boardgame.BitBoard;
+import fr.polytech.reversi.model.boardgame.BoardGame;
+
+/**
+ * This class represents a view which collects the statistics of a board game played without user interface: the final scores, and the thinking time of every move, measured between the
+ * notifications of the current player.
+ *
+ * The notifications come from the engine threads of the players, one after the other: the statistics must only be read once the game is over (see {@link #awaitGameOver(long, TimeUnit)}), and
+ * if it has not failed (see {@link #getFailure()}).
+ *
+ * @author DELORME Loïc
+ * @since 1.1.0
+ */
+public class StatisticsView extends NullView
+{
+	/**
+	 * The number of players.
+	 */
+	private static final int NB_PLAYERS = 2;
+
+	/**
+	 * The latch released once the game is over.
+	 */
+	private final CountDownLatch gameOver;
+
+	/**
+	 * The scores, by player.
+	 */
+	private final int[] scores;
+
+	/**
+	 * The number of moves, by player.
+	 */
+	private final int[] nbMoves;
+
+	/**
+	 * The thinking times of the moves in nanoseconds, by player.
+	 */
+	private final long[][] moveTimes;
+
+	/**
+	 * The thinking time of the current move in nanoseconds, by player.
+	 */
+	private final long[] thinkingTimes;
+
+	/**
+	 * The board game, until the game is over (null then, so that the statistics kept do not retain its players).
+	 */
+	private BoardGame boardGame;
+
+	/**
+	 * The number of the current player (0 if none yet).
+	 */
+	private int currentPlayerNumber;
+
+	/**
+	 * The start time of the turn of the current player.
+	 */
+	private long turnStartTime;
+
+	/**
+	 * The last message.
+	 */
+	private volatile String lastMessage;
+
+	/**
+	 * The failure of the game (null if none).
+	 */
+	private volatile IllegalStateException failure;
+
+	/**
+	 * Create a statistics view.
+	 */
+	public StatisticsView()
+	{
+		this.gameOver = new CountDownLatch(1);
+		this.scores = new int[NB_PLAYERS];
+		this.nbMoves = new int[NB_PLAYERS];
+		this.moveTimes = new long[NB_PLAYERS][BitBoard.NB_CELLS];
+		this.thinkingTimes = new long[NB_PLAYERS];
+	}
+
+	/**
+	 * @see fr.polytech.reversi.view.NullView#notifyUpdateBoardGame(fr.polytech.reversi.model.boardgame.BoardGame)
+	 */
+	@Override
+	public void notifyUpdateBoardGame(BoardGame boardGame)
+	{
+		this.boardGame = boardGame;
+	}
+
+	/**
+	 * @see fr.polytech.reversi.view.NullView#notifyUpdateScore(int, int)
+	 */
+	@Override
+	public void notifyUpdateScore(int playerNumber, int score)
+	{
+		this.scores[playerNumber - 1] = score;
+	}
+
+	/**
+	 * The thinking time accumulated by the player since its last move is recorded as the time of its new move.
+	 * 
+	 * @see fr.polytech.reversi.view.NullView#notifyUpdateMoves(int, int)
+	 */
+	@Override
+	public void notifyUpdateMoves(int playerNumber, int moves)
+	{
+		final int player = playerNumber - 1;
+		if ((moves > this.nbMoves[player]) && (moves <= BitBoard.NB_CELLS))
+		{
+			this.moveTimes[player][moves - 1] = this.thinkingTimes[player];
+			this.thinkingTimes[player] = 0;
+			this.nbMoves[player] = moves;
+		}
+	}
+
+	/**
+	 * The game is over once its final message is notified: the board game is then released.
+	 * 
+	 * @see fr.polytech.reversi.view.NullView#notifyMessage(java.lang.String)
+	 */
+	@Override
+	public void notifyMessage(String message)
+	{
+		this.lastMessage = message;
+		if ((this.boardGame != null) && this.boardGame.gameOver())
+		{
+			this.boardGame = null;
+			this.gameOver.countDown();
+		}
+	}
+
+	/**
+	 * The turn of the previous player ends, its thinking time is accumulated (a pass only accumulates the time of the notifications).
+	 * 
+	 * @see fr.polytech.reversi.view.NullView#notifyCurrentPlayer(int)
+	 */
+	@Override
+	public void notifyCurrentPlayer(int representation)
+	{
+		final long now = System.nanoTime();
+		if (this.currentPlayerNumber != 0)
+		{
+			this.thinkingTimes[this.currentPlayerNumber - 1] += now - this.turnStartTime;
+		}
+
+		this.currentPlayerNumber = representation;
+		this.turnStartTime = now;
+	}
+
+	/**
+	 * The game fails: a player could not choose its move.
+	 * 
+	 * @see fr.polytech.reversi.view.NullView#notifyChoiceFailed(int, java.lang.Throwable)
+	 */
+	@Override
+	public void notifyChoiceFailed(int playerNumber, Throwable error)
+	{
+		this.failure = new IllegalStateException(String.format("The player %d could not choose a move", playerNumber), error);
+		this.gameOver.countDown();
+	}
+
+	/**
+	 * Wait until the game is over, or has failed.
+	 * 
+	 * @param timeout
+	 *            The max time to wait.
+	 * @param unit
+	 *            The unit of the timeout.
+	 * @return True if the game is over or has failed, False if the timeout has elapsed before.
+	 * @throws InterruptedException
+	 *             If the current thread is interrupted while waiting.
+	 */
+	public boolean awaitGameOver(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		return this.gameOver.await(timeout, unit);
+	}
+
+	/**
+	 * Get the score of a player.
+	 * 
+	 * @param playerNumber
+	 *            The player number (1 or 2).
+	 * @return The score.
+	 */
+	public int getScore(int playerNumber)
+	{
+		return this.scores[playerNumber - 1];
+	}
+
+	/**
+	 * Get the number of moves of a player.
+	 * 
+	 * @param playerNumber
+	 *            The player number (1 or 2).
+	 * @return The number of moves.
+	 */
+	public int getNbMoves(int playerNumber)
+	{
+		return this.nbMoves[playerNumber - 1];
+	}
+
+	/**
+	 * Get the thinking times of the moves of a player.
+	 * 
+	 * @param playerNumber
+	 *            The player number (1 or 2).
+	 * @return The thinking times in nanoseconds, in the order of the moves.
+	 */
+	public long[] getMoveTimes(int playerNumber)
+	{
+		return Arrays.copyOf(this.moveTimes[playerNumber - 1], this.nbMoves[playerNumber - 1]);
+	}
+
+	/**
+	 * Get the failure of the game.
+	 * 
+	 * @return The failure (null if none).
+	 */
+	public IllegalStateException getFailure()
+	{
+		return this.failure;
+	}
+
+	/**
+	 * Get the last message.
+	 * 
+	 * @return The last message (null if none).
+	 */
+	public String getLastMessage()
+	{
+		return this.lastMessage;
+	}
+}
\ No newline at end of file